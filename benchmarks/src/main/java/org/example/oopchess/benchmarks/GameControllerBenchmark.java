@@ -0,0 +1,47 @@
+package org.example.oopchess.benchmarks;
+
+import org.example.oopchess.models.board.Move;
+import org.example.oopchess.rules.GameController;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+// Полная обработка хода контроллером: поиск хода среди getValidMoves, makeMove и updateGameState
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class GameControllerBenchmark {
+    // итальянская партия: e4 e5 Nf3 Nc6 Bc4 Bc5 O-O Nf6, в координатах (fromRow, fromCol, toRow, toCol)
+    private static final int[][] OPENING = {
+            {6, 4, 4, 4}, {1, 4, 3, 4}, {7, 6, 5, 5}, {0, 1, 2, 2},
+            {7, 5, 4, 2}, {0, 5, 3, 2}, {7, 4, 7, 6}, {0, 6, 2, 5}
+    };
+
+    private GameController controller;
+
+    @Setup
+    public void setup() {
+        controller = new GameController();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(8)
+    public Move playAndUndoOpening() {
+        Move last = null;
+        for (int[] m : OPENING) {
+            last = controller.makeMove(m[0], m[1], m[2], m[3]);
+        }
+        for (int i = 0; i < OPENING.length; i++) {
+            controller.undoLastMove();
+        }
+        return last;
+    }
+
+    @Benchmark
+    public Object validMovesForPiece() {
+        return controller.getValidMovesForPiece(7, 6);
+    }
+}
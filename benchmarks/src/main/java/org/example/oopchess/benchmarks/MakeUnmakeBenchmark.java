@@ -0,0 +1,41 @@
+package org.example.oopchess.benchmarks;
+
+import org.example.oopchess.models.board.Board;
+import org.example.oopchess.perft.PerftPosition;
+import org.example.oopchess.rules.MoveGenerator;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+// Цикл makeMove/undoMove по всем легальным ходам позиции, время на один ход
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MakeUnmakeBenchmark {
+    @Param({"INITIAL", "KIWIPETE", "POSITION_4"})
+    public PerftPosition position;
+
+    private Board board;
+    private int[] moves;
+    private int count;
+    private int index;
+
+    @Setup
+    public void setup() {
+        board = new Board(position.getFen());
+        moves = new int[MoveGenerator.MAX_MOVES];
+        count = board.getMoveValidator().getMoveGenerator().generateLegalMoves(moves, 0);
+    }
+
+    @Benchmark
+    public int makeUndoPacked() {
+        int move = moves[index];
+        index = index + 1 == count ? 0 : index + 1;
+        board.makeMove(move);
+        board.undoMove();
+        return move;
+    }
+}
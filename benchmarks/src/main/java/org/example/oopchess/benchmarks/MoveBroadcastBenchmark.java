@@ -0,0 +1,70 @@
+package org.example.oopchess.benchmarks;
+
+import org.example.oopchess.broadcast.MoveEventHandler;
+import org.example.oopchess.broadcast.MoveStream;
+import org.example.oopchess.broadcast.MoveStreamReader;
+import org.example.oopchess.models.board.PackedMove;
+import org.example.oopchess.models.board.PositionSnapshot;
+import org.example.oopchess.rules.GameController;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+// Рассылка хода зрителям через MoveStream при разном числе подписчиков:
+// publish - стоимость для потока партии (не должна зависеть от числа зрителей),
+// publishAndFanOut - ход плюс доставка его каждому подписчику, то есть полная цена хода для всех
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MoveBroadcastBenchmark {
+    private static final int MOVE = PackedMove.of(52, 36, PackedMove.DOUBLE_PAWN_PUSH); // e2e4
+
+    @Param({"1", "16", "256", "4096"})
+    public int subscribers;
+
+    private MoveStream stream;
+    private MoveStreamReader[] readers;
+    private MoveEventHandler handler;
+
+    @Setup
+    public void setup(Blackhole blackhole) {
+        stream = new MoveStream(new GameController(), 1024);
+        readers = new MoveStreamReader[subscribers];
+        handler = new MoveEventHandler() {
+            @Override
+            public void onEvent(long sequence, long event) {
+                blackhole.consume(event);
+            }
+
+            @Override
+            public void onSnapshot(long sequence, PositionSnapshot position) {
+                blackhole.consume(position);
+            }
+        };
+        for (int i = 0; i < subscribers; i++) {
+            readers[i] = stream.subscribe();
+            readers[i].poll(handler, 1); // стартовый снимок не входит в замер
+        }
+    }
+
+    // позиция на доске не меняется: меряется только публикация события и снимка
+    @Benchmark
+    public long publish() {
+        stream.onMove(MOVE);
+        return stream.getCursor();
+    }
+
+    @Benchmark
+    public int publishAndFanOut() {
+        stream.onMove(MOVE);
+        int delivered = 0;
+        for (MoveStreamReader reader : readers) {
+            delivered += reader.poll(handler, Integer.MAX_VALUE);
+        }
+        return delivered;
+    }
+}
@@ -0,0 +1,49 @@
+package org.example.oopchess.benchmarks;
+
+import org.example.oopchess.models.board.Board;
+import org.example.oopchess.perft.Perft;
+import org.example.oopchess.perft.PerftPosition;
+import org.example.oopchess.rules.MoveGenerator;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MoveGenerationBenchmark {
+    @Param({"INITIAL", "KIWIPETE", "POSITION_3", "POSITION_4", "POSITION_5", "POSITION_6"})
+    public PerftPosition position;
+
+    private Board board;
+    private MoveGenerator generator;
+    private Perft perft;
+    private int[] moves;
+
+    @Setup
+    public void setup() {
+        board = new Board(position.getFen());
+        generator = board.getMoveValidator().getMoveGenerator();
+        perft = new Perft(board);
+        moves = new int[MoveGenerator.MAX_MOVES];
+    }
+
+    @Benchmark
+    public int legalMoves() {
+        return generator.generateLegalMoves(moves, 0);
+    }
+
+    @Benchmark
+    public int pseudoLegalMoves() {
+        return generator.generatePseudoLegalMoves(moves, 0);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public long perft3() {
+        return perft.perft(3);
+    }
+}
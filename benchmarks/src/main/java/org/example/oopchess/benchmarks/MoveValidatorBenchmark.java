@@ -0,0 +1,70 @@
+package org.example.oopchess.benchmarks;
+
+import org.example.oopchess.enums.PieceColor;
+import org.example.oopchess.enums.PieceType;
+import org.example.oopchess.models.board.Board;
+import org.example.oopchess.models.board.Move;
+import org.example.oopchess.models.pieces.Piece;
+import org.example.oopchess.perft.PerftPosition;
+import org.example.oopchess.rules.MoveValidator;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Объектное API проверки ходов, которым пользуется GameController
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MoveValidatorBenchmark {
+    @Param({"INITIAL", "KIWIPETE", "POSITION_4"})
+    public PerftPosition position;
+
+    private Board board;
+    private MoveValidator validator;
+    private PieceColor side;
+    private Piece queen;
+    private int queenRow;
+    private int queenCol;
+
+    @Setup
+    public void setup() {
+        board = new Board(position.getFen());
+        validator = board.getMoveValidator();
+        side = board.getSideToMove();
+        for (int row = 0; row < 8 && queen == null; row++) {
+            for (int col = 0; col < 8; col++) {
+                Piece piece = board.getPiece(row, col);
+                if (piece != null && piece.getColor() == side && piece.getType() == PieceType.QUEEN) {
+                    queen = piece;
+                    queenRow = row;
+                    queenCol = col;
+                    break;
+                }
+            }
+        }
+    }
+
+    @Benchmark
+    public boolean isCheck() {
+        return validator.isCheck(side);
+    }
+
+    @Benchmark
+    public boolean isCheckmate() {
+        return validator.isCheckmate(side);
+    }
+
+    @Benchmark
+    public boolean isStalemate() {
+        return validator.isStalemate(side);
+    }
+
+    @Benchmark
+    public List<Move> validMovesForQueen() {
+        return validator.getValidMoves(queen, queenRow, queenCol);
+    }
+}
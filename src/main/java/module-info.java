@@ -6,4 +6,5 @@ module org.example.oopchess {
 
     opens org.example.oopchess to javafx.fxml;
     exports org.example.oopchess;
+    exports org.example.oopchess.spectator to javafx.graphics;
 }
\ No newline at end of file
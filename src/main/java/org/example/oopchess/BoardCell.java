@@ -0,0 +1,73 @@
+package org.example.oopchess;
+
+import javafx.scene.control.Label;
+import javafx.scene.layout.StackPane;
+import javafx.scene.paint.Color;
+import javafx.scene.shape.Circle;
+import javafx.scene.shape.Rectangle;
+import org.example.oopchess.enums.PieceColor;
+import org.example.oopchess.enums.PieceType;
+import org.example.oopchess.models.pieces.Piece;
+
+// Клетка доски, создается один раз: фон, подсветка выбора, точка хода и фигура - постоянные узлы,
+// обновление только меняет видимость и текст, и только если что-то действительно изменилось
+class BoardCell extends StackPane {
+    static final double SIZE = 70;
+    private static final char[] SYMBOLS = new char[12]; // по индексу фигуры color * 6 + type
+
+    static {
+        for (PieceColor color : PieceColor.values()) {
+            for (PieceType type : PieceType.values()) {
+                SYMBOLS[color.ordinal() * 6 + type.ordinal()] = Piece.of(type, color).getSymbol();
+            }
+        }
+    }
+
+    private final Rectangle selection = new Rectangle(SIZE, SIZE);
+    private final Circle moveDot = new Circle(10, Color.LIGHTGREEN);
+    private final Label pieceLabel = new Label();
+    private char symbol; // 0 - пусто
+    private PieceColor pieceColor;
+
+    BoardCell(int row, int col) {
+        setPrefSize(SIZE, SIZE);
+
+        Rectangle background = new Rectangle(SIZE, SIZE);
+        background.setFill(((row + col) % 2 == 0) ? Color.TAN : Color.SADDLEBROWN);
+
+        selection.setFill(Color.CORNFLOWERBLUE);
+        selection.setOpacity(0.4);
+        selection.setVisible(false);
+
+        moveDot.setOpacity(0.8);
+        moveDot.setVisible(false);
+        moveDot.setMouseTransparent(true);
+
+        pieceLabel.setStyle("-fx-font-size: 34; -fx-font-weight: bold;");
+        pieceLabel.setMouseTransparent(true);
+
+        getChildren().addAll(background, selection, moveDot, pieceLabel);
+    }
+
+    // index - color * 6 + type, -1 - пусто (см. GameView.pieceAt)
+    void setPiece(int index) {
+        char newSymbol = index < 0 ? 0 : SYMBOLS[index];
+        PieceColor newColor = index < 0 ? null : PieceColor.values()[index / 6];
+        if (newSymbol == symbol && newColor == pieceColor) return;
+
+        symbol = newSymbol;
+        pieceColor = newColor;
+        pieceLabel.setText(index < 0 ? "" : String.valueOf(newSymbol));
+        if (index >= 0) {
+            pieceLabel.setTextFill(newColor == PieceColor.WHITE ? Color.WHITE : Color.BLACK);
+        }
+    }
+
+    void setSelected(boolean selected) {
+        if (selection.isVisible() != selected) selection.setVisible(selected);
+    }
+
+    void setMoveTarget(boolean target) {
+        if (moveDot.isVisible() != target) moveDot.setVisible(target);
+    }
+}
@@ -1,24 +1,19 @@
 package org.example.oopchess;
 
+import javafx.application.Platform;
 import javafx.fxml.FXML;
 import javafx.geometry.Insets;
 import javafx.scene.control.Label;
 import javafx.scene.input.MouseButton;
 import javafx.scene.layout.BorderPane;
 import javafx.scene.layout.GridPane;
-import javafx.scene.layout.StackPane;
-import javafx.scene.paint.Color;
-import javafx.scene.shape.Circle;
-import javafx.scene.shape.Rectangle;
 import org.example.oopchess.enums.GameState;
-import org.example.oopchess.models.board.Move;
-import org.example.oopchess.models.pieces.Piece;
-import org.example.oopchess.rules.GameController;
 import org.example.oopchess.enums.PieceColor;
-import org.example.oopchess.models.board.Position;
+import org.example.oopchess.models.board.Bitboards;
+import org.example.oopchess.rules.GameView;
+import org.example.oopchess.rules.GameWorker;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
 
 public class ChessAppController {
     @FXML
@@ -35,53 +30,75 @@ public class ChessAppController {
     private Label blackStatusLabel;
 
     private GridPane chessBoard;
-    private GameController gameController;
-    private Position selectedPosition;
-    private List<Position> legalMoves;
+    private final BoardCell[][] cells = new BoardCell[8][8];
+
+    // вся логика партии - в потоке GameWorker; поток JavaFX видит только последний снимок и сам
+    // ничего не считает, поэтому клик обрабатывается за время кадра при любой нагрузке на партию
+    private GameWorker worker;
+    private final AtomicReference<GameView> pendingView = new AtomicReference<>();
+    private GameView view;
+    private int selectedSquare = -1;
+    private long selectedTargets;
 
     @FXML
     public void initialize() {
-        gameController = new GameController();
-        selectedPosition = null;
-        legalMoves = new ArrayList<>();
         setupBoard();
-        updateDisplay();
-        updatePlayerInfo();
+        worker = new GameWorker(this::publish);
     }
 
     @FXML
     private void newGame() {
-        gameController = new GameController();
-        selectedPosition = null;
-        legalMoves.clear();
-        updateDisplay();
-        updatePlayerInfo();
+        setSelection(-1, 0L);
+        worker.newGame();
     }
 
     @FXML
     private void resign() {
-        gameController.resign();
-        updateDisplay();
-        updatePlayerInfo();
+        worker.resign();
     }
 
     @FXML
     private void undoMove() {
-        gameController.undoLastMove();
-        updateDisplay();
+        setSelection(-1, 0L);
+        worker.undoLastMove();
+    }
+
+    // поток партии: снимки, пришедшие между кадрами, схлопываются - в очередь JavaFX ставится
+    // не больше одной задачи, и она рисует самый свежий снимок
+    private void publish(GameView newView) {
+        if (pendingView.getAndSet(newView) == null) {
+            Platform.runLater(this::render);
+        }
+    }
+
+    // сверяем все клетки со снимком: узлы не создаются, меняются только клетки с другой фигурой,
+    // так что отмена хода, рокировка и взятие на проходе не требуют особых случаев
+    private void render() {
+        view = pendingView.getAndSet(null);
+        for (int row = 0; row < 8; row++) {
+            for (int col = 0; col < 8; col++) {
+                cells[row][col].setPiece(view.pieceAt(Bitboards.square(row, col)));
+            }
+        }
+        // выбор мог устареть (ход отменен, партия начата заново) - берем цели из нового снимка
+        if (selectedSquare >= 0) {
+            setSelection(view.isOwnPiece(selectedSquare) ? selectedSquare : -1,
+                    view.isOwnPiece(selectedSquare) ? view.getTargets(selectedSquare) : 0L);
+        }
+        updateStatus();
         updatePlayerInfo();
     }
 
     private void updatePlayerInfo() {
-        whitePlayerLabel.setText("Белые: " + gameController.getPlayer(PieceColor.WHITE).getName());
-        blackPlayerLabel.setText("Черные: " + gameController.getPlayer(PieceColor.BLACK).getName());
+        whitePlayerLabel.setText("Белые: " + view.getPlayerName(PieceColor.WHITE));
+        blackPlayerLabel.setText("Черные: " + view.getPlayerName(PieceColor.BLACK));
 
         if (whiteStatusLabel != null && blackStatusLabel != null) {
-            whiteStatusLabel.setText(gameController.getPlayerStatus(PieceColor.WHITE).toString());
-            blackStatusLabel.setText(gameController.getPlayerStatus(PieceColor.BLACK).toString());
+            whiteStatusLabel.setText(view.getPlayerStatus(PieceColor.WHITE).toString());
+            blackStatusLabel.setText(view.getPlayerStatus(PieceColor.BLACK).toString());
 
-            setStatusLabelColor(whiteStatusLabel, gameController.getPlayerStatus(PieceColor.WHITE));
-            setStatusLabelColor(blackStatusLabel, gameController.getPlayerStatus(PieceColor.BLACK));
+            setStatusLabelColor(whiteStatusLabel, view.getPlayerStatus(PieceColor.WHITE));
+            setStatusLabelColor(blackStatusLabel, view.getPlayerStatus(PieceColor.BLACK));
         }
     }
 
@@ -107,92 +124,63 @@ public class ChessAppController {
         }
     }
 
+    // клетки и их обработчики создаются один раз, дальше меняется только их состояние
     private void setupBoard() {
         chessBoard = new GridPane();
         chessBoard.setPadding(new Insets(10));
-        rootPane.setCenter(chessBoard);
-    }
-
-    private void onCellClick(int row, int col) {
-        Position clicked = new Position(row, col);
-        Piece piece = gameController.getBoard().getPiece(new Position(row, col));
-
-        if (clicked.equals(selectedPosition)) {
-            selectedPosition = null;
-            legalMoves.clear();
-        } else if (piece != null && piece.getColor() == gameController.getCurrentPlayerColor()) {
-            selectedPosition = clicked;
-            legalMoves = gameController.getValidMovesForPiece(row, col);
-        } else if (selectedPosition != null && legalMoves.stream().anyMatch(p -> p.equals(clicked))) {
-            Move move = gameController.makeMove(selectedPosition.getRow(), selectedPosition.getCol(), row, col);
-            selectedPosition = null;
-            legalMoves.clear();
-        } else {
-            selectedPosition = null;
-            legalMoves.clear();
-        }
-
-        updateDisplay();
-        updatePlayerInfo();
-    }
-
-    private void updateDisplay() {
-        chessBoard.getChildren().clear();
-
-        for (int row = 7; row > -1; row--) {
+        for (int row = 0; row < 8; row++) {
             for (int col = 0; col < 8; col++) {
-                StackPane cell = buildCell(row, col);
+                BoardCell cell = new BoardCell(row, col);
+                int cellRow = row;
+                int cellCol = col;
+                cell.setOnMouseClicked(e -> {
+                    if (e.getButton() == MouseButton.PRIMARY)
+                        onCellClick(cellRow, cellCol);
+                });
+                cells[row][col] = cell;
                 chessBoard.add(cell, col, row);
             }
         }
-        updateStatus();
+        rootPane.setCenter(chessBoard);
     }
 
-    private StackPane buildCell(int row, int col) {
-        StackPane cell = new StackPane();
-        cell.setPrefSize(70, 70);
-
-        Rectangle bg = new Rectangle(70, 70);
-        bg.setFill(((row + col) % 2 == 0) ? Color.TAN : Color.SADDLEBROWN);
-        cell.getChildren().add(bg);
-
-        if (selectedPosition != null && selectedPosition.equals(new Position(row, col))) {
-            Rectangle sel = new Rectangle(70, 70);
-            sel.setFill(Color.CORNFLOWERBLUE);
-            sel.setOpacity(0.4);
-            cell.getChildren().add(sel);
+    // ход отправляется в поток партии, доска обновится со следующим снимком
+    private void onCellClick(int row, int col) {
+        if (view == null) return;
+        int clicked = Bitboards.square(row, col);
+
+        if (clicked == selectedSquare) {
+            setSelection(-1, 0L);
+        } else if (view.isOwnPiece(clicked)) {
+            setSelection(clicked, view.getTargets(clicked));
+        } else if (selectedSquare >= 0 && (selectedTargets & Bitboards.bit(clicked)) != 0) {
+            worker.makeMove(Bitboards.rowOf(selectedSquare), Bitboards.colOf(selectedSquare), row, col);
+            setSelection(-1, 0L);
+        } else {
+            setSelection(-1, 0L);
         }
+    }
 
-        for (Position p : legalMoves) {
-            if (p.getRow() == row && p.getCol() == col) {
-                Circle dot = new Circle(10, Color.LIGHTGREEN);
-                dot.setOpacity(0.8);
-                cell.getChildren().add(dot);
-            }
+    // снимаем подсветку только с прежних клеток и ставим на новые
+    private void setSelection(int square, long targets) {
+        if (selectedSquare >= 0) cellAt(selectedSquare).setSelected(false);
+        for (long rest = selectedTargets; rest != 0; rest &= rest - 1) {
+            cellAt(Long.numberOfTrailingZeros(rest)).setMoveTarget(false);
         }
-
-        Piece piece = gameController.getBoard().getPiece(new Position(row, col));
-        if (piece != null) {
-            Label lbl = new Label(pieceSymbol(piece));
-            lbl.setStyle("-fx-font-size: 34; -fx-font-weight: bold;");
-            lbl.setTextFill(piece.getColor() == PieceColor.WHITE ? Color.WHITE : Color.BLACK);
-            cell.getChildren().add(lbl);
+        selectedSquare = square;
+        selectedTargets = targets;
+        if (selectedSquare >= 0) cellAt(selectedSquare).setSelected(true);
+        for (long rest = selectedTargets; rest != 0; rest &= rest - 1) {
+            cellAt(Long.numberOfTrailingZeros(rest)).setMoveTarget(true);
         }
-
-        cell.setOnMouseClicked(e -> {
-            if (e.getButton() == MouseButton.PRIMARY)
-                onCellClick(row, col);
-        });
-
-        return cell;
     }
 
-    private String pieceSymbol(Piece piece) {
-        return String.valueOf(piece.getSymbol());
+    private BoardCell cellAt(int square) {
+        return cells[Bitboards.rowOf(square)][Bitboards.colOf(square)];
     }
 
     private void updateStatus() {
-        String current = (gameController.getCurrentPlayerColor() == PieceColor.WHITE)
+        String current = (view.getCurrentColor() == PieceColor.WHITE)
                 ? "Ход: Белые" : "Ход: Черные";
         statusLabel.setText(current);
     }
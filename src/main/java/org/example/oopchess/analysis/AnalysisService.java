@@ -0,0 +1,77 @@
+package org.example.oopchess.analysis;
+
+import org.example.oopchess.engine.SearchLimits;
+import org.example.oopchess.engine.TranspositionTable;
+import org.example.oopchess.models.board.Board;
+import org.example.oopchess.rules.GameController;
+import org.example.oopchess.tablebase.Tablebase;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+
+// Анализ позиций для разбора партий: каждый запрос - отдельная AnalysisSession со своей таблицей
+// транспозиций. Одновременно ищут не больше maxConcurrent сессий, остальные ждут в очереди,
+// чтобы наплыв пользователей не съел все ядра игровых серверов.
+public class AnalysisService implements AutoCloseable {
+    private final ExecutorService searchers;
+    private final ExecutorService delivery;
+    private final Semaphore slots;
+    private final int tableSizeMb;
+    private volatile Tablebase tablebase;
+
+    public AnalysisService(int maxConcurrent, int tableSizeMb) {
+        if (maxConcurrent < 1 || tableSizeMb < 1) {
+            throw new IllegalArgumentException("maxConcurrent and tableSizeMb must be positive");
+        }
+        this.slots = new Semaphore(maxConcurrent);
+        this.tableSizeMb = tableSizeMb;
+        this.searchers = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "analysis");
+            thread.setDaemon(true);
+            return thread;
+        });
+        // отдельный поток рассылки, чтобы подписчики не выполнялись в потоке поиска
+        this.delivery = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "analysis-delivery");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public void setTablebase(Tablebase tablebase) {
+        this.tablebase = tablebase;
+    }
+
+    // позиция копируется сразу, дальше ее можно менять; без лимитов анализ идет до cancel()
+    public AnalysisSession analyze(Board position, SearchLimits limits, int multiPv) {
+        AnalysisSession session = new AnalysisSession(position, new TranspositionTable(tableSizeMb), tablebase,
+                multiPv, delivery);
+        searchers.execute(() -> {
+            try {
+                slots.acquire();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                session.cancel();
+                session.run(limits);
+                return;
+            }
+            try {
+                session.run(limits);
+            } finally {
+                slots.release();
+            }
+        });
+        return session;
+    }
+
+    public AnalysisSession analyze(GameController controller, SearchLimits limits, int multiPv) {
+        return analyze(controller.getBoard(), limits, multiPv);
+    }
+
+    @Override
+    public void close() {
+        searchers.shutdownNow();
+        delivery.shutdown();
+    }
+}
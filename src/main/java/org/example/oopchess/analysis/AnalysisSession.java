@@ -0,0 +1,107 @@
+package org.example.oopchess.analysis;
+
+import org.example.oopchess.engine.Search;
+import org.example.oopchess.engine.SearchLimits;
+import org.example.oopchess.engine.SearchResult;
+import org.example.oopchess.engine.TranspositionTable;
+import org.example.oopchess.models.board.Board;
+import org.example.oopchess.notation.San;
+import org.example.oopchess.tablebase.Tablebase;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.SubmissionPublisher;
+import java.util.concurrent.TimeUnit;
+
+// Один запущенный анализ позиции. Поиск идет в отдельном потоке на своей копии доски, после каждой
+// глубины подписчики получают по строке на линию multi-PV, в конце - итог с isFinished() и onComplete.
+// Доставка через SubmissionPublisher: медленный подписчик не тормозит поиск, пока не заполнен его буфер
+// (дальше промежуточные строки для него отбрасываются - они все равно устаревают). Итог ждет места в буфере
+// не дольше FINAL_OFFER_TIMEOUT_MS, чтобы подписчик, переставший вызывать request(), не держал поток и слот
+// AnalysisService; в getResult() итог попадает всегда.
+public class AnalysisSession implements Flow.Publisher<AnalysisUpdate>, AutoCloseable {
+    private static final int SUBSCRIBER_BUFFER = 256;
+    private static final long FINAL_OFFER_TIMEOUT_MS = 100;
+
+    private final Board board;
+    private final Search search;
+    private final San san;
+    private final Board sanBoard;
+    private final SubmissionPublisher<AnalysisUpdate> publisher;
+    private final CompletableFuture<SearchResult> result = new CompletableFuture<>();
+
+    AnalysisSession(Board position, TranspositionTable table, Tablebase tablebase, int multiPv, Executor delivery) {
+        this.board = new Board(position);
+        this.sanBoard = new Board(position);
+        this.san = new San(sanBoard);
+        this.search = new Search(board, table);
+        this.search.setTablebase(tablebase);
+        this.search.setMultiPv(multiPv);
+        this.search.setListener((line, lineResult) -> publish(line, lineResult, false));
+        this.publisher = new SubmissionPublisher<>(delivery, SUBSCRIBER_BUFFER);
+    }
+
+    // выполняется в потоке анализа
+    void run(SearchLimits limits) {
+        try {
+            SearchResult last = search.search(limits); // отмена до старта сохраняется, поиск тогда вернется сразу
+            publish(1, last, true);
+            publisher.close();
+            result.complete(last);
+        } catch (RuntimeException e) {
+            publisher.closeExceptionally(e);
+            result.completeExceptionally(e);
+        }
+    }
+
+    // промежуточные строки при полном буфере подписчика отбрасываются сразу, итог - после короткого ожидания;
+    // submit() здесь нельзя: он ждет место в буфере без таймаута и без реакции на прерывание
+    private void publish(int line, SearchResult lineResult, boolean finished) {
+        if (publisher.isClosed()) return;
+        AnalysisUpdate update = new AnalysisUpdate(line, lineResult, toSan(lineResult.getPrincipalVariation()), finished);
+        if (finished) {
+            publisher.offer(update, FINAL_OFFER_TIMEOUT_MS, TimeUnit.MILLISECONDS, (subscriber, dropped) -> false);
+        } else {
+            publisher.offer(update, (subscriber, dropped) -> false);
+        }
+    }
+
+    // ходы линии проверены поиском, поэтому их можно проиграть на копии позиции
+    private String toSan(int[] pv) {
+        StringBuilder sb = new StringBuilder(pv.length * 6);
+        for (int move : pv) {
+            if (sb.length() > 0) sb.append(' ');
+            san.append(sb, move);
+            sanBoard.makeMove(move);
+        }
+        for (int i = 0; i < pv.length; i++) {
+            sanBoard.undoMove();
+        }
+        return sb.toString();
+    }
+
+    @Override
+    public void subscribe(Flow.Subscriber<? super AnalysisUpdate> subscriber) {
+        publisher.subscribe(subscriber);
+    }
+
+    // остановка: поиск доигрывает текущий узел, подписчики все равно получают итог и onComplete
+    public void cancel() {
+        search.stop();
+    }
+
+    public boolean isDone() {
+        return result.isDone();
+    }
+
+    // итог анализа - то же, что последняя строка с isFinished(), но не теряется у зависшего подписчика
+    public CompletableFuture<SearchResult> getResult() {
+        return result;
+    }
+
+    @Override
+    public void close() {
+        cancel();
+    }
+}
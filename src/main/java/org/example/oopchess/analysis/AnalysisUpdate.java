@@ -0,0 +1,80 @@
+package org.example.oopchess.analysis;
+
+import org.example.oopchess.engine.Search;
+import org.example.oopchess.engine.SearchResult;
+
+// Одна строка анализа: линия multi-PV на завершенной глубине либо итог (final) после остановки поиска.
+// Оценка - для стороны на ходу в анализируемой позиции, в сантипешках или мат.
+public class AnalysisUpdate {
+    private final int line;
+    private final SearchResult result;
+    private final String pvSan;
+    private final boolean finished;
+
+    public AnalysisUpdate(int line, SearchResult result, String pvSan, boolean finished) {
+        this.line = line;
+        this.result = result;
+        this.pvSan = pvSan;
+        this.finished = finished;
+    }
+
+    // номер линии multi-PV, 1 - лучшая
+    public int getLine() {
+        return line;
+    }
+
+    public int getDepth() {
+        return result.getDepth();
+    }
+
+    public int getScore() {
+        return result.getScore();
+    }
+
+    public boolean isMate() {
+        return result.isMate();
+    }
+
+    // мат в ходах: положительный - ставим мы, отрицательный - нам
+    public int getMateInMoves() {
+        int score = result.getScore();
+        int plies = Search.MATE - Math.abs(score);
+        return score > 0 ? (plies + 1) / 2 : -(plies + 1) / 2;
+    }
+
+    public int getBestMove() {
+        return result.getBestMove();
+    }
+
+    public int[] getPrincipalVariation() {
+        return result.getPrincipalVariation();
+    }
+
+    // главная линия в SAN через пробел
+    public String getPrincipalVariationSan() {
+        return pvSan;
+    }
+
+    public long getNodes() {
+        return result.getNodes();
+    }
+
+    public long getNodesPerSecond() {
+        return result.getNodesPerSecond();
+    }
+
+    public long getTimeMillis() {
+        return result.getTimeMillis();
+    }
+
+    public boolean isFinished() {
+        return finished;
+    }
+
+    @Override
+    public String toString() {
+        String score = isMate() ? "mate " + getMateInMoves() : "cp " + getScore();
+        return (finished ? "final " : "") + "depth " + getDepth() + " multipv " + line + " score " + score
+                + " nodes " + getNodes() + " nps " + getNodesPerSecond() + " time " + getTimeMillis() + " pv " + pvSan;
+    }
+}
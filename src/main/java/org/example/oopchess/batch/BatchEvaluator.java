@@ -0,0 +1,183 @@
+package org.example.oopchess.batch;
+
+import org.example.oopchess.engine.Evaluator;
+import org.example.oopchess.engine.Search;
+import org.example.oopchess.engine.SearchLimits;
+import org.example.oopchess.engine.SearchResult;
+import org.example.oopchess.engine.TranspositionTable;
+import org.example.oopchess.models.board.Board;
+import org.example.oopchess.models.board.PackedMove;
+import org.example.oopchess.rules.MoveGenerator;
+import org.example.oopchess.server.LatencyHistogram;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+
+// Пакетная оценка позиций для офлайн-обработки: поток чтения режет источник на пачки,
+// пачки разбираются в ForkJoinPool (пачка делится пополам до отдельных записей), у каждого рабочего
+// потока своя доска, таблица и поиск, которые переиспользуются от позиции к позиции.
+// Результаты пишутся в порядке входа: в полете не больше window пачек, запись ждет самую старую.
+// Лимиты с нулевыми глубиной и узлами означают статическую оценку без поиска.
+public class BatchEvaluator {
+    private final int threads;
+    private final SearchLimits limits;
+    private final int tableSizeMb;
+    private final int batchPositions;
+
+    public BatchEvaluator(int threads, SearchLimits limits, int tableSizeMb, int batchPositions) {
+        if (threads < 1 || tableSizeMb < 1 || batchPositions < 1) {
+            throw new IllegalArgumentException("threads, tableSizeMb and batchPositions must be positive");
+        }
+        if (limits.getTimeMillis() > 0) {
+            // ограничение по времени сделало бы результаты зависимыми от загрузки машины
+            throw new IllegalArgumentException("Batch evaluation supports only depth and node limits");
+        }
+        this.threads = threads;
+        this.limits = limits;
+        this.tableSizeMb = tableSizeMb;
+        this.batchPositions = batchPositions;
+    }
+
+    public BatchStats run(PositionSource source, ColumnarResultWriter out) throws IOException {
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        ThreadLocal<Worker> workers = ThreadLocal.withInitial(() -> new Worker(limits, tableSizeMb));
+        LatencyHistogram latency = new LatencyHistogram();
+        ArrayDeque<ForkJoinTask<?>> tasks = new ArrayDeque<>();
+        ArrayDeque<PositionBatch> inFlight = new ArrayDeque<>();
+        int window = 2 * threads;
+        long positions = 0;
+        long batches = 0;
+        long errors = 0;
+        long start = System.nanoTime();
+
+        try {
+            PositionBatch batch;
+            while ((batch = PositionBatch.read(source, positions, batchPositions)) != null) {
+                positions += batch.positions();
+                batch.submittedNanos = System.nanoTime();
+                inFlight.add(batch);
+                tasks.add(pool.submit(new EvaluateRange(batch, 0, batch.entries, workers)));
+                if (inFlight.size() == window) {
+                    errors += complete(tasks.poll(), inFlight.poll(), out, latency);
+                    batches++;
+                }
+            }
+            while (!inFlight.isEmpty()) {
+                errors += complete(tasks.poll(), inFlight.poll(), out, latency);
+                batches++;
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+        out.flush();
+        long millis = (System.nanoTime() - start) / 1_000_000;
+        return new BatchStats(positions, batches, errors, millis,
+                latency.percentile(50), latency.percentile(99), latency.percentile(100));
+    }
+
+    private static int complete(ForkJoinTask<?> task, PositionBatch batch, ColumnarResultWriter out,
+                                LatencyHistogram latency) throws IOException {
+        task.join();
+        latency.record(batch.finishedNanos - batch.submittedNanos);
+        out.write(batch);
+        int errors = 0;
+        for (byte depth : batch.depths) {
+            if (depth < 0) errors++;
+        }
+        return errors;
+    }
+
+    // диапазон записей пачки; отдельная запись - это партия целиком, ее позиции идут подряд на одной доске
+    @SuppressWarnings("serial") // задачи не сериализуются, а ThreadLocal и пачка и не могут
+    private static final class EvaluateRange extends RecursiveAction {
+        private final PositionBatch batch;
+        private final int from;
+        private final int to;
+        private final ThreadLocal<Worker> workers;
+
+        EvaluateRange(PositionBatch batch, int from, int to, ThreadLocal<Worker> workers) {
+            this.batch = batch;
+            this.from = from;
+            this.to = to;
+            this.workers = workers;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > 1) {
+                int middle = (from + to) >>> 1;
+                invokeAll(new EvaluateRange(batch, from, middle, workers), new EvaluateRange(batch, middle, to, workers));
+            } else {
+                workers.get().evaluate(batch, from);
+            }
+            if (from == 0 && to == batch.entries) {
+                batch.finishedNanos = System.nanoTime();
+            }
+        }
+    }
+
+    private static final class Worker {
+        private final Board board = new Board();
+        private final TranspositionTable table;
+        private final Search search;
+        private final Evaluator evaluator = new Evaluator();
+        private final int[] legalMoves = new int[MoveGenerator.MAX_MOVES];
+        private final SearchLimits limits;
+        private final boolean staticOnly;
+
+        Worker(SearchLimits limits, int tableSizeMb) {
+            this.limits = limits;
+            this.staticOnly = limits.getMaxDepth() <= 0 && limits.getMaxNodes() <= 0;
+            this.table = new TranspositionTable(tableSizeMb);
+            this.search = new Search(board, table);
+        }
+
+        void evaluate(PositionBatch batch, int entry) {
+            int offset = batch.positionOffsets[entry];
+            int[] moves = batch.moves[entry];
+            try {
+                if (batch.startFens[entry].isEmpty()) {
+                    board.initBoard();
+                } else {
+                    board.loadFen(batch.startFens[entry]);
+                }
+            } catch (IllegalArgumentException e) {
+                markBroken(batch, offset, 0, moves.length);
+                return;
+            }
+            // таблица с прошлой записи сделала бы результат зависимым от того, какой поток что считал
+            table.clear();
+
+            for (int ply = 0; ply <= moves.length; ply++) {
+                int index = offset + ply;
+                batch.hashes[index] = board.getHash();
+                if (staticOnly) {
+                    batch.scores[index] = evaluator.evaluate(board);
+                    batch.bestMoves[index] = PackedMove.NONE;
+                } else {
+                    SearchResult result = search.search(limits);
+                    batch.scores[index] = result.getScore();
+                    batch.bestMoves[index] = result.getBestMove();
+                    batch.depths[index] = (byte) result.getDepth();
+                    batch.nodes[index] = (int) Math.min(result.getNodes(), Integer.MAX_VALUE);
+                }
+                if (ply == moves.length) break;
+                // битая запись архива: ход не из легальных - дальше позиции не считаются, как при плохом FEN
+                if (!board.getMoveValidator().getMoveGenerator().isLegalMove(moves[ply], legalMoves)) {
+                    markBroken(batch, offset, ply + 1, moves.length);
+                    return;
+                }
+                board.makeMove(moves[ply]);
+            }
+        }
+
+        private static void markBroken(PositionBatch batch, int offset, int fromPly, int lastPly) {
+            for (int ply = fromPly; ply <= lastPly; ply++) {
+                batch.depths[offset + ply] = -1;
+            }
+        }
+    }
+}
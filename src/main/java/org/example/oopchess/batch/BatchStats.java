@@ -0,0 +1,62 @@
+package org.example.oopchess.batch;
+
+public class BatchStats {
+    private final long positions;
+    private final long batches;
+    private final long errors;
+    private final long millis;
+    private final long batchP50Micros;
+    private final long batchP99Micros;
+    private final long batchMaxMicros;
+
+    public BatchStats(long positions, long batches, long errors, long millis,
+                      long batchP50Micros, long batchP99Micros, long batchMaxMicros) {
+        this.positions = positions;
+        this.batches = batches;
+        this.errors = errors;
+        this.millis = millis;
+        this.batchP50Micros = batchP50Micros;
+        this.batchP99Micros = batchP99Micros;
+        this.batchMaxMicros = batchMaxMicros;
+    }
+
+    public long getPositions() {
+        return positions;
+    }
+
+    public long getBatches() {
+        return batches;
+    }
+
+    // позиции, которые не удалось разобрать (в выходном файле у них глубина -1)
+    public long getErrors() {
+        return errors;
+    }
+
+    public long getMillis() {
+        return millis;
+    }
+
+    public long getPositionsPerSecond() {
+        return millis == 0 ? 0 : positions * 1000 / millis;
+    }
+
+    // задержка пачки от отправки в пул до готовности всех ее позиций
+    public long getBatchP50Micros() {
+        return batchP50Micros;
+    }
+
+    public long getBatchP99Micros() {
+        return batchP99Micros;
+    }
+
+    public long getBatchMaxMicros() {
+        return batchMaxMicros;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("positions %,d  batches %,d  errors %,d  time %,d ms  positions/s %,d  batch p50 %,d us  p99 %,d us  max %,d us",
+                positions, batches, errors, millis, getPositionsPerSecond(), batchP50Micros, batchP99Micros, batchMaxMicros);
+    }
+}
@@ -0,0 +1,37 @@
+package org.example.oopchess.batch;
+
+import org.example.oopchess.engine.SearchLimits;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+// Пакетная оценка из командной строки:
+//   BatchTool <in.fen|in.ocgr> <out.ocbe> [depth=N | nodes=N | static] [потоков]
+// .ocgr - архив партий (оцениваются все позиции каждой партии), иначе текст с FEN по строкам
+public class BatchTool {
+    private static final int TABLE_SIZE_MB = 2; // таблица очищается на каждую запись, большая тут только мешает
+    private static final int BATCH_POSITIONS = 4096;
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 2) {
+            System.err.println("Usage: BatchTool <in.fen|in.ocgr> <out.ocbe> [depth=N|nodes=N|static] [threads]");
+            System.exit(2);
+        }
+        Path input = Paths.get(args[0]);
+        SearchLimits limits = parseLimits(args.length > 2 ? args[2] : "depth=4");
+        int threads = args.length > 3 ? Integer.parseInt(args[3]) : Runtime.getRuntime().availableProcessors();
+
+        BatchEvaluator evaluator = new BatchEvaluator(threads, limits, TABLE_SIZE_MB, BATCH_POSITIONS);
+        try (PositionSource source = input.toString().endsWith(".ocgr") ? PositionSource.archive(input) : PositionSource.fen(input);
+             ColumnarResultWriter out = new ColumnarResultWriter(Paths.get(args[1]))) {
+            System.out.println(evaluator.run(source, out));
+        }
+    }
+
+    private static SearchLimits parseLimits(String spec) {
+        if (spec.equals("static")) return SearchLimits.depth(0);
+        if (spec.startsWith("depth=")) return SearchLimits.depth(Integer.parseInt(spec.substring(6)));
+        if (spec.startsWith("nodes=")) return SearchLimits.nodes(Long.parseLong(spec.substring(6)));
+        throw new IllegalArgumentException("Unknown limit: " + spec);
+    }
+}
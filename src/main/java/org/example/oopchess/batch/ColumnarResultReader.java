@@ -0,0 +1,87 @@
+package org.example.oopchess.batch;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+// Чтение файла ColumnarResultWriter по группам строк; массивы колонок переиспользуются между группами
+public class ColumnarResultReader implements Closeable {
+    private final DataInputStream in;
+    private int rows;
+    private long firstPositionId;
+    private long[] hashes = new long[0];
+    private int[] scores = new int[0];
+    private short[] bestMoves = new short[0];
+    private byte[] depths = new byte[0];
+    private int[] nodes = new int[0];
+
+    public ColumnarResultReader(Path path) throws IOException {
+        this.in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path), 1 << 16));
+        byte[] magic = in.readNBytes(ColumnarResultWriter.MAGIC.length);
+        if (!Arrays.equals(magic, ColumnarResultWriter.MAGIC) || in.read() != ColumnarResultWriter.VERSION) {
+            throw new IOException("Not a batch result file: " + path);
+        }
+    }
+
+    // false - группы кончились
+    public boolean nextGroup() throws IOException {
+        try {
+            rows = in.readInt();
+        } catch (EOFException e) {
+            return false;
+        }
+        firstPositionId = in.readLong();
+        if (hashes.length < rows) {
+            hashes = new long[rows];
+            scores = new int[rows];
+            bestMoves = new short[rows];
+            depths = new byte[rows];
+            nodes = new int[rows];
+        }
+        for (int i = 0; i < rows; i++) hashes[i] = in.readLong();
+        for (int i = 0; i < rows; i++) scores[i] = in.readInt();
+        for (int i = 0; i < rows; i++) bestMoves[i] = in.readShort();
+        in.readFully(depths, 0, rows);
+        for (int i = 0; i < rows; i++) nodes[i] = in.readInt();
+        return true;
+    }
+
+    public int getRows() {
+        return rows;
+    }
+
+    public long getFirstPositionId() {
+        return firstPositionId;
+    }
+
+    public long getHash(int row) {
+        return hashes[row];
+    }
+
+    public int getScore(int row) {
+        return scores[row];
+    }
+
+    // PackedMove
+    public int getBestMove(int row) {
+        return bestMoves[row] & 0xFFFF;
+    }
+
+    public int getDepth(int row) {
+        return depths[row];
+    }
+
+    public int getNodes(int row) {
+        return nodes[row];
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+}
@@ -0,0 +1,52 @@
+package org.example.oopchess.batch;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+// Результаты пакетной оценки по колонкам. Файл: "OCBE", версия, затем группы строк - по одной на пачку:
+//   int строк, long номер первой позиции,
+//   колонки подряд: long hash[], int score[], short bestMove[], byte depth[], int nodes[]
+// Все числа big-endian. Строка i группы - позиция firstPositionId + i в порядке входного потока.
+// Колонки лежат подряд, поэтому чтение одной колонки (например, только оценок) не трогает остальные.
+public class ColumnarResultWriter implements Closeable {
+    static final byte[] MAGIC = {'O', 'C', 'B', 'E'};
+    static final int VERSION = 1;
+
+    private final DataOutputStream out;
+    private long rows;
+
+    public ColumnarResultWriter(Path path) throws IOException {
+        this.out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(path), 1 << 16));
+        out.write(MAGIC);
+        out.writeByte(VERSION);
+    }
+
+    void write(PositionBatch batch) throws IOException {
+        int count = batch.positions();
+        out.writeInt(count);
+        out.writeLong(batch.firstPositionId);
+        for (int i = 0; i < count; i++) out.writeLong(batch.hashes[i]);
+        for (int i = 0; i < count; i++) out.writeInt(batch.scores[i]);
+        for (int i = 0; i < count; i++) out.writeShort(batch.bestMoves[i]);
+        out.write(batch.depths, 0, count);
+        for (int i = 0; i < count; i++) out.writeInt(batch.nodes[i]);
+        rows += count;
+    }
+
+    public long getRows() {
+        return rows;
+    }
+
+    public void flush() throws IOException {
+        out.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        out.close();
+    }
+}
@@ -0,0 +1,66 @@
+package org.example.oopchess.batch;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+// Пачка записей и место под результаты по позициям. Записи копируются из источника в потоке чтения,
+// результаты пишут рабочие потоки - каждый в свой диапазон позиций, поэтому без синхронизации.
+final class PositionBatch {
+    final long firstPositionId;
+    final String[] startFens;
+    final int[][] moves;
+    final int[] positionOffsets; // первая позиция записи внутри пачки; последний элемент - всего позиций
+    final int entries;
+
+    final long[] hashes;
+    final int[] scores;
+    final int[] bestMoves;
+    final byte[] depths; // -1 - позицию не удалось разобрать
+    final int[] nodes;
+
+    long submittedNanos;
+    volatile long finishedNanos;
+
+    private PositionBatch(long firstPositionId, String[] startFens, int[][] moves, int entries) {
+        this.firstPositionId = firstPositionId;
+        this.startFens = startFens;
+        this.moves = moves;
+        this.entries = entries;
+        this.positionOffsets = new int[entries + 1];
+        for (int i = 0; i < entries; i++) {
+            positionOffsets[i + 1] = positionOffsets[i] + moves[i].length + 1;
+        }
+        int positions = positionOffsets[entries];
+        hashes = new long[positions];
+        scores = new int[positions];
+        bestMoves = new int[positions];
+        depths = new byte[positions];
+        nodes = new int[positions];
+    }
+
+    int positions() {
+        return positionOffsets[entries];
+    }
+
+    // читает записи, пока в пачке меньше maxPositions позиций; null - источник пуст
+    static PositionBatch read(PositionSource source, long firstPositionId, int maxPositions) throws IOException {
+        String[] fens = new String[16];
+        int[][] lines = new int[16][];
+        int entries = 0;
+        int positions = 0;
+        while (positions < maxPositions && source.next()) {
+            if (entries == fens.length) {
+                fens = Arrays.copyOf(fens, entries * 2);
+                lines = Arrays.copyOf(lines, entries * 2);
+            }
+            int[] line = new int[source.getMoveCount()];
+            for (int i = 0; i < line.length; i++) {
+                line[i] = source.getMove(i);
+            }
+            fens[entries] = source.getStartFen();
+            lines[entries++] = line;
+            positions += line.length + 1;
+        }
+        return entries == 0 ? null : new PositionBatch(firstPositionId, fens, lines, entries);
+    }
+}
@@ -0,0 +1,95 @@
+package org.example.oopchess.batch;
+
+import org.example.oopchess.storage.GameRecordReader;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+// Поток записей для пакетной оценки: запись - начальная позиция и ходы от нее,
+// оцениваются все позиции по ходу линии (для FEN без ходов - одна позиция)
+public interface PositionSource extends Closeable {
+    // false - записи кончились
+    boolean next() throws IOException;
+
+    // пустая строка - обычная начальная позиция
+    String getStartFen();
+
+    int getMoveCount();
+
+    int getMove(int index);
+
+    // текстовый файл, по FEN на строку; пустые строки пропускаются
+    static PositionSource fen(Path path) throws IOException {
+        BufferedReader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8);
+        return new PositionSource() {
+            private String fen;
+
+            @Override
+            public boolean next() throws IOException {
+                String line;
+                do {
+                    line = reader.readLine();
+                    if (line == null) return false;
+                    line = line.trim();
+                } while (line.isEmpty());
+                fen = line;
+                return true;
+            }
+
+            @Override
+            public String getStartFen() {
+                return fen;
+            }
+
+            @Override
+            public int getMoveCount() {
+                return 0;
+            }
+
+            @Override
+            public int getMove(int index) {
+                throw new IndexOutOfBoundsException(index);
+            }
+
+            @Override
+            public void close() throws IOException {
+                reader.close();
+            }
+        };
+    }
+
+    // двоичный архив партий (GameRecordFormat): каждая позиция каждой партии
+    static PositionSource archive(Path path) throws IOException {
+        GameRecordReader reader = new GameRecordReader(path);
+        return new PositionSource() {
+            @Override
+            public boolean next() throws IOException {
+                return reader.next();
+            }
+
+            @Override
+            public String getStartFen() {
+                return reader.getStartFen();
+            }
+
+            @Override
+            public int getMoveCount() {
+                return reader.getMoveCount();
+            }
+
+            @Override
+            public int getMove(int index) {
+                return reader.getMove(index);
+            }
+
+            @Override
+            public void close() throws IOException {
+                reader.close();
+            }
+        };
+    }
+}
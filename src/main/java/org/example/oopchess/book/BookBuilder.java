@@ -0,0 +1,102 @@
+package org.example.oopchess.book;
+
+import org.example.oopchess.enums.GameResult;
+import org.example.oopchess.enums.PieceColor;
+import org.example.oopchess.models.board.Board;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.function.ToLongFunction;
+
+// Сборка книги из партий: каждая позиция первых maxPlies полуходов получает ход партии с весом
+// как у polyglot make-book - 2 за победу стороны, сделавшей ход, 1 за ничью или незаконченную партию, 0 за поражение.
+// Одинаковые пары (позиция, ход) складываются, ходы с нулевым итоговым весом в книгу не попадают.
+public class BookBuilder {
+    private static final int MAX_WEIGHT = 0xFFFF;
+
+    private final ToLongFunction<Board> keys;
+    private final int maxPlies;
+    private long[] entryKeys = new long[1 << 12];
+    private int[] entryMoves = new int[1 << 12];
+    private int[] entryWeights = new int[1 << 12];
+    private int size;
+
+    public BookBuilder(ToLongFunction<Board> keys, int maxPlies) {
+        if (maxPlies < 1) throw new IllegalArgumentException("maxPlies must be positive");
+        this.keys = keys;
+        this.maxPlies = maxPlies;
+    }
+
+    // доска стоит в начальной позиции партии; после вызова на ней сыграны учтенные ходы
+    public void addGame(Board board, int[] moves, int count, GameResult result) {
+        int plies = Math.min(count, maxPlies);
+        for (int i = 0; i < plies; i++) {
+            add(keys.applyAsLong(board), BookMoves.encode(moves[i]), weight(result, board.getSideToMove()));
+            board.makeMove(moves[i]);
+        }
+    }
+
+    private static int weight(GameResult result, PieceColor mover) {
+        if (result == GameResult.WHITE_WINS) return mover == PieceColor.WHITE ? 2 : 0;
+        if (result == GameResult.BLACK_WINS) return mover == PieceColor.BLACK ? 2 : 0;
+        return 1;
+    }
+
+    private void add(long key, int bookMove, int weight) {
+        if (size == entryKeys.length) {
+            entryKeys = Arrays.copyOf(entryKeys, size * 2);
+            entryMoves = Arrays.copyOf(entryMoves, size * 2);
+            entryWeights = Arrays.copyOf(entryWeights, size * 2);
+        }
+        entryKeys[size] = key;
+        entryMoves[size] = bookMove;
+        entryWeights[size++] = weight;
+    }
+
+    // возвращает число записей в книге
+    public long write(Path path) throws IOException {
+        Integer[] order = new Integer[size];
+        for (int i = 0; i < size; i++) order[i] = i;
+        Arrays.sort(order, (a, b) -> {
+            int byKey = Long.compareUnsigned(entryKeys[a], entryKeys[b]);
+            return byKey != 0 ? byKey : Integer.compare(entryMoves[a], entryMoves[b]);
+        });
+
+        // сначала складываем веса одинаковых пар, потом масштабируем, если сумма не влезает в 16 бит
+        long[] keysOut = new long[size];
+        int[] movesOut = new int[size];
+        long[] weightsOut = new long[size];
+        int count = 0;
+        long maxWeight = 0;
+        for (int i = 0; i < size; i++) {
+            int index = order[i];
+            if (count > 0 && keysOut[count - 1] == entryKeys[index] && movesOut[count - 1] == entryMoves[index]) {
+                weightsOut[count - 1] += entryWeights[index];
+            } else {
+                keysOut[count] = entryKeys[index];
+                movesOut[count] = entryMoves[index];
+                weightsOut[count++] = entryWeights[index];
+            }
+            maxWeight = Math.max(maxWeight, weightsOut[count - 1]);
+        }
+        double scale = maxWeight > MAX_WEIGHT ? (double) MAX_WEIGHT / maxWeight : 1.0;
+
+        long written = 0;
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(path), 1 << 16))) {
+            for (int i = 0; i < count; i++) {
+                int weight = (int) (weightsOut[i] * scale);
+                if (weight == 0) continue;
+                out.writeLong(keysOut[i]);
+                out.writeShort(movesOut[i]);
+                out.writeShort(weight);
+                out.writeInt(0); // learn
+                written++;
+            }
+        }
+        return written;
+    }
+}
@@ -0,0 +1,32 @@
+package org.example.oopchess.book;
+
+import org.example.oopchess.enums.PieceType;
+import org.example.oopchess.models.board.Bitboards;
+import org.example.oopchess.models.board.PackedMove;
+
+// Ход в 16 битах Polyglot: вертикаль и горизонталь куда, вертикаль и горизонталь откуда, превращение.
+// Горизонтали считаются от первой, рокировка записывается как ход короля на свою ладью (e1h1).
+final class BookMoves {
+    private BookMoves() {}
+
+    static int encode(int move) {
+        int from = PackedMove.from(move);
+        int to = PackedMove.to(move);
+        if (PackedMove.isCastling(move)) {
+            to = Bitboards.square(Bitboards.rowOf(from), PackedMove.flags(move) == PackedMove.KING_CASTLE ? 7 : 0);
+        }
+        PieceType promotion = PackedMove.promotionType(move);
+        return squares(from, to) | (promotion == null ? 0 : promotion.ordinal()) << 12; // конь 1 ... ферзь 4
+    }
+
+    // некоторые генераторы книг пишут рокировку ходом короля на g1/c1 - такое тоже принимаем
+    static boolean matches(int bookMove, int move) {
+        if (encode(move) == bookMove) return true;
+        return PackedMove.isCastling(move) && bookMove == squares(PackedMove.from(move), PackedMove.to(move));
+    }
+
+    private static int squares(int from, int to) {
+        return Bitboards.colOf(to) | (7 - Bitboards.rowOf(to)) << 3
+                | Bitboards.colOf(from) << 6 | (7 - Bitboards.rowOf(from)) << 9;
+    }
+}
@@ -0,0 +1,121 @@
+package org.example.oopchess.book;
+
+import org.example.oopchess.models.board.Board;
+import org.example.oopchess.models.board.PackedMove;
+import org.example.oopchess.rules.MoveGenerator;
+import org.example.oopchess.storage.MappedFile;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.ToLongFunction;
+
+// Дебютная книга в формате Polyglot .bin: записи по 16 байт (ключ, ход, вес, learn), big-endian,
+// отсортированы по ключу. Файл отображается в память, поиск - двоичный по ключу позиции,
+// поэтому запрос стоит несколько обращений к памяти вместо перебора. Только чтение - один экземпляр
+// можно держать на весь сервер и опрашивать из любых потоков.
+public class OpeningBook implements Closeable {
+    public static final int ENTRY_SIZE = 16;
+
+    private final MappedFile file;
+    private final long entries;
+    private final ToLongFunction<Board> keys;
+    // книгу опрашивают из разных потоков, поэтому буферы ходов у каждого потока свои, как в LoadGenerator
+    private final ThreadLocal<Buffers> buffers = ThreadLocal.withInitial(Buffers::new);
+
+    public OpeningBook(Path path, ToLongFunction<Board> keys) throws IOException {
+        this.file = MappedFile.openReadOnly(path);
+        if (file.size() % ENTRY_SIZE != 0) {
+            file.close();
+            throw new IllegalArgumentException("Not a Polyglot book: " + path);
+        }
+        this.entries = file.size() / ENTRY_SIZE;
+        this.keys = keys;
+    }
+
+    // обычная книга Polyglot, в том числе собранная PgnTool book; для книги со своими ключами - конструктор
+    public static OpeningBook open(Path path) throws IOException {
+        return new OpeningBook(path, PolyglotKey.STANDARD);
+    }
+
+    public long size() {
+        return entries;
+    }
+
+    // легальные ходы позиции из книги и их веса, возвращает количество; ходы книги, которых нет
+    // среди легальных (совпадение ключей или битая книга), отбрасываются
+    public int probe(Board board, int[] moves, int[] weights) {
+        long key = keys.applyAsLong(board);
+        long index = lowerBound(key);
+        if (index == entries || file.getLong(index * ENTRY_SIZE) != key) return 0;
+
+        int[] legal = buffers.get().legal;
+        int legalCount = board.getMoveValidator().getMoveGenerator().generateLegalMoves(legal, 0);
+        int count = 0;
+        for (; index < entries && file.getLong(index * ENTRY_SIZE) == key && count < moves.length; index++) {
+            long data = file.getLong(index * ENTRY_SIZE + 8);
+            int bookMove = (int) (data >>> 48);
+            int weight = (int) (data >>> 32) & 0xFFFF;
+            for (int i = 0; i < legalCount; i++) {
+                if (BookMoves.matches(bookMove, legal[i])) {
+                    moves[count] = legal[i];
+                    weights[count++] = weight;
+                    break;
+                }
+            }
+        }
+        return count;
+    }
+
+    public int choose(Board board) {
+        return choose(board, ThreadLocalRandom.current());
+    }
+
+    // случайный ход с вероятностью по весу; PackedMove.NONE - позиции нет в книге или у всех ходов вес 0
+    public int choose(Board board, Random random) {
+        Buffers buffer = buffers.get();
+        int[] moves = buffer.moves;
+        int[] weights = buffer.weights;
+        int count = probe(board, moves, weights);
+        long total = 0;
+        for (int i = 0; i < count; i++) {
+            total += weights[i];
+        }
+        if (total == 0) return PackedMove.NONE;
+
+        long pick = (long) (random.nextDouble() * total);
+        for (int i = 0; i < count; i++) {
+            pick -= weights[i];
+            if (pick < 0) return moves[i];
+        }
+        return moves[count - 1];
+    }
+
+    // первая запись с ключом не меньше заданного; ключи сравниваются без знака, как их сортирует Polyglot
+    private long lowerBound(long key) {
+        long low = 0;
+        long high = entries;
+        while (low < high) {
+            long mid = (low + high) >>> 1;
+            if (Long.compareUnsigned(file.getLong(mid * ENTRY_SIZE), key) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    @Override
+    public void close() throws IOException {
+        file.close();
+    }
+
+    private static final class Buffers {
+        final int[] legal = new int[MoveGenerator.MAX_MOVES];
+        final int[] moves = new int[MoveGenerator.MAX_MOVES];
+        final int[] weights = new int[MoveGenerator.MAX_MOVES];
+    }
+}
@@ -0,0 +1,35 @@
+package org.example.oopchess.broadcast;
+
+import org.example.oopchess.enums.GameState;
+
+// Событие партии в одном long, без объектов:
+// биты 0-15 - PackedMove, 16-19 - вид события, 20-23 - GameState после события, 32-63 - полуход после события
+public final class MoveEvent {
+    public static final int MOVE = 0;
+    public static final int UNDO = 1;     // ход - отмененный
+    public static final int NEW_GAME = 2; // ход - PackedMove.NONE
+
+    private static final GameState[] STATES = GameState.values();
+
+    private MoveEvent() {}
+
+    static long of(int kind, int move, GameState state, int ply) {
+        return (move & 0xFFFFL) | (long) kind << 16 | (long) state.ordinal() << 20 | (long) ply << 32;
+    }
+
+    public static int kind(long event) {
+        return (int) (event >>> 16) & 0xF;
+    }
+
+    public static int move(long event) {
+        return (int) event & 0xFFFF;
+    }
+
+    public static GameState state(long event) {
+        return STATES[(int) (event >>> 20) & 0xF];
+    }
+
+    public static int ply(long event) {
+        return (int) (event >>> 32);
+    }
+}
@@ -0,0 +1,12 @@
+package org.example.oopchess.broadcast;
+
+import org.example.oopchess.models.board.PositionSnapshot;
+
+// Обработчик подписчика; вызывается в потоке, который делает poll
+public interface MoveEventHandler {
+    void onEvent(long sequence, long event); // см. MoveEvent
+
+    // подписчик начинает с этой позиции: при подписке и если отстал больше, чем на емкость кольца.
+    // Следующее событие будет sequence + 1
+    void onSnapshot(long sequence, PositionSnapshot position);
+}
@@ -0,0 +1,106 @@
+package org.example.oopchess.broadcast;
+
+import org.example.oopchess.models.board.PackedMove;
+import org.example.oopchess.models.board.PositionSnapshot;
+import org.example.oopchess.rules.GameController;
+import org.example.oopchess.rules.MoveListener;
+
+import java.lang.invoke.VarHandle;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Поток событий одной партии для любого числа зрителей: кольцо long-событий с одним писателем
+// (поток партии) и многими читателями, как в Disruptor, но без обратного давления - писатель никого
+// не ждет и не знает о подписчиках, публикация стоит одинаково при одном зрителе и при тысячах.
+// Отставший больше чем на емкость кольца читатель не тормозит партию, а догоняет по последнему снимку позиции.
+public class MoveStream implements MoveListener {
+    private final GameController controller;
+    private final long[] ring;
+    private final int mask;
+    // claimed - номер записываемого события, виден раньше самой записи в кольцо;
+    // cursor - последнее опубликованное. Читатель после чтения ячейки сверяет claimed и узнает о перезаписи
+    private final AtomicLong claimed = new AtomicLong(-1);
+    private final AtomicLong cursor = new AtomicLong(-1);
+    private volatile Checkpoint checkpoint;
+
+    // capacity - степень двойки; подписывается на ходы controller, вызывать в потоке партии
+    public MoveStream(GameController controller, int capacity) {
+        if (capacity < 2 || Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("Capacity must be a power of two: " + capacity);
+        }
+        this.controller = controller;
+        this.ring = new long[capacity];
+        this.mask = capacity - 1;
+        this.checkpoint = new Checkpoint(-1, controller.getBoard().snapshot());
+        controller.addMoveListener(this);
+    }
+
+    public int getCapacity() {
+        return ring.length;
+    }
+
+    // номер последнего опубликованного события, -1 - событий еще не было
+    public long getCursor() {
+        return cursor.get();
+    }
+
+    // новый подписчик начнет со снимка текущей позиции; читать его можно из любого потока
+    public MoveStreamReader subscribe() {
+        return new MoveStreamReader(this);
+    }
+
+    public void close() {
+        controller.removeMoveListener(this);
+    }
+
+    @Override
+    public void onMove(int move) {
+        publish(MoveEvent.MOVE, move);
+    }
+
+    @Override
+    public void onUndo(int move) {
+        publish(MoveEvent.UNDO, move);
+    }
+
+    @Override
+    public void onNewGame() {
+        publish(MoveEvent.NEW_GAME, PackedMove.NONE);
+    }
+
+    // только поток партии
+    private void publish(int kind, int move) {
+        long sequence = cursor.get() + 1;
+        long event = MoveEvent.of(kind, move, controller.getGameState(), controller.getBoard().getPly());
+        claimed.setOpaque(sequence);
+        VarHandle.storeStoreFence(); // номер захвата виден раньше новых данных в ячейке
+        ring[(int) sequence & mask] = event;
+        checkpoint = new Checkpoint(sequence, controller.getBoard().snapshot());
+        cursor.setRelease(sequence);
+    }
+
+    long getPublished() {
+        return cursor.getAcquire();
+    }
+
+    // Long.MIN_VALUE - ячейку уже перезаписали (или перезаписывают), читателю пора к снимку
+    long read(long sequence) {
+        long event = ring[(int) sequence & mask];
+        VarHandle.loadLoadFence();
+        return claimed.getOpaque() - sequence >= ring.length ? Long.MIN_VALUE : event;
+    }
+
+    Checkpoint getCheckpoint() {
+        return checkpoint;
+    }
+
+    // снимок позиции сразу после события sequence
+    static final class Checkpoint {
+        final long sequence;
+        final PositionSnapshot position;
+
+        Checkpoint(long sequence, PositionSnapshot position) {
+            this.sequence = sequence;
+            this.position = position;
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package org.example.oopchess.broadcast;
+
+// Подписчик MoveStream со своей позицией в кольце. Один читатель - один поток за раз;
+// писатель о читателях не знает, так что их число не влияет на стоимость хода.
+public class MoveStreamReader {
+    private final MoveStream stream;
+    private long next = -1; // -1 - еще не синхронизирован, начнем со снимка
+    private long resyncs;
+
+    MoveStreamReader(MoveStream stream) {
+        this.stream = stream;
+    }
+
+    // доставить до max доступных событий, не блокируясь; возвращает число вызовов обработчика
+    public int poll(MoveEventHandler handler, int max) {
+        int delivered = 0;
+        long published = stream.getPublished();
+        while (delivered < max) {
+            // next < 0: первый вызов или подписчик сам попросил снимок из обработчика
+            if (next >= 0 && next > published) break;
+            long event = next < 0 ? Long.MIN_VALUE : stream.read(next);
+            if (event == Long.MIN_VALUE) {
+                resync(handler);
+                published = stream.getPublished();
+            } else {
+                handler.onEvent(next++, event);
+            }
+            delivered++;
+        }
+        return delivered;
+    }
+
+    // следующий poll начнется со свежего снимка - например, если пришла отмена хода,
+    // а у подписчика, начавшего со снимка, нет истории, чтобы ее применить
+    public void requestResync() {
+        next = -1;
+    }
+
+    // сколько опубликованных событий еще не прочитано
+    public long getLag() {
+        return next < 0 ? stream.getPublished() + 1 : stream.getPublished() - next + 1;
+    }
+
+    // сколько раз читатель отставал и догонял по снимку
+    public long getResyncs() {
+        return resyncs;
+    }
+
+    private void resync(MoveEventHandler handler) {
+        MoveStream.Checkpoint checkpoint = stream.getCheckpoint();
+        if (next >= 0) resyncs++;
+        handler.onSnapshot(checkpoint.sequence, checkpoint.position);
+        next = checkpoint.sequence + 1;
+    }
+}
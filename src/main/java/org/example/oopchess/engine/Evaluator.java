@@ -0,0 +1,208 @@
+package org.example.oopchess.engine;
+
+import org.example.oopchess.enums.PieceColor;
+import org.example.oopchess.enums.PieceType;
+import org.example.oopchess.models.board.Bitboards;
+import org.example.oopchess.models.board.Board;
+import org.example.oopchess.models.board.PieceSquareTables;
+import org.example.oopchess.rules.AttackTables;
+
+// Статическая оценка позиции в сантипешках с точки зрения стороны, которая ходит.
+// Материал и таблицы клеток Board ведет сам, здесь досчитываются подвижность, пешечная структура
+// (через кеш) и безопасность короля, после чего середина и эндшпиль смешиваются по стадии игры.
+// Держит кеш пешек, поэтому у каждого потока поиска свой экземпляр.
+public class Evaluator {
+    private static final int PAWN_CACHE_ENTRIES = 1 << 14;
+
+    // подвижность: бонус за каждую клетку сверх "средней" для фигуры, по PieceType.ordinal()
+    private static final int[] MOBILITY_BASE = {0, 4, 6, 7, 13, 0};
+    private static final int[] MOBILITY_MG = {0, 4, 5, 2, 1, 0};
+    private static final int[] MOBILITY_EG = {0, 4, 5, 4, 2, 0};
+    // вес атаки на зону короля
+    private static final int[] KING_ATTACK_WEIGHT = {0, 2, 2, 3, 5, 0};
+    private static final int KING_DANGER_LIMIT = 400;
+
+    // по числу шагов пешки от исходной горизонтали
+    private static final int[] PASSED_MG = {0, 5, 10, 15, 25, 40};
+    private static final int[] PASSED_EG = {0, 10, 20, 35, 60, 100};
+    private static final int DOUBLED_MG = -10;
+    private static final int DOUBLED_EG = -20;
+    private static final int ISOLATED_MG = -10;
+    private static final int ISOLATED_EG = -15;
+
+    private static final int BISHOP_PAIR_MG = 30;
+    private static final int BISHOP_PAIR_EG = 50;
+    private static final int ROOK_OPEN_FILE = 20;
+    private static final int ROOK_HALF_OPEN_FILE = 10;
+    private static final int SHIELD_NEAR = 12;
+    private static final int SHIELD_FAR = 6;
+
+    private static final PieceType[] TYPES = PieceType.values();
+    private static final long[][] PASSED_MASK = new long[2][64]; // клетки перед пешкой на ее и соседних вертикалях
+    private static final long[] ADJACENT_COLS = new long[8];
+
+    static {
+        for (int col = 0; col < 8; col++) {
+            ADJACENT_COLS[col] = (col > 0 ? Bitboards.col(col - 1) : 0L) | (col < 7 ? Bitboards.col(col + 1) : 0L);
+        }
+        for (int square = 0; square < 64; square++) {
+            int row = Bitboards.rowOf(square);
+            long files = Bitboards.col(Bitboards.colOf(square)) | ADJACENT_COLS[Bitboards.colOf(square)];
+            long ahead = 0L;
+            long behind = 0L;
+            for (int r = 0; r < 8; r++) {
+                if (r < row) ahead |= Bitboards.row(r);
+                if (r > row) behind |= Bitboards.row(r);
+            }
+            // белые пешки идут к row 0, черные - к row 7
+            PASSED_MASK[PieceColor.WHITE.ordinal()][square] = files & ahead;
+            PASSED_MASK[PieceColor.BLACK.ordinal()][square] = files & behind;
+        }
+    }
+
+    private final PawnHashTable pawnCache = new PawnHashTable(PAWN_CACHE_ENTRIES);
+
+    // промежуточные суммы одной оценки, чтобы не возвращать пары значений
+    private int mg;
+    private int eg;
+
+    public int evaluate(Board board) {
+        int pawns = evaluatePawns(board);
+        mg = board.getMidgameScore() + pawnCache.midgame(pawns);
+        eg = board.getEndgameScore() + pawnCache.endgame(pawns);
+
+        evaluatePieces(board, PieceColor.WHITE, 1);
+        evaluatePieces(board, PieceColor.BLACK, -1);
+
+        int phase = Math.min(board.getPhase(), PieceSquareTables.MAX_PHASE);
+        int score = (mg * phase + eg * (PieceSquareTables.MAX_PHASE - phase)) / PieceSquareTables.MAX_PHASE;
+        return board.getSideToMove() == PieceColor.WHITE ? score : -score;
+    }
+
+    // индекс записи кеша с оценкой пешек; при промахе структура считается заново
+    private int evaluatePawns(Board board) {
+        long key = board.getPawnHash();
+        int index = pawnCache.index(key);
+        if (!pawnCache.contains(index, key)) {
+            long white = board.getBitboard(PieceColor.WHITE, PieceType.PAWN);
+            long black = board.getBitboard(PieceColor.BLACK, PieceType.PAWN);
+            mg = 0;
+            eg = 0;
+            pawnStructure(white, black, PieceColor.WHITE, 1);
+            pawnStructure(black, white, PieceColor.BLACK, -1);
+            pawnCache.store(index, key, mg, eg);
+        }
+        return index;
+    }
+
+    private void pawnStructure(long own, long enemy, PieceColor color, int sign) {
+        for (int col = 0; col < 8; col++) {
+            int onFile = Bitboards.count(own & Bitboards.col(col));
+            if (onFile > 1) {
+                mg += sign * DOUBLED_MG * (onFile - 1);
+                eg += sign * DOUBLED_EG * (onFile - 1);
+            }
+            if (onFile > 0 && (own & ADJACENT_COLS[col]) == 0) {
+                mg += sign * ISOLATED_MG * onFile;
+                eg += sign * ISOLATED_EG * onFile;
+            }
+        }
+
+        long pawns = own;
+        while (pawns != 0) {
+            int square = Bitboards.lowestSquare(pawns);
+            pawns &= pawns - 1;
+            if ((PASSED_MASK[color.ordinal()][square] & enemy) == 0) {
+                int row = Bitboards.rowOf(square);
+                int advance = Math.max(0, Math.min(5, color == PieceColor.WHITE ? 6 - row : row - 1));
+                mg += sign * PASSED_MG[advance];
+                eg += sign * PASSED_EG[advance];
+            }
+        }
+    }
+
+    private void evaluatePieces(Board board, PieceColor color, int sign) {
+        PieceColor enemy = color == PieceColor.WHITE ? PieceColor.BLACK : PieceColor.WHITE;
+        long own = board.getOccupancy(color);
+        long occupied = board.getOccupied();
+        long ownPawns = board.getBitboard(color, PieceType.PAWN);
+        long enemyPawns = board.getBitboard(enemy, PieceType.PAWN);
+        long safe = ~own & ~pawnAttacks(enemyPawns, enemy);
+
+        int enemyKing = board.findKing(enemy);
+        long kingZone = enemyKing < 0 ? 0L : AttackTables.kingAttacks(enemyKing) | Bitboards.bit(enemyKing);
+        int attackers = 0;
+        int attackUnits = 0;
+
+        for (int type = PieceType.KNIGHT.ordinal(); type <= PieceType.QUEEN.ordinal(); type++) {
+            long pieces = board.getBitboard(color, TYPES[type]);
+            while (pieces != 0) {
+                int square = Bitboards.lowestSquare(pieces);
+                pieces &= pieces - 1;
+
+                long attacks = attacks(type, square, occupied);
+                int mobility = Bitboards.count(attacks & safe) - MOBILITY_BASE[type];
+                mg += sign * mobility * MOBILITY_MG[type];
+                eg += sign * mobility * MOBILITY_EG[type];
+
+                long zoneHits = attacks & kingZone;
+                if (zoneHits != 0) {
+                    attackers++;
+                    attackUnits += KING_ATTACK_WEIGHT[type] * Bitboards.count(zoneHits);
+                }
+
+                if (type == PieceType.ROOK.ordinal()) {
+                    long file = Bitboards.col(Bitboards.colOf(square));
+                    if ((file & ownPawns) == 0) {
+                        int bonus = (file & enemyPawns) == 0 ? ROOK_OPEN_FILE : ROOK_HALF_OPEN_FILE;
+                        mg += sign * bonus;
+                        eg += sign * bonus / 2;
+                    }
+                }
+            }
+        }
+
+        // одна фигура у короля - еще не атака
+        if (attackers >= 2) {
+            mg += sign * Math.min(attackUnits * attackUnits / 2, KING_DANGER_LIMIT);
+        }
+
+        if (Bitboards.count(board.getBitboard(color, PieceType.BISHOP)) >= 2) {
+            mg += sign * BISHOP_PAIR_MG;
+            eg += sign * BISHOP_PAIR_EG;
+        }
+
+        mg += sign * pawnShield(board.findKing(color), ownPawns, color);
+    }
+
+    // пешки перед королем, стоящим на своем краю доски
+    private static int pawnShield(int king, long ownPawns, PieceColor color) {
+        if (king < 0) return 0;
+        int row = Bitboards.rowOf(king);
+        int col = Bitboards.colOf(king);
+        boolean white = color == PieceColor.WHITE;
+        if (white ? row < 6 : row > 1) return 0;
+
+        long files = Bitboards.col(col) | ADJACENT_COLS[col];
+        int near = white ? row - 1 : row + 1;
+        int far = white ? row - 2 : row + 2;
+        return SHIELD_NEAR * Bitboards.count(ownPawns & files & Bitboards.row(near))
+                + SHIELD_FAR * Bitboards.count(ownPawns & files & Bitboards.row(far));
+    }
+
+    private static long attacks(int type, int square, long occupied) {
+        switch (type) {
+            case 1: return AttackTables.knightAttacks(square);
+            case 2: return AttackTables.bishopAttacks(square, occupied);
+            case 3: return AttackTables.rookAttacks(square, occupied);
+            default: return AttackTables.queenAttacks(square, occupied);
+        }
+    }
+
+    private static long pawnAttacks(long pawns, PieceColor color) {
+        if (color == PieceColor.WHITE) {
+            return ((pawns & Bitboards.NOT_COL_A) >>> 9) | ((pawns & Bitboards.NOT_COL_H) >>> 7);
+        }
+        return ((pawns & Bitboards.NOT_COL_A) << 7) | ((pawns & Bitboards.NOT_COL_H) << 9);
+    }
+}
@@ -0,0 +1,102 @@
+package org.example.oopchess.engine;
+
+import org.example.oopchess.enums.PieceType;
+import org.example.oopchess.models.board.Board;
+import org.example.oopchess.models.board.PackedMove;
+import org.example.oopchess.models.pieces.Piece;
+
+import java.util.Arrays;
+
+// Порядок перебора: ход из таблицы, взятия по MVV-LVA, превращения, killer-ходы, история
+public class MoveOrdering {
+    private static final int HASH_MOVE = 2_000_000;
+    private static final int CAPTURE = 1_000_000;
+    private static final int PROMOTION = 900_000;
+    private static final int KILLER_1 = 800_000;
+    private static final int KILLER_2 = 790_000;
+    private static final int HISTORY_LIMIT = 500_000;
+
+    private final int[][] killers = new int[Search.MAX_PLY][2];
+    private final int[][][] history = new int[2][64][64]; // [цвет][откуда][куда]
+
+    public void clear() {
+        for (int[] k : killers) {
+            k[0] = 0;
+            k[1] = 0;
+        }
+        for (int[][] byColor : history) {
+            for (int[] byFrom : byColor) {
+                Arrays.fill(byFrom, 0);
+            }
+        }
+    }
+
+    public void score(Board board, int[] moves, int[] scores, int count, int hashMove, int ply) {
+        int color = board.getSideToMove().ordinal();
+        for (int i = 0; i < count; i++) {
+            int move = moves[i];
+            if (move == hashMove) {
+                scores[i] = HASH_MOVE;
+            } else if (PackedMove.isCapture(move)) {
+                scores[i] = CAPTURE + mvvLva(board, move);
+            } else if (PackedMove.isPromotion(move)) {
+                scores[i] = PROMOTION + PackedMove.promotionType(move).ordinal();
+            } else if (move == killers[ply][0]) {
+                scores[i] = KILLER_1;
+            } else if (move == killers[ply][1]) {
+                scores[i] = KILLER_2;
+            } else {
+                scores[i] = history[color][PackedMove.from(move)][PackedMove.to(move)];
+            }
+        }
+    }
+
+    // самая ценная жертва, самый дешевый нападающий
+    public static int mvvLva(Board board, int move) {
+        Piece victim = board.getPiece(PackedMove.to(move));
+        int victimType = victim == null ? PieceType.PAWN.ordinal() : victim.getType().ordinal(); // null - взятие на проходе
+        int attackerType = board.getPiece(PackedMove.from(move)).getType().ordinal();
+        int score = victimType * 8 - attackerType;
+        if (PackedMove.isPromotion(move)) {
+            score += PackedMove.promotionType(move).ordinal() * 8;
+        }
+        return score;
+    }
+
+    // выбор следующего лучшего хода частичной сортировкой: при отсечении остальные не сортируются вовсе
+    public static int pickNext(int[] moves, int[] scores, int from, int count) {
+        int best = from;
+        for (int i = from + 1; i < count; i++) {
+            if (scores[i] > scores[best]) best = i;
+        }
+        int move = moves[best];
+        moves[best] = moves[from];
+        moves[from] = move;
+        int score = scores[best];
+        scores[best] = scores[from];
+        scores[from] = score;
+        return move;
+    }
+
+    public void onQuietCutoff(Board board, int move, int depth, int ply) {
+        if (killers[ply][0] != move) {
+            killers[ply][1] = killers[ply][0];
+            killers[ply][0] = move;
+        }
+        int[] byTo = history[board.getSideToMove().ordinal()][PackedMove.from(move)];
+        byTo[PackedMove.to(move)] += depth * depth;
+        if (byTo[PackedMove.to(move)] > HISTORY_LIMIT) {
+            ageHistory();
+        }
+    }
+
+    private void ageHistory() {
+        for (int[][] byColor : history) {
+            for (int[] byFrom : byColor) {
+                for (int i = 0; i < byFrom.length; i++) {
+                    byFrom[i] >>= 1;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package org.example.oopchess.engine;
+
+import org.example.oopchess.models.board.Board;
+import org.example.oopchess.tablebase.Tablebase;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+// Lazy SMP: несколько потоков ищут одну и ту же позицию на своих копиях доски и делятся только
+// таблицей транспозиций. Ход выбирает главный поток, остальные лишь наполняют таблицу.
+public class ParallelSearch implements AutoCloseable {
+    private final TranspositionTable table;
+    private final int threads;
+    private final ExecutorService helpers;
+    private volatile Search[] running = new Search[0];
+    private volatile Tablebase tablebase;
+
+    public ParallelSearch(int threads, int tableSizeMb) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("threads must be positive: " + threads);
+        }
+        this.threads = threads;
+        this.table = new TranspositionTable(tableSizeMb);
+        this.helpers = threads > 1
+                ? Executors.newFixedThreadPool(threads - 1, runnable -> {
+                    Thread thread = new Thread(runnable, "search-helper");
+                    thread.setDaemon(true);
+                    return thread;
+                })
+                : null;
+    }
+
+    public ParallelSearch(int tableSizeMb) {
+        this(Runtime.getRuntime().availableProcessors(), tableSizeMb);
+    }
+
+    // доска не должна меняться другими потоками во время поиска; главный поток ищет прямо на ней
+    public SearchResult search(Board board, SearchLimits limits) {
+        Search main = new Search(board, table);
+        Search[] searches = new Search[threads];
+        searches[0] = main;
+        for (int i = 1; i < threads; i++) {
+            searches[i] = new Search(new Board(board), table);
+            searches[i].setFirstDepth(1 + (i & 1)); // половина помощников сразу уходит на глубину вперед
+        }
+        for (Search search : searches) {
+            search.setTablebase(tablebase);
+        }
+        running = searches;
+
+        // помощников останавливает главный поток, но и свои пределы у них те же: stop() для помощника,
+        // который еще не начал, сохраняется до старта, а время и узлы не дадут ему уйти в бесконечный поиск
+        List<Future<?>> futures = new ArrayList<>(threads - 1);
+        for (int i = 1; i < threads; i++) {
+            Search helper = searches[i];
+            futures.add(helpers.submit(() -> helper.search(limits)));
+        }
+
+        SearchResult result;
+        try {
+            result = main.search(limits);
+        } finally {
+            for (int i = 1; i < threads; i++) {
+                searches[i].stop();
+            }
+            awaitAll(futures);
+            running = new Search[0];
+        }
+
+        long nodes = 0;
+        for (Search search : searches) {
+            nodes += search.getNodes();
+        }
+        return new SearchResult(result.getBestMove(), result.getScore(), result.getDepth(), nodes,
+                result.getTimeMillis(), result.getPrincipalVariation());
+    }
+
+    // таблицы только читаются, один экземпляр годится для всех потоков
+    public void setTablebase(Tablebase tablebase) {
+        this.tablebase = tablebase;
+    }
+
+    public void stop() {
+        for (Search search : running) {
+            search.stop();
+        }
+    }
+
+    public void clear() {
+        table.clear();
+    }
+
+    public int getThreads() {
+        return threads;
+    }
+
+    public TranspositionTable getTable() {
+        return table;
+    }
+
+    private static void awaitAll(List<Future<?>> futures) {
+        for (Future<?> future : futures) {
+            try {
+                future.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("Search helper failed", e.getCause());
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        if (helpers != null) {
+            helpers.shutdownNow();
+        }
+    }
+}
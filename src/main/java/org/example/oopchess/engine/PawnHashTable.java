@@ -0,0 +1,44 @@
+package org.example.oopchess.engine;
+
+import java.util.Arrays;
+
+// Кеш оценки пешечной структуры по ключу Board.getPawnHash().
+// Пешки двигаются редко, поэтому почти все узлы поиска попадают в кеш. Один экземпляр на поток.
+public class PawnHashTable {
+    private final long[] keys;
+    private final int[] midgame;
+    private final int[] endgame;
+    private final int mask;
+
+    public PawnHashTable(int entries) {
+        int size = Integer.highestOneBit(Math.max(1, entries));
+        keys = new long[size];
+        midgame = new int[size];
+        endgame = new int[size];
+        mask = size - 1;
+        // ключ 0 - позиция без пешек, она тоже может встретиться, поэтому пустые слоты помечаем другим ключом
+        Arrays.fill(keys, -1L);
+    }
+
+    public int index(long key) {
+        return (int) key & mask;
+    }
+
+    public boolean contains(int index, long key) {
+        return keys[index] == key;
+    }
+
+    public int midgame(int index) {
+        return midgame[index];
+    }
+
+    public int endgame(int index) {
+        return endgame[index];
+    }
+
+    public void store(int index, long key, int mg, int eg) {
+        keys[index] = key;
+        midgame[index] = mg;
+        endgame[index] = eg;
+    }
+}
@@ -0,0 +1,334 @@
+package org.example.oopchess.engine;
+
+import org.example.oopchess.enums.PieceColor;
+import org.example.oopchess.models.board.Board;
+import org.example.oopchess.models.board.PackedMove;
+import org.example.oopchess.rules.MoveGenerator;
+import org.example.oopchess.rules.MoveValidator;
+import org.example.oopchess.tablebase.Tablebase;
+
+import java.util.Arrays;
+
+// Итеративное углубление, alpha-beta с нулевым окном (PVS), таблица транспозиций и форсированный поиск взятий.
+// Работает прямо на переданной доске через makeMove/undoMove; после поиска доска возвращается в исходное состояние.
+public class Search {
+    public static final int MAX_PLY = 128;
+    public static final int INFINITY = 32_500;
+    public static final int MATE = 32_000;
+    public static final int MATE_BOUND = MATE - MAX_PLY;
+
+    private static final int CHECK_INTERVAL = 2048; // как часто смотреть на часы, в узлах
+
+    private final Board board;
+    private final MoveGenerator generator;
+    private final MoveValidator validator;
+    private final TranspositionTable table;
+    private final Evaluator evaluator;
+    private final MoveOrdering ordering = new MoveOrdering();
+    private Tablebase tablebase;
+    private SearchListener listener;
+    private int multiPv = 1;
+    private final int[] excludedRootMoves = new int[MoveGenerator.MAX_MOVES]; // уже найденные линии multi-PV
+    private int excludedCount;
+
+    private final int[][] moves = new int[MAX_PLY + 1][MoveGenerator.MAX_MOVES];
+    private final int[][] scores = new int[MAX_PLY + 1][MoveGenerator.MAX_MOVES];
+    private final int[][] pv = new int[MAX_PLY + 1][MAX_PLY + 1];
+    private final int[] pvLength = new int[MAX_PLY + 1];
+
+    private long nodes;
+    private long startTime;
+    private long nodeLimit;
+    private long deadline;
+    private volatile boolean stopped;
+    private int firstDepth = 1; // вспомогательные потоки SMP начинают с разной глубины, чтобы не дублировать друг друга
+
+    public Search(Board board, TranspositionTable table) {
+        this(board, table, new Evaluator());
+    }
+
+    public Search(Board board, TranspositionTable table, Evaluator evaluator) {
+        this.board = board;
+        this.generator = board.getMoveValidator().getMoveGenerator();
+        this.validator = board.getMoveValidator();
+        this.table = table;
+        this.evaluator = evaluator;
+    }
+
+    // stop() до начала поиска не теряется: флаг сбрасывается только по окончании поиска,
+    // и такой поиск сразу возвращает любой легальный ход
+    public SearchResult search(SearchLimits limits) {
+        try {
+            return iterate(limits);
+        } finally {
+            stopped = false;
+        }
+    }
+
+    private SearchResult iterate(SearchLimits limits) {
+        long start = System.currentTimeMillis();
+        startTime = start;
+        int maxDepth = limits.getMaxDepth() > 0 ? Math.min(limits.getMaxDepth(), MAX_PLY - 1) : MAX_PLY - 1;
+        nodeLimit = limits.getMaxNodes() > 0 ? limits.getMaxNodes() : Long.MAX_VALUE;
+        deadline = limits.getTimeMillis() > 0 ? start + limits.getTimeMillis() : Long.MAX_VALUE;
+        nodes = 0;
+        table.newSearch();
+
+        int bestMove = PackedMove.NONE;
+        int bestScore = 0;
+        int completedDepth = 0;
+        int[] bestPv = new int[0];
+
+        for (int depth = Math.min(firstDepth, maxDepth); depth <= maxDepth; depth++) {
+            int score = alphaBeta(depth, -INFINITY, INFINITY, 0);
+            // незавершенную итерацию не используем; на первой берем, что успели найти
+            if (stopped && (completedDepth > 0 || pvLength[0] == 0)) break;
+
+            if (pvLength[0] > 0) {
+                bestMove = pv[0][0];
+                bestPv = Arrays.copyOf(pv[0], pvLength[0]);
+            }
+            bestScore = score;
+            completedDepth = depth;
+            if (listener != null) listener.onIteration(1, lineResult(bestMove, score, depth, bestPv));
+            if (multiPv > 1 && !stopped) searchOtherLines(depth);
+            if (stopped) break;
+
+            // новая итерация займет больше, чем все предыдущие вместе - не начинаем ее, если не успеем
+            long elapsed = System.currentTimeMillis() - start;
+            if (deadline != Long.MAX_VALUE && start + elapsed * 2 > deadline) break;
+            if (Math.abs(score) >= MATE_BOUND && MATE - Math.abs(score) <= depth) break;
+        }
+
+        if (bestMove == PackedMove.NONE) {
+            bestMove = anyLegalMove();
+        }
+        return new SearchResult(bestMove, bestScore, completedDepth, nodes,
+                System.currentTimeMillis() - start, bestPv);
+    }
+
+    // остальные линии multi-PV той же глубины: корень ищется заново без уже найденных ходов.
+    // Прерванная линия не сообщается, а лучший ход по-прежнему берется из первой
+    private void searchOtherLines(int depth) {
+        excludedRootMoves[0] = pv[0][0];
+        excludedCount = 1;
+        try {
+            for (int line = 2; line <= multiPv; line++) {
+                int score = alphaBeta(depth, -INFINITY, INFINITY, 0);
+                if (stopped || pvLength[0] == 0) break; // легальных ходов меньше, чем линий
+                int[] linePv = Arrays.copyOf(pv[0], pvLength[0]);
+                if (listener != null) listener.onIteration(line, lineResult(linePv[0], score, depth, linePv));
+                excludedRootMoves[excludedCount++] = linePv[0];
+            }
+        } finally {
+            excludedCount = 0;
+        }
+    }
+
+    private SearchResult lineResult(int move, int score, int depth, int[] linePv) {
+        return new SearchResult(move, score, depth, nodes, System.currentTimeMillis() - startTime, linePv);
+    }
+
+    private boolean isExcludedRootMove(int move) {
+        for (int i = 0; i < excludedCount; i++) {
+            if (excludedRootMoves[i] == move) return true;
+        }
+        return false;
+    }
+
+    // вызывается из потока поиска после каждой завершенной глубины, для каждой линии
+    public void setListener(SearchListener listener) {
+        this.listener = listener;
+    }
+
+    // сколько лучших линий искать; дополнительные линии сообщаются только слушателю
+    public void setMultiPv(int multiPv) {
+        if (multiPv < 1 || multiPv > MoveGenerator.MAX_MOVES) {
+            throw new IllegalArgumentException("multiPv out of range: " + multiPv);
+        }
+        this.multiPv = multiPv;
+    }
+
+    // в позициях из таблиц поиск не идет глубже - берется точный результат
+    public void setTablebase(Tablebase tablebase) {
+        this.tablebase = tablebase;
+    }
+
+    void setFirstDepth(int firstDepth) {
+        this.firstDepth = Math.max(1, firstDepth);
+    }
+
+    public void stop() {
+        stopped = true;
+    }
+
+    public long getNodes() {
+        return nodes;
+    }
+
+    // мат на сотом полуходе остается матом, как в GameController.updateGameState; ходы генерируются
+    // только под шахом, то есть редко, и в буфер этого же уровня, который дальше все равно перезапишется
+    private boolean isCheckmate(int ply) {
+        PieceColor side = board.getSideToMove();
+        return validator.isCheck(side) && !generator.hasLegalMoves(side, moves[ply]);
+    }
+
+    private int alphaBeta(int depth, int alpha, int beta, int ply) {
+        pvLength[ply] = ply;
+        if (ply > 0 && (board.isRepetition() || board.getHalfmoveClock() >= 100 && !isCheckmate(ply))) return 0;
+        if (ply >= MAX_PLY) return evaluator.evaluate(board);
+        if (ply > 0 && tablebase != null && Long.bitCount(board.getOccupied()) <= 3) {
+            int score = tablebase.probe(board);
+            if (score != Tablebase.UNKNOWN) return fromTable(score, ply);
+        }
+
+        boolean inCheck = validator.isCheck(board.getSideToMove());
+        if (inCheck) depth++; // продлеваем шахи, чтобы не пропускать матовые последовательности за горизонтом
+        if (depth <= 0) return quiesce(alpha, beta, ply);
+
+        if ((++nodes & (CHECK_INTERVAL - 1)) == 0) checkLimits();
+        if (stopped) return 0;
+
+        boolean pvNode = beta - alpha > 1;
+        long key = board.getHash();
+        long entry = table.probe(key);
+        int hashMove = PackedMove.NONE;
+        if (entry != 0) {
+            hashMove = TranspositionTable.move(entry);
+            if (!pvNode && ply > 0 && TranspositionTable.depth(entry) >= depth) {
+                int score = fromTable(TranspositionTable.score(entry), ply);
+                int bound = TranspositionTable.bound(entry);
+                if (bound == TranspositionTable.BOUND_EXACT
+                        || (bound == TranspositionTable.BOUND_LOWER && score >= beta)
+                        || (bound == TranspositionTable.BOUND_UPPER && score <= alpha)) {
+                    return score;
+                }
+            }
+        }
+
+        int[] plyMoves = moves[ply];
+        int[] plyScores = scores[ply];
+        int count = generator.generateLegalMoves(plyMoves, 0);
+        if (count == 0) {
+            return inCheck ? -MATE + ply : 0;
+        }
+        ordering.score(board, plyMoves, plyScores, count, hashMove, ply);
+
+        int originalAlpha = alpha;
+        int bestScore = -INFINITY;
+        int bestMove = PackedMove.NONE;
+        int searched = 0;
+        for (int i = 0; i < count; i++) {
+            int move = MoveOrdering.pickNext(plyMoves, plyScores, i, count);
+            if (ply == 0 && excludedCount > 0 && isExcludedRootMove(move)) continue;
+
+            board.makeMove(move);
+            int score;
+            if (searched++ == 0) {
+                score = -alphaBeta(depth - 1, -beta, -alpha, ply + 1);
+            } else {
+                score = -alphaBeta(depth - 1, -alpha - 1, -alpha, ply + 1);
+                if (score > alpha && score < beta) {
+                    score = -alphaBeta(depth - 1, -beta, -alpha, ply + 1);
+                }
+            }
+            board.undoMove();
+            if (stopped) return 0;
+
+            if (score > bestScore) {
+                bestScore = score;
+                bestMove = move;
+                if (score > alpha) {
+                    alpha = score;
+                    updatePv(ply, move);
+                    if (score >= beta) {
+                        if (!PackedMove.isCapture(move) && !PackedMove.isPromotion(move)) {
+                            ordering.onQuietCutoff(board, move, depth, ply);
+                        }
+                        table.store(key, move, toTable(score, ply), depth, TranspositionTable.BOUND_LOWER);
+                        return score;
+                    }
+                }
+            }
+        }
+
+        // корень без части ходов - не настоящая оценка позиции, в таблицу ее не пишем
+        if (ply == 0 && excludedCount > 0) return bestScore;
+        int bound = bestScore > originalAlpha ? TranspositionTable.BOUND_EXACT : TranspositionTable.BOUND_UPPER;
+        table.store(key, bestMove, toTable(bestScore, ply), depth, bound);
+        return bestScore;
+    }
+
+    // форсированный поиск: только взятия, чтобы не оценивать позицию посреди размена
+    private int quiesce(int alpha, int beta, int ply) {
+        pvLength[ply] = ply;
+        if ((++nodes & (CHECK_INTERVAL - 1)) == 0) checkLimits();
+        if (stopped) return 0;
+        if (ply >= MAX_PLY) return evaluator.evaluate(board);
+
+        boolean inCheck = validator.isCheck(board.getSideToMove());
+        int bestScore = -INFINITY;
+        if (!inCheck) {
+            bestScore = evaluator.evaluate(board);
+            if (bestScore >= beta) return bestScore;
+            if (bestScore > alpha) alpha = bestScore;
+        }
+
+        int[] plyMoves = moves[ply];
+        int[] plyScores = scores[ply];
+        int count = inCheck
+                ? generator.generateLegalMoves(plyMoves, 0) // под шахом смотрим все уходы от шаха
+                : generator.generateLegalCaptures(board.getSideToMove(), plyMoves, 0);
+        if (inCheck && count == 0) return -MATE + ply;
+        ordering.score(board, plyMoves, plyScores, count, PackedMove.NONE, ply);
+
+        for (int i = 0; i < count; i++) {
+            int move = MoveOrdering.pickNext(plyMoves, plyScores, i, count);
+            board.makeMove(move);
+            int score = -quiesce(-beta, -alpha, ply + 1);
+            board.undoMove();
+            if (stopped) return 0;
+
+            if (score > bestScore) {
+                bestScore = score;
+                if (score > alpha) {
+                    alpha = score;
+                    updatePv(ply, move);
+                    if (score >= beta) break;
+                }
+            }
+        }
+        return bestScore;
+    }
+
+    private void updatePv(int ply, int move) {
+        pv[ply][ply] = move;
+        int childLength = pvLength[ply + 1];
+        System.arraycopy(pv[ply + 1], ply + 1, pv[ply], ply + 1, childLength - ply - 1);
+        pvLength[ply] = Math.max(childLength, ply + 1);
+    }
+
+    private void checkLimits() {
+        if (nodes >= nodeLimit || System.currentTimeMillis() >= deadline) {
+            stopped = true;
+        }
+    }
+
+    private int anyLegalMove() {
+        int count = generator.generateLegalMoves(moves[0], 0);
+        return count > 0 ? moves[0][0] : PackedMove.NONE;
+    }
+
+    // матовые оценки в таблице храним относительно текущего узла, а не корня
+    private static int toTable(int score, int ply) {
+        if (score >= MATE_BOUND) return score + ply;
+        if (score <= -MATE_BOUND) return score - ply;
+        return score;
+    }
+
+    private static int fromTable(int score, int ply) {
+        if (score >= MATE_BOUND) return score - ply;
+        if (score <= -MATE_BOUND) return score + ply;
+        return score;
+    }
+}
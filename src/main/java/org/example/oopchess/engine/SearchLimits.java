@@ -0,0 +1,38 @@
+package org.example.oopchess.engine;
+
+// Ограничения поиска; 0 означает "без ограничения"
+public class SearchLimits {
+    private final int maxDepth;
+    private final long maxNodes;
+    private final long timeMillis;
+
+    public SearchLimits(int maxDepth, long maxNodes, long timeMillis) {
+        this.maxDepth = maxDepth;
+        this.maxNodes = maxNodes;
+        this.timeMillis = timeMillis;
+    }
+
+    public static SearchLimits depth(int maxDepth) {
+        return new SearchLimits(maxDepth, 0, 0);
+    }
+
+    public static SearchLimits nodes(long maxNodes) {
+        return new SearchLimits(0, maxNodes, 0);
+    }
+
+    public static SearchLimits time(long timeMillis) {
+        return new SearchLimits(0, 0, timeMillis);
+    }
+
+    public int getMaxDepth() {
+        return maxDepth;
+    }
+
+    public long getMaxNodes() {
+        return maxNodes;
+    }
+
+    public long getTimeMillis() {
+        return timeMillis;
+    }
+}
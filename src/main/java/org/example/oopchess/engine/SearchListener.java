@@ -0,0 +1,6 @@
+package org.example.oopchess.engine;
+
+// Результаты итеративного углубления по мере готовности: line - номер линии multi-PV, с 1
+public interface SearchListener {
+    void onIteration(int line, SearchResult result);
+}
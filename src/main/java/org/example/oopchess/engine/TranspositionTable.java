@@ -0,0 +1,95 @@
+package org.example.oopchess.engine;
+
+import java.util.Arrays;
+
+// Таблица транспозиций фиксированного размера без блокировок.
+// Каждая запись - два long: ключ хранится как key ^ data, поэтому запись, разорванная гонкой
+// двух потоков, просто не пройдет проверку ключа и будет считаться промахом.
+public class TranspositionTable {
+    public static final int BOUND_EXACT = 1;
+    public static final int BOUND_LOWER = 2; // оценка не меньше score (отсечение по beta)
+    public static final int BOUND_UPPER = 3; // оценка не больше score (ни один ход не улучшил alpha)
+
+    private static final int ENTRY_BYTES = 16;
+
+    private final long[] keys;
+    private final long[] data;
+    private final int mask;
+    private volatile int generation;
+
+    public TranspositionTable(int sizeMb) {
+        long entries = Long.highestOneBit(Math.max(1L, (long) sizeMb * 1024 * 1024 / ENTRY_BYTES));
+        int size = (int) Math.min(entries, 1 << 30);
+        keys = new long[size];
+        data = new long[size];
+        mask = size - 1;
+    }
+
+    // новый поиск - старые записи становятся кандидатами на вытеснение
+    public void newSearch() {
+        generation = (generation + 1) & 0xFF;
+    }
+
+    public void clear() {
+        Arrays.fill(keys, 0L);
+        Arrays.fill(data, 0L);
+    }
+
+    // 0 - промах, иначе упакованные данные записи
+    public long probe(long key) {
+        int index = (int) key & mask;
+        long entry = data[index];
+        return (keys[index] ^ entry) == key ? entry : 0L;
+    }
+
+    public void store(long key, int move, int score, int depth, int bound) {
+        int index = (int) key & mask;
+        long old = data[index];
+        boolean sameKey = (keys[index] ^ old) == key;
+        // глубокие записи текущего поиска не вытесняем мелкими
+        if (old != 0 && generation(old) == generation && depth < depth(old) - 2 && !(sameKey && bound == BOUND_EXACT)) {
+            return;
+        }
+        if (move == 0 && sameKey) {
+            move = move(old); // сохраняем лучший ход из прошлой записи той же позиции
+        }
+
+        long entry = (move & 0xFFFFL)
+                | ((score & 0xFFFFL) << 16)
+                | ((long) (depth & 0xFF) << 32)
+                | ((long) bound << 40)
+                | ((long) generation << 42);
+        data[index] = entry;
+        keys[index] = key ^ entry;
+    }
+
+    public static int move(long entry) {
+        return (int) (entry & 0xFFFF);
+    }
+
+    public static int score(long entry) {
+        return (short) (entry >>> 16);
+    }
+
+    public static int depth(long entry) {
+        return (int) ((entry >>> 32) & 0xFF);
+    }
+
+    public static int bound(long entry) {
+        return (int) ((entry >>> 40) & 0x3);
+    }
+
+    private static int generation(long entry) {
+        return (int) ((entry >>> 42) & 0xFF);
+    }
+
+    // доля занятых записей текущего поиска в промилле по первой тысяче слотов
+    public int hashfull() {
+        int used = 0;
+        int sample = Math.min(1000, keys.length);
+        for (int i = 0; i < sample; i++) {
+            if (data[i] != 0 && generation(data[i]) == generation) used++;
+        }
+        return used * 1000 / sample;
+    }
+}
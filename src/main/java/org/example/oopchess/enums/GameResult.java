@@ -0,0 +1,25 @@
+package org.example.oopchess.enums;
+
+public enum GameResult {
+    UNFINISHED("*"),
+    WHITE_WINS("1-0"),
+    BLACK_WINS("0-1"),
+    DRAW("1/2-1/2");
+
+    private final String notation;
+
+    GameResult(String notation) {
+        this.notation = notation;
+    }
+
+    public String getNotation() {
+        return notation;
+    }
+
+    public static GameResult fromNotation(String notation) {
+        for (GameResult result : values()) {
+            if (result.notation.equals(notation)) return result;
+        }
+        return UNFINISHED;
+    }
+}
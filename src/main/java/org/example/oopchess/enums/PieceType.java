@@ -0,0 +1,10 @@
+package org.example.oopchess.enums;
+
+public enum PieceType {
+    PAWN,
+    KNIGHT,
+    BISHOP,
+    ROOK,
+    QUEEN,
+    KING
+}
@@ -0,0 +1,53 @@
+package org.example.oopchess.models.board;
+
+// Клетка кодируется числом 0..63: square = row * 8 + col, row 0 - восьмая горизонталь (как в squares)
+public final class Bitboards {
+    public static final long EMPTY = 0L;
+    public static final long ALL = ~0L;
+
+    public static final long COL_A = 0x0101010101010101L;
+    public static final long COL_H = COL_A << 7;
+    public static final long NOT_COL_A = ~COL_A;
+    public static final long NOT_COL_H = ~COL_H;
+
+    public static final long ROW_0 = 0xFFL;
+    public static final long ROW_7 = ROW_0 << 56;
+
+    private Bitboards() {}
+
+    public static int square(int row, int col) {
+        return (row << 3) | col;
+    }
+
+    public static int rowOf(int square) {
+        return square >>> 3;
+    }
+
+    public static int colOf(int square) {
+        return square & 7;
+    }
+
+    public static boolean isValid(int row, int col) {
+        return (row | col) >= 0 && row < 8 && col < 8;
+    }
+
+    public static long bit(int square) {
+        return 1L << square;
+    }
+
+    public static long row(int row) {
+        return ROW_0 << (row << 3);
+    }
+
+    public static long col(int col) {
+        return COL_A << col;
+    }
+
+    public static int lowestSquare(long bitboard) {
+        return Long.numberOfTrailingZeros(bitboard);
+    }
+
+    public static int count(long bitboard) {
+        return Long.bitCount(bitboard);
+    }
+}
@@ -1,66 +1,368 @@
 package org.example.oopchess.models.board;
 
 import org.example.oopchess.enums.PieceColor;
+import org.example.oopchess.enums.PieceType;
 import org.example.oopchess.models.pieces.*;
+import org.example.oopchess.rules.AttackTables;
 import org.example.oopchess.rules.MoveValidator;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
 
 public class Board {
-    private Piece[][] squares;
+    private static final int PIECE_TYPES = PieceType.values().length;
+    private static final int INITIAL_STACK_SIZE = 256;
+
+    // биты слова состояния в стеке отмены
+    private static final int STATE_EN_PASSANT_MASK = 0x7F; // клетка взятия на проходе + 1, 0 - нет
+    private static final int STATE_HAD_MOVED = 1 << 7;
+    private static final int STATE_RECORDED = 1 << 8; // ход сделан через makeMove(Move) и лежит в moveHistory
+    private static final int STATE_HALFMOVE_SHIFT = 16; // старшие 16 бит - счетчик полуходов до хода
+    private static final long DARK_SQUARES = 0x55AA55AA55AA55AAL; // a8 (бит 0) - светлое поле, b8 - темное
+
+    public static final int WHITE_KING_SIDE = 1;
+    public static final int WHITE_QUEEN_SIDE = 2;
+    public static final int BLACK_KING_SIDE = 4;
+    public static final int BLACK_QUEEN_SIDE = 8;
+
+    private Piece[] squares; // индекс = row * 8 + col, см. Bitboards.square
+    private long[] pieceBitboards; // по одной маске на каждый цвет и тип фигуры
+    private long[] colorOccupancy;
+    private long occupied;
     private MoveValidator moveValidator;
     private List<Move> moveHistory;
-    private Position enPassantTarget;
+    private int enPassantSquare = -1;
+    private PieceColor sideToMove = PieceColor.WHITE;
+    private long hash; // Zobrist, обновляется по ходу игры, а не пересчитывается
+    private long pawnHash; // Zobrist только по пешкам - ключ кеша пешечной структуры
+
+    // материал и позиционные бонусы за белых минус за черных, тоже обновляются по ходу
+    private int midgameScore;
+    private int endgameScore;
+    private int phase;
+
+    // стек отмены ходов на примитивах, без объектов на каждый ход
+    private int ply;
+    private int halfmoveClock; // полуходы без взятий и ходов пешек, для правила 50 ходов
+    private int fullmoveNumber = 1;
+    private final Piece[][] piecePool = new Piece[2 * PIECE_TYPES][];
+    private final int[] poolUsed = new int[2 * PIECE_TYPES];
+    private int[] moveStack;
+    private int[] stateStack;
+    private Piece[] movedStack;
+    private Piece[] capturedStack;
+    private long[] hashStack;
+    private PositionSnapshot snapshot; // последний выданный снимок, см. snapshot()
 
     public Board() {
-        squares = new Piece[8][8];
+        squares = new Piece[64];
+        pieceBitboards = new long[2 * PIECE_TYPES];
+        colorOccupancy = new long[2];
         moveHistory = new ArrayList<>();
+        moveStack = new int[INITIAL_STACK_SIZE];
+        stateStack = new int[INITIAL_STACK_SIZE];
+        movedStack = new Piece[INITIAL_STACK_SIZE];
+        capturedStack = new Piece[INITIAL_STACK_SIZE];
+        hashStack = new long[INITIAL_STACK_SIZE];
         moveValidator = new MoveValidator(this);
         initBoard();
     }
 
+    // копия для другого потока: свои фигуры (флаги hasMoved не общие) и свой MoveValidator.
+    // Стек отмены копируется, поэтому повторения видны, но moveHistory в копии пустая -
+    // такие ходы отменяются как обычные makeMove(int)
+    public Board(Board other) {
+        squares = new Piece[64];
+        pieceBitboards = other.pieceBitboards.clone();
+        colorOccupancy = other.colorOccupancy.clone();
+        occupied = other.occupied;
+        moveHistory = new ArrayList<>();
+        enPassantSquare = other.enPassantSquare;
+        sideToMove = other.sideToMove;
+        hash = other.hash;
+        pawnHash = other.pawnHash;
+        midgameScore = other.midgameScore;
+        endgameScore = other.endgameScore;
+        phase = other.phase;
+        ply = other.ply;
+        halfmoveClock = other.halfmoveClock;
+        fullmoveNumber = other.fullmoveNumber;
+
+        int size = other.moveStack.length;
+        moveStack = Arrays.copyOf(other.moveStack, size);
+        stateStack = new int[size];
+        movedStack = new Piece[size];
+        capturedStack = new Piece[size];
+        hashStack = Arrays.copyOf(other.hashStack, size);
+
+        // одна и та же фигура в доске и стеке должна остаться одним объектом и в копии
+        Map<Piece, Piece> copies = new IdentityHashMap<>();
+        for (int square = 0; square < 64; square++) {
+            squares[square] = copyPiece(other.squares[square], copies);
+        }
+        for (int i = 0; i < ply; i++) {
+            stateStack[i] = other.stateStack[i] & ~STATE_RECORDED;
+            movedStack[i] = copyPiece(other.movedStack[i], copies);
+            capturedStack[i] = copyPiece(other.capturedStack[i], copies);
+        }
+        moveValidator = new MoveValidator(this);
+    }
+
+    private static Piece copyPiece(Piece piece, Map<Piece, Piece> copies) {
+        if (piece == null) return null;
+        return copies.computeIfAbsent(piece, p -> {
+            Piece copy = Piece.of(p.getType(), p.getColor());
+            copy.setMoved(p.hasMoved());
+            return copy;
+        });
+    }
+
+    public Board(String fen) {
+        this();
+        Fen.load(this, fen);
+    }
+
+    public static Board fromFen(String fen) {
+        return new Board(fen);
+    }
+
+    // загрузка позиции в уже существующую доску без создания объектов (фигуры берутся из пула доски)
+    public void loadFen(CharSequence fen) {
+        Fen.load(this, fen);
+    }
+
+    public String toFen() {
+        return Fen.toFen(this);
+    }
+
     public void initBoard() {
+        clear();
+
         for (int i = 0; i < 8; i++) {
-            squares[1][i] = new Pawn(PieceColor.BLACK);
-            squares[6][i] = new Pawn(PieceColor.WHITE);
+            setPiece(1, i, new Pawn(PieceColor.BLACK));
+            setPiece(6, i, new Pawn(PieceColor.WHITE));
         }
 
-        squares[0][0] = new Rook(PieceColor.BLACK);
-        squares[0][7] = new Rook(PieceColor.BLACK);
-        squares[7][0] = new Rook(PieceColor.WHITE);
-        squares[7][7] = new Rook(PieceColor.WHITE);
+        setPiece(0, 0, new Rook(PieceColor.BLACK));
+        setPiece(0, 7, new Rook(PieceColor.BLACK));
+        setPiece(7, 0, new Rook(PieceColor.WHITE));
+        setPiece(7, 7, new Rook(PieceColor.WHITE));
 
-        squares[0][1] = new Knight(PieceColor.BLACK);
-        squares[0][6] = new Knight(PieceColor.BLACK);
-        squares[7][1] = new Knight(PieceColor.WHITE);
-        squares[7][6] = new Knight(PieceColor.WHITE);
+        setPiece(0, 1, new Knight(PieceColor.BLACK));
+        setPiece(0, 6, new Knight(PieceColor.BLACK));
+        setPiece(7, 1, new Knight(PieceColor.WHITE));
+        setPiece(7, 6, new Knight(PieceColor.WHITE));
 
-        squares[0][2] = new Bishop(PieceColor.BLACK);
-        squares[0][5] = new Bishop(PieceColor.BLACK);
-        squares[7][2] = new Bishop(PieceColor.WHITE);
-        squares[7][5] = new Bishop(PieceColor.WHITE);
+        setPiece(0, 2, new Bishop(PieceColor.BLACK));
+        setPiece(0, 5, new Bishop(PieceColor.BLACK));
+        setPiece(7, 2, new Bishop(PieceColor.WHITE));
+        setPiece(7, 5, new Bishop(PieceColor.WHITE));
 
-        squares[0][3] = new Queen(PieceColor.BLACK);
-        squares[7][3] = new Queen(PieceColor.WHITE);
+        setPiece(0, 3, new Queen(PieceColor.BLACK));
+        setPiece(7, 3, new Queen(PieceColor.WHITE));
 
-        squares[0][4] = new King(PieceColor.BLACK);
-        squares[7][4] = new King(PieceColor.WHITE);
+        setPiece(0, 4, new King(PieceColor.BLACK));
+        setPiece(7, 4, new King(PieceColor.WHITE));
+        rehash();
+    }
+
+    public void clear() {
+        Arrays.fill(squares, null);
+        Arrays.fill(pieceBitboards, 0L);
+        Arrays.fill(colorOccupancy, 0L);
+        occupied = 0L;
+        moveHistory.clear();
+        Arrays.fill(movedStack, 0, ply, null);
+        Arrays.fill(capturedStack, 0, ply, null);
+        ply = 0;
+        enPassantSquare = -1;
+        sideToMove = PieceColor.WHITE;
+        hash = 0L;
+        pawnHash = 0L;
+        midgameScore = 0;
+        endgameScore = 0;
+        phase = 0;
+        halfmoveClock = 0;
+        fullmoveNumber = 1;
+    }
+
+    // фигуры для повторной загрузки позиций (loadFen): после первой загрузки новые объекты не создаются.
+    // Фигуры прошлой позиции переиспользуются, поэтому внешние ссылки на них после загрузки недействительны
+    void releasePooledPieces() {
+        Arrays.fill(poolUsed, 0);
+    }
+
+    Piece pooledPiece(PieceType type, PieceColor color) {
+        int index = color.ordinal() * PIECE_TYPES + type.ordinal();
+        Piece[] pool = piecePool[index];
+        int used = poolUsed[index];
+        if (pool == null || used == pool.length) {
+            pool = piecePool[index] = Arrays.copyOf(pool == null ? new Piece[0] : pool, Math.max(2, used * 2));
+        }
+        if (pool[used] == null) {
+            pool[used] = Piece.of(type, color);
+        }
+        poolUsed[index] = used + 1;
+        return pool[used];
     }
 
     public Piece getPiece(Position pos) {
         if (isValidPosition(pos)) {
-            return squares[pos.getRow()][pos.getCol()];
+            return squares[Bitboards.square(pos.getRow(), pos.getCol())];
         }
         return null;
     }
 
+    public Piece getPiece(int row, int col) {
+        if (Bitboards.isValid(row, col)) {
+            return squares[Bitboards.square(row, col)];
+        }
+        return null;
+    }
+
+    public Piece getPiece(int square) {
+        return squares[square];
+    }
+
+    public boolean isOccupied(int row, int col) {
+        return Bitboards.isValid(row, col) && (occupied & Bitboards.bit(Bitboards.square(row, col))) != 0;
+    }
+
     public void setPiece(Position pos, Piece piece) {
         if (isValidPosition(pos)) {
-            squares[pos.getRow()][pos.getCol()] = piece;
+            setSquare(Bitboards.square(pos.getRow(), pos.getCol()), piece);
         }
     }
 
+    public long getBitboard(PieceColor color, PieceType type) {
+        return pieceBitboards[color.ordinal() * PIECE_TYPES + type.ordinal()];
+    }
+
+    public long getOccupancy(PieceColor color) {
+        return colorOccupancy[color.ordinal()];
+    }
+
+    public long getOccupied() {
+        return occupied;
+    }
+
+    public int findKing(PieceColor color) {
+        long king = getBitboard(color, PieceType.KING);
+        return king == 0 ? -1 : Bitboards.lowestSquare(king);
+    }
+
+    private void setSquare(int square, Piece piece) {
+        Piece old = squares[square];
+        if (old != null) {
+            removeFromBitboards(square, old);
+        }
+        squares[square] = piece;
+        if (piece != null) {
+            addToBitboards(square, piece);
+        }
+    }
+
+    private void addToBitboards(int square, Piece piece) {
+        long bit = Bitboards.bit(square);
+        int color = piece.getColor().ordinal();
+        int index = color * PIECE_TYPES + piece.getType().ordinal();
+        pieceBitboards[index] |= bit;
+        colorOccupancy[color] |= bit;
+        occupied |= bit;
+        updateKeysAndScores(index, square, 1);
+    }
+
+    private void removeFromBitboards(int square, Piece piece) {
+        long bit = ~Bitboards.bit(square);
+        int color = piece.getColor().ordinal();
+        int index = color * PIECE_TYPES + piece.getType().ordinal();
+        pieceBitboards[index] &= bit;
+        colorOccupancy[color] &= bit;
+        occupied &= bit;
+        updateKeysAndScores(index, square, -1);
+    }
+
+    private void updateKeysAndScores(int index, int square, int sign) {
+        long key = Zobrist.piece(index, square);
+        hash ^= key;
+        if (index % PIECE_TYPES == PieceType.PAWN.ordinal()) {
+            pawnHash ^= key;
+        }
+        midgameScore += sign * PieceSquareTables.midgame(index, square);
+        endgameScore += sign * PieceSquareTables.endgame(index, square);
+        phase += sign * PieceSquareTables.phase(index);
+    }
+
+    public long getHash() {
+        return hash;
+    }
+
+    // неизменяемый снимок текущей позиции за константное время; пока позиция не меняется,
+    // повторные вызовы (например, от нескольких подписчиков на один ход) возвращают тот же объект
+    public PositionSnapshot snapshot() {
+        int castlingRights = getCastlingRights();
+        if (snapshot == null || snapshot.getHash() != hash || snapshot.getState() != PositionSnapshot.state(sideToMove,
+                castlingRights, enPassantSquare, halfmoveClock, fullmoveNumber)) {
+            snapshot = PositionSnapshot.of(pieceBitboards, hash, sideToMove, castlingRights, enPassantSquare,
+                    halfmoveClock, fullmoveNumber);
+        }
+        return snapshot;
+    }
+
+    public long getPawnHash() {
+        return pawnHash;
+    }
+
+    public int getMidgameScore() {
+        return midgameScore;
+    }
+
+    public int getEndgameScore() {
+        return endgameScore;
+    }
+
+    public int getPhase() {
+        return phase;
+    }
+
+    // полный пересчет хеша - только после расстановки позиции целиком (initBoard, FEN)
+    void rehash() {
+        long h = 0L;
+        for (int index = 0; index < pieceBitboards.length; index++) {
+            long pieces = pieceBitboards[index];
+            while (pieces != 0) {
+                h ^= Zobrist.piece(index, Bitboards.lowestSquare(pieces));
+                pieces &= pieces - 1;
+            }
+        }
+        if (sideToMove == PieceColor.BLACK) h ^= Zobrist.side();
+        hash = h ^ Zobrist.castling(getCastlingRights()) ^ Zobrist.enPassant(enPassantSquare);
+    }
+
+    // права на рокировку выводятся из флагов hasMoved короля и ладей на исходных клетках
+    public int getCastlingRights() {
+        return castlingRights(PieceColor.WHITE, 7, WHITE_KING_SIDE, WHITE_QUEEN_SIDE)
+                | castlingRights(PieceColor.BLACK, 0, BLACK_KING_SIDE, BLACK_QUEEN_SIDE);
+    }
+
+    private int castlingRights(PieceColor color, int row, int kingSide, int queenSide) {
+        Piece king = squares[Bitboards.square(row, 4)];
+        if (king == null || king.hasMoved() || king.getType() != PieceType.KING || king.getColor() != color) {
+            return 0;
+        }
+        int rights = 0;
+        if (isUnmovedRook(squares[Bitboards.square(row, 7)], color)) rights |= kingSide;
+        if (isUnmovedRook(squares[Bitboards.square(row, 0)], color)) rights |= queenSide;
+        return rights;
+    }
+
+    private static boolean isUnmovedRook(Piece piece, PieceColor color) {
+        return piece != null && !piece.hasMoved() && piece.getType() == PieceType.ROOK && piece.getColor() == color;
+    }
+
     public boolean isValidPosition(Position pos) {
         return pos != null &&
                 pos.getRow() >= 0 && pos.getRow() < 8 &&
@@ -68,84 +370,201 @@ public class Board {
     }
 
     public void setPiece(int row, int col, Piece piece) {
-        if (isValidPosition(new Position(row, col))) {
-            squares[row][col] = piece;
+        if (Bitboards.isValid(row, col)) {
+            setSquare(Bitboards.square(row, col), piece);
         }
     }
 
     public Position getEnPassantTarget() {
-        return enPassantTarget;
+        if (enPassantSquare < 0) return null;
+        return new Position(Bitboards.rowOf(enPassantSquare), Bitboards.colOf(enPassantSquare));
     }
 
     public void setEnPassantTarget(Position target) {
-        this.enPassantTarget = target;
+        setEnPassantSquare(isValidPosition(target) ? Bitboards.square(target.getRow(), target.getCol()) : -1);
     }
 
-    public boolean makeMove(Move move) {
-        if (!moveValidator.isValidMove(move)) return false;
+    public int getEnPassantSquare() {
+        return enPassantSquare;
+    }
 
-        Piece piece = move.getPiece();
+    // клетка запоминается, только если стороне на ходу есть чем взять, иначе одинаковые позиции различались бы хешем
+    public void setEnPassantSquare(int square) {
+        hash ^= Zobrist.enPassant(enPassantSquare);
+        enPassantSquare = square >= 0 && canCaptureEnPassant(square, sideToMove) ? square : -1;
+        hash ^= Zobrist.enPassant(enPassantSquare);
+    }
 
-        if (move.isEnPassant()) {
-            performEnPassant(move);
-        } else if (piece instanceof King && Math.abs(move.getFromCol() - move.getToCol()) == 2) {
-            performCastling(move);
-        } else {
-            Piece target = getPiece(new Position(move.getToRow(), move.getToCol()));
-            move.setCapturedPiece(target);
+    private boolean canCaptureEnPassant(int square, PieceColor capturer) {
+        return (AttackTables.pawnAttacks(opposite(capturer), square) & getBitboard(capturer, PieceType.PAWN)) != 0;
+    }
 
-            setPiece(move.getToRow(), move.getToCol(), piece);
-            setPiece(move.getFromRow(), move.getFromCol(), null);
+    public PieceColor getSideToMove() {
+        return sideToMove;
+    }
+
+    public void setSideToMove(PieceColor sideToMove) {
+        if (this.sideToMove != sideToMove) {
+            hash ^= Zobrist.side();
         }
+        this.sideToMove = sideToMove;
+    }
 
-        piece.setMoved(true);
-        moveHistory.add(move);
+    public int getPly() {
+        return ply;
+    }
+
+    public int getHalfmoveClock() {
+        return halfmoveClock;
+    }
 
-        // устанавливаем цель для взятия на проходе если пешка пошла на 2 клетки
-        if (piece instanceof Pawn && Math.abs(move.getFromRow() - move.getToRow()) == 2) {
-            int direction = (piece.getColor() == PieceColor.WHITE) ? -1 : 1;
-            int enPassantRow = move.getFromRow() + direction;
-            setEnPassantTarget(new Position(enPassantRow, move.getToCol()));
-        } else { // сбрасываем цель после любого другого хода
-            setEnPassantTarget(null);
+    public void setHalfmoveClock(int halfmoveClock) {
+        this.halfmoveClock = halfmoveClock;
+    }
+
+    public int getFullmoveNumber() {
+        return fullmoveNumber;
+    }
+
+    public void setFullmoveNumber(int fullmoveNumber) {
+        this.fullmoveNumber = fullmoveNumber;
+    }
+
+    // повторилась ли текущая позиция среди предыдущих (та же сторона на ходу - шаг в два полухода)
+    // смотрим только позиции после последнего взятия или хода пешки: раньше повторений быть не может
+    public boolean isRepetition() {
+        int oldest = Math.max(0, ply - halfmoveClock);
+        for (int i = ply - 2; i >= oldest; i -= 2) {
+            if (hashStack[i] == hash) return true;
         }
+        return false;
+    }
 
-        return true;
+    // сколько раз текущая позиция уже встречалась раньше; 2 - троекратное повторение
+    public int repetitionCount() {
+        int oldest = Math.max(0, ply - halfmoveClock);
+        int count = 0;
+        for (int i = ply - 2; i >= oldest; i -= 2) {
+            if (hashStack[i] == hash) count++;
+        }
+        return count;
     }
 
-    private void performEnPassant(Move move) {
-        Piece pawn = move.getPiece();
+    // мат невозможен: голые короли, одна легкая фигура или только слоны на полях одного цвета
+    public boolean hasInsufficientMaterial() {
+        long heavy = 0;
+        for (PieceColor color : PieceColor.values()) {
+            heavy |= getBitboard(color, PieceType.PAWN) | getBitboard(color, PieceType.ROOK) | getBitboard(color, PieceType.QUEEN);
+        }
+        if (heavy != 0) return false;
 
-        setPiece(move.getToRow(), move.getToCol(), pawn);
-        setPiece(move.getFromRow(), move.getFromCol(), null);
+        long knights = getBitboard(PieceColor.WHITE, PieceType.KNIGHT) | getBitboard(PieceColor.BLACK, PieceType.KNIGHT);
+        long bishops = getBitboard(PieceColor.WHITE, PieceType.BISHOP) | getBitboard(PieceColor.BLACK, PieceType.BISHOP);
+        if (knights == 0) {
+            return (bishops & DARK_SQUARES) == 0 || (bishops & ~DARK_SQUARES) == 0;
+        }
+        return bishops == 0 && Long.bitCount(knights) == 1;
+    }
 
-        setPiece(move.getFromRow(), move.getToCol(), null);
-        System.out.println("убрали " + move.getFromRow() + " " + move.getToCol());
+    public int getLastMove() {
+        return ply == 0 ? PackedMove.NONE : moveStack[ply - 1];
     }
 
-    private void performCastling(Move move) {
-        King king = (King) move.getPiece();
-        int kingRow = move.getFromRow();
-        int kingFromCol = move.getFromCol();
-        int kingToCol = move.getToCol();
+    public boolean makeMove(Move move) {
+        int packed = moveValidator.findLegalMove(move);
+        if (packed == PackedMove.NONE) return false;
 
-        boolean isKingSide = kingToCol > kingFromCol;
-        int rookFromCol = isKingSide ? 7 : 0;
-        int rookToCol = isKingSide ? kingToCol - 1 : kingToCol + 1;
+        makeMove(move, packed);
+        return true;
+    }
 
-        setPiece(kingRow, kingToCol, king);
-        setPiece(kingRow, kingFromCol, null);
+    // ход уже найден в списке легальных ходов генератора (например, закешированном) - повторно не проверяем
+    public void makeMove(Move move, int packed) {
+        move.setCapturedPiece(PackedMove.isEnPassant(packed)
+                ? getPiece(move.getFromRow(), move.getToCol())
+                : getPiece(move.getToRow(), move.getToCol()));
+        move.setEnPassant(PackedMove.isEnPassant(packed));
+        move.setCastling(PackedMove.isCastling(packed));
+
+        applyMove(packed, STATE_RECORDED);
+        if (PackedMove.isPromotion(packed) && move.getPromotionPiece() == null) {
+            move.setPromotionPiece(getPiece(move.getToRow(), move.getToCol()));
+        }
+        moveHistory.add(move);
+    }
 
-        Piece rook = getPiece(new Position(kingRow, rookFromCol));
-        setPiece(kingRow, rookToCol, rook);
-        setPiece(kingRow, rookFromCol, null);
+    // быстрый путь для генератора и поиска: ход должен быть получен из MoveGenerator, проверки не выполняются
+    public void makeMove(int move) {
+        applyMove(move, 0);
+    }
 
-        king.setMoved(true);
-        if (rook != null) {
-            rook.setMoved(true);
+    private void applyMove(int move, int stateFlags) {
+        int from = PackedMove.from(move);
+        int to = PackedMove.to(move);
+        Piece piece = squares[from];
+        Piece captured;
+
+        ensureStackCapacity();
+        int state = stateFlags | (enPassantSquare + 1) | (Math.min(halfmoveClock, 0xFFFF) << STATE_HALFMOVE_SHIFT);
+        if (piece.hasMoved()) state |= STATE_HAD_MOVED;
+        hashStack[ply] = hash;
+        hash ^= Zobrist.castling(getCastlingRights()) ^ Zobrist.enPassant(enPassantSquare);
+
+        if (PackedMove.isEnPassant(move)) {
+            captured = performEnPassant(from, to, piece);
+        } else if (PackedMove.isCastling(move)) {
+            captured = null;
+            performCastling(from, to, piece);
+        } else {
+            captured = squares[to];
+            setSquare(from, null);
+            setSquare(to, PackedMove.isPromotion(move) ? promote(piece, PackedMove.promotionType(move)) : piece);
         }
 
-        move.setCastling(true);
+        piece.setMoved(true);
+        halfmoveClock = captured != null || piece.getType() == PieceType.PAWN ? 0 : halfmoveClock + 1;
+        if (piece.getColor() == PieceColor.BLACK) fullmoveNumber++;
+
+        // устанавливаем цель для взятия на проходе если пешка пошла на 2 клетки, после любого другого хода сбрасываем
+        sideToMove = opposite(piece.getColor());
+        enPassantSquare = PackedMove.isDoublePawnPush(move) && canCaptureEnPassant((from + to) >>> 1, sideToMove)
+                ? (from + to) >>> 1 : -1;
+        hash ^= Zobrist.castling(getCastlingRights()) ^ Zobrist.enPassant(enPassantSquare) ^ Zobrist.side();
+
+        moveStack[ply] = move;
+        stateStack[ply] = state;
+        movedStack[ply] = piece;
+        capturedStack[ply] = captured;
+        ply++;
+    }
+
+    private Piece performEnPassant(int from, int to, Piece pawn) {
+        int capturedSquare = Bitboards.square(Bitboards.rowOf(from), Bitboards.colOf(to));
+        Piece captured = squares[capturedSquare];
+
+        setSquare(capturedSquare, null);
+        setSquare(from, null);
+        setSquare(to, pawn);
+        return captured;
+    }
+
+    private void performCastling(int kingFrom, int kingTo, Piece king) {
+        int rookFrom = kingTo > kingFrom ? kingFrom + 3 : kingFrom - 4;
+        int rookTo = (kingFrom + kingTo) >>> 1;
+
+        setSquare(kingFrom, null);
+        setSquare(kingTo, king);
+
+        Piece rook = squares[rookFrom];
+        setSquare(rookFrom, null);
+        setSquare(rookTo, rook);
+        rook.setMoved(true);
+    }
+
+    private Piece promote(Piece pawn, PieceType type) {
+        Piece promoted = Piece.of(type, pawn.getColor());
+        promoted.setMoved(true);
+        return promoted;
     }
 
     public MoveValidator getMoveValidator() {
@@ -153,35 +572,63 @@ public class Board {
     }
 
     public void undoMove() {
-        if (moveHistory.isEmpty()) return;
-
-        Move lastMove = moveHistory.remove(moveHistory.size() - 1);
-        Piece movedPiece = lastMove.getPiece();
+        if (ply == 0) return;
+
+        ply--;
+        int move = moveStack[ply];
+        int state = stateStack[ply];
+        Piece movedPiece = movedStack[ply];
+        Piece captured = capturedStack[ply];
+        movedStack[ply] = null;
+        capturedStack[ply] = null;
+
+        int from = PackedMove.from(move);
+        int to = PackedMove.to(move);
+
+        setSquare(to, null);
+        setSquare(from, movedPiece);
+        if (PackedMove.isEnPassant(move)) {
+            setSquare(Bitboards.square(Bitboards.rowOf(from), Bitboards.colOf(to)), captured);
+        } else if (captured != null) {
+            setSquare(to, captured);
+        }
 
-        setPiece(lastMove.getFromRow(), lastMove.getFromCol(), movedPiece);
-        setPiece(lastMove.getToRow(), lastMove.getToCol(), lastMove.getCapturedPiece());
+        // Если это была рокировка, возвращаем и ладью
+        if (PackedMove.isCastling(move)) {
+            int rookFrom = to > from ? from + 3 : from - 4;
+            int rookTo = (from + to) >>> 1;
+            Piece rook = squares[rookTo];
+            setSquare(rookTo, null);
+            setSquare(rookFrom, rook);
+            rook.setMoved(false);
+        }
 
-        movedPiece.setMoved(false);
+        movedPiece.setMoved((state & STATE_HAD_MOVED) != 0);
+        enPassantSquare = (state & STATE_EN_PASSANT_MASK) - 1;
+        halfmoveClock = state >>> STATE_HALFMOVE_SHIFT;
+        if (movedPiece.getColor() == PieceColor.BLACK) fullmoveNumber--;
+        sideToMove = movedPiece.getColor();
+        hash = hashStack[ply];
 
-        // Если это была рокировка, возвращаем и ладью
-        if (lastMove.isCastling()) {
-            int kingRow = lastMove.getFromRow();
-            int kingFromCol = lastMove.getFromCol();
-            int kingToCol = lastMove.getToCol();
-            boolean isKingSide = kingToCol > kingFromCol;
-            int rookFromCol = isKingSide ? 7 : 0;
-            int rookToCol = isKingSide ? kingToCol - 1 : kingToCol + 1;
-
-            Piece rook = getPiece(new Position(kingRow, rookToCol));
-            setPiece(kingRow, rookFromCol, rook);
-            setPiece(kingRow, rookToCol, null);
-
-            if (rook != null) {
-                rook.setMoved(false);
-            }
+        if ((state & STATE_RECORDED) != 0) {
+            moveHistory.remove(moveHistory.size() - 1);
         }
     }
 
+    private void ensureStackCapacity() {
+        if (ply < moveStack.length) return;
+        int size = moveStack.length * 2;
+        moveStack = Arrays.copyOf(moveStack, size);
+        stateStack = Arrays.copyOf(stateStack, size);
+        movedStack = Arrays.copyOf(movedStack, size);
+        capturedStack = Arrays.copyOf(capturedStack, size);
+        hashStack = Arrays.copyOf(hashStack, size);
+    }
+
+    private static PieceColor opposite(PieceColor color) {
+        return color == PieceColor.WHITE ? PieceColor.BLACK : PieceColor.WHITE;
+    }
+
     public List<Move> getMoveHistory() {
         return new ArrayList<>(moveHistory);
     }
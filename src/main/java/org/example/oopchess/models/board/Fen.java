@@ -0,0 +1,227 @@
+package org.example.oopchess.models.board;
+
+import org.example.oopchess.enums.PieceColor;
+import org.example.oopchess.enums.PieceType;
+import org.example.oopchess.models.pieces.Piece;
+
+import java.util.function.IntUnaryOperator;
+
+// Загрузка и запись позиции в FEN. Права на рокировку переводятся в флаги hasMoved короля и ладей.
+// Разбор идет посимвольно, без split и подстрок, а фигуры берутся из пула доски -
+// повторная загрузка в ту же доску не создает объектов (важно для импорта и анализа больших наборов позиций).
+public final class Fen {
+    public static final String START_POSITION = "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1";
+
+    private static final String WHITE_LETTERS = "PNBRQK"; // по PieceType.ordinal()
+    private static final String BLACK_LETTERS = "pnbrqk";
+
+    private Fen() {}
+
+    // поля после стороны на ходу необязательны: рокировка "-", взятие на проходе "-", счетчики 0 и 1
+    public static void load(Board board, CharSequence fen) {
+        int length = fen.length();
+        int i = skipSpaces(fen, 0);
+
+        board.clear();
+        board.releasePooledPieces();
+        i = loadPlacement(board, fen, i);
+
+        i = skipSpaces(fen, i);
+        if (i >= length) throw bad(fen);
+        char side = fen.charAt(i++);
+        if (side == 'w') {
+            board.setSideToMove(PieceColor.WHITE);
+        } else if (side == 'b') {
+            board.setSideToMove(PieceColor.BLACK);
+        } else {
+            throw bad(fen);
+        }
+        if (i < length && fen.charAt(i) != ' ') throw bad(fen);
+
+        i = skipSpaces(fen, i);
+        i = loadCastling(board, fen, i);
+
+        i = skipSpaces(fen, i);
+        int enPassant = -1;
+        if (i < length && fen.charAt(i) != '-') {
+            if (i + 1 >= length) throw bad(fen);
+            int col = fen.charAt(i) - 'a';
+            int row = '8' - fen.charAt(i + 1);
+            if (!Bitboards.isValid(row, col)) throw bad(fen);
+            enPassant = Bitboards.square(row, col);
+            i += 2;
+        } else if (i < length) {
+            i++;
+        }
+
+        i = skipSpaces(fen, i);
+        int halfmove = 0;
+        if (i < length) {
+            int end = skipToken(fen, i);
+            halfmove = parseNumber(fen, i, end);
+            i = skipSpaces(fen, end);
+        }
+        int fullmove = 1;
+        if (i < length) {
+            int end = skipToken(fen, i);
+            fullmove = Math.max(1, parseNumber(fen, i, end));
+            i = skipSpaces(fen, end);
+        }
+        if (i < length) throw bad(fen);
+
+        board.rehash();
+        board.setEnPassantSquare(enPassant);
+        board.setHalfmoveClock(halfmove);
+        board.setFullmoveNumber(fullmove);
+    }
+
+    private static int loadPlacement(Board board, CharSequence fen, int i) {
+        int row = 0;
+        int col = 0;
+        for (; i < fen.length(); i++) {
+            char c = fen.charAt(i);
+            if (c == ' ') break;
+            if (c == '/') {
+                if (col != 8) throw bad(fen);
+                row++;
+                col = 0;
+            } else if (c >= '1' && c <= '8') {
+                col += c - '0';
+                if (col > 8) throw bad(fen);
+            } else {
+                PieceType type = pieceType(c);
+                if (type == null || !Bitboards.isValid(row, col)) throw bad(fen);
+                PieceColor color = Character.isUpperCase(c) ? PieceColor.WHITE : PieceColor.BLACK;
+                Piece piece = board.pooledPiece(type, color);
+                // король и ладьи считаются сходившими, пока право на рокировку не сказало обратное
+                piece.setMoved(type == PieceType.KING || type == PieceType.ROOK);
+                board.setPiece(row, col, piece);
+                col++;
+            }
+        }
+        if (row != 7 || col != 8) throw bad(fen);
+        return i;
+    }
+
+    private static int loadCastling(Board board, CharSequence fen, int i) {
+        for (; i < fen.length() && fen.charAt(i) != ' '; i++) {
+            char c = fen.charAt(i);
+            if (c == '-') continue;
+            char lower = Character.toLowerCase(c);
+            if (lower != 'k' && lower != 'q') throw bad(fen);
+            int row = Character.isUpperCase(c) ? 7 : 0;
+            int rookCol = lower == 'k' ? 7 : 0;
+            Piece king = board.getPiece(row, 4);
+            Piece rook = board.getPiece(row, rookCol);
+            if (king != null && king.getType() == PieceType.KING && rook != null && rook.getType() == PieceType.ROOK) {
+                king.setMoved(false);
+                rook.setMoved(false);
+            }
+        }
+        return i;
+    }
+
+    static PieceType pieceType(char c) {
+        switch (Character.toLowerCase(c)) {
+            case 'p': return PieceType.PAWN;
+            case 'n': return PieceType.KNIGHT;
+            case 'b': return PieceType.BISHOP;
+            case 'r': return PieceType.ROOK;
+            case 'q': return PieceType.QUEEN;
+            case 'k': return PieceType.KING;
+            default: return null;
+        }
+    }
+
+    private static int skipSpaces(CharSequence fen, int i) {
+        while (i < fen.length() && Character.isWhitespace(fen.charAt(i))) i++;
+        return i;
+    }
+
+    private static int skipToken(CharSequence fen, int i) {
+        while (i < fen.length() && !Character.isWhitespace(fen.charAt(i))) i++;
+        return i;
+    }
+
+    private static int parseNumber(CharSequence fen, int start, int end) {
+        if (start == end || end - start > 6) throw bad(fen);
+        int value = 0;
+        for (int i = start; i < end; i++) {
+            char c = fen.charAt(i);
+            if (c < '0' || c > '9') throw bad(fen);
+            value = value * 10 + (c - '0');
+        }
+        return value;
+    }
+
+    private static IllegalArgumentException bad(CharSequence fen) {
+        return new IllegalArgumentException("Bad FEN: " + fen);
+    }
+
+    public static String toFen(Board board) {
+        StringBuilder sb = new StringBuilder(90);
+        append(board, sb);
+        return sb.toString();
+    }
+
+    // клетка взятия на проходе пишется, только если взятие действительно возможно (так ее хранит доска)
+    public static void append(Board board, StringBuilder sb) {
+        appendPlacement(square -> {
+            Piece piece = board.getPiece(square);
+            return piece == null ? -1 : piece.getColor().ordinal() * 6 + piece.getType().ordinal();
+        }, sb);
+        appendState(board.getSideToMove(), board.getCastlingRights(), board.getEnPassantSquare(),
+                board.getHalfmoveClock(), board.getFullmoveNumber(), sb);
+    }
+
+    public static void append(PositionSnapshot snapshot, StringBuilder sb) {
+        appendPlacement(snapshot::pieceAt, sb);
+        appendState(snapshot.getSideToMove(), snapshot.getCastlingRights(), snapshot.getEnPassantSquare(),
+                snapshot.getHalfmoveClock(), snapshot.getFullmoveNumber(), sb);
+    }
+
+    // pieceAt - color * 6 + type или -1 для пустой клетки
+    private static void appendPlacement(IntUnaryOperator pieceAt, StringBuilder sb) {
+        for (int row = 0; row < 8; row++) {
+            int empty = 0;
+            for (int col = 0; col < 8; col++) {
+                int index = pieceAt.applyAsInt(Bitboards.square(row, col));
+                if (index < 0) {
+                    empty++;
+                    continue;
+                }
+                if (empty > 0) {
+                    sb.append((char) ('0' + empty));
+                    empty = 0;
+                }
+                String letters = index < 6 ? WHITE_LETTERS : BLACK_LETTERS;
+                sb.append(letters.charAt(index % 6));
+            }
+            if (empty > 0) sb.append((char) ('0' + empty));
+            if (row < 7) sb.append('/');
+        }
+    }
+
+    private static void appendState(PieceColor sideToMove, int rights, int enPassant, int halfmove, int fullmove,
+                                    StringBuilder sb) {
+        sb.append(sideToMove == PieceColor.WHITE ? " w " : " b ");
+
+        if (rights == 0) {
+            sb.append('-');
+        } else {
+            if ((rights & Board.WHITE_KING_SIDE) != 0) sb.append('K');
+            if ((rights & Board.WHITE_QUEEN_SIDE) != 0) sb.append('Q');
+            if ((rights & Board.BLACK_KING_SIDE) != 0) sb.append('k');
+            if ((rights & Board.BLACK_QUEEN_SIDE) != 0) sb.append('q');
+        }
+
+        sb.append(' ');
+        if (enPassant < 0) {
+            sb.append('-');
+        } else {
+            PackedMove.appendSquare(sb, enPassant);
+        }
+
+        sb.append(' ').append(halfmove).append(' ').append(fullmove);
+    }
+}
@@ -0,0 +1,89 @@
+package org.example.oopchess.models.board;
+
+import org.example.oopchess.enums.PieceType;
+
+// Ход, упакованный в int без создания объектов:
+// биты 0-5 - клетка откуда, 6-11 - клетка куда, 12-15 - флаги (тип хода и фигура превращения).
+// Старшие 16 бит не используются, поэтому ход помещается в short.
+public final class PackedMove {
+    public static final int NONE = 0;
+
+    public static final int QUIET = 0;
+    public static final int DOUBLE_PAWN_PUSH = 1;
+    public static final int KING_CASTLE = 2;
+    public static final int QUEEN_CASTLE = 3;
+    public static final int CAPTURE = 4;
+    public static final int EN_PASSANT = 5;
+    public static final int PROMOTION = 8; // + 0..3 для коня, слона, ладьи, ферзя
+    public static final int PROMOTION_CAPTURE = 12;
+
+    private static final PieceType[] PROMOTION_TYPES = {
+            PieceType.KNIGHT, PieceType.BISHOP, PieceType.ROOK, PieceType.QUEEN
+    };
+
+    private PackedMove() {}
+
+    public static int of(int from, int to, int flags) {
+        return from | (to << 6) | (flags << 12);
+    }
+
+    public static int promotion(int from, int to, PieceType type, boolean capture) {
+        int flags = (capture ? PROMOTION_CAPTURE : PROMOTION) | (type.ordinal() - PieceType.KNIGHT.ordinal());
+        return of(from, to, flags);
+    }
+
+    public static int from(int move) {
+        return move & 0x3F;
+    }
+
+    public static int to(int move) {
+        return (move >>> 6) & 0x3F;
+    }
+
+    public static int flags(int move) {
+        return (move >>> 12) & 0xF;
+    }
+
+    public static boolean isCapture(int move) {
+        return (flags(move) & CAPTURE) != 0;
+    }
+
+    public static boolean isPromotion(int move) {
+        return (flags(move) & PROMOTION) != 0;
+    }
+
+    public static boolean isCastling(int move) {
+        int flags = flags(move);
+        return flags == KING_CASTLE || flags == QUEEN_CASTLE;
+    }
+
+    public static boolean isEnPassant(int move) {
+        return flags(move) == EN_PASSANT;
+    }
+
+    public static boolean isDoublePawnPush(int move) {
+        return flags(move) == DOUBLE_PAWN_PUSH;
+    }
+
+    public static PieceType promotionType(int move) {
+        return isPromotion(move) ? PROMOTION_TYPES[flags(move) & 3] : null;
+    }
+
+    // координатная запись вида e2e4 / e7e8q, удобна для отладки и логов
+    public static String toString(int move) {
+        if (move == NONE) return "0000";
+        StringBuilder sb = new StringBuilder(5);
+        appendSquare(sb, from(move));
+        appendSquare(sb, to(move));
+        PieceType promotion = promotionType(move);
+        if (promotion != null) {
+            sb.append("nbrq".charAt(promotion.ordinal() - PieceType.KNIGHT.ordinal()));
+        }
+        return sb.toString();
+    }
+
+    public static void appendSquare(StringBuilder sb, int square) {
+        sb.append((char) ('a' + Bitboards.colOf(square)));
+        sb.append((char) ('8' - Bitboards.rowOf(square)));
+    }
+}
@@ -0,0 +1,136 @@
+package org.example.oopchess.models.board;
+
+// Материал и таблицы позиционных бонусов для середины и конца игры.
+// Значения уже со знаком (черные - минус), поэтому Board просто прибавляет/вычитает их при постановке и снятии фигуры.
+public final class PieceSquareTables {
+    public static final int MAX_PHASE = 24;
+
+    // по PieceType.ordinal()
+    private static final int[] MG_VALUES = {82, 337, 365, 477, 1025, 0};
+    private static final int[] EG_VALUES = {94, 281, 297, 512, 936, 0};
+    private static final int[] PHASE = {0, 1, 1, 2, 4, 0};
+
+    // таблицы с точки зрения белых, первая строка - 8-я горизонталь (row 0), как и нумерация клеток доски
+    private static final int[] PAWN_MG = {
+              0,   0,   0,   0,   0,   0,   0,   0,
+             50,  50,  50,  50,  50,  50,  50,  50,
+             10,  10,  20,  30,  30,  20,  10,  10,
+              5,   5,  10,  25,  25,  10,   5,   5,
+              0,   0,   0,  20,  20,   0,   0,   0,
+              5,  -5, -10,   0,   0, -10,  -5,   5,
+              5,  10,  10, -20, -20,  10,  10,   5,
+              0,   0,   0,   0,   0,   0,   0,   0
+    };
+    private static final int[] PAWN_EG = {
+              0,   0,   0,   0,   0,   0,   0,   0,
+             80,  80,  80,  80,  80,  80,  80,  80,
+             50,  50,  50,  50,  50,  50,  50,  50,
+             30,  30,  30,  30,  30,  30,  30,  30,
+             15,  15,  15,  15,  15,  15,  15,  15,
+              5,   5,   5,   5,   5,   5,   5,   5,
+              0,   0,   0,   0,   0,   0,   0,   0,
+              0,   0,   0,   0,   0,   0,   0,   0
+    };
+    private static final int[] KNIGHT = {
+            -50, -40, -30, -30, -30, -30, -40, -50,
+            -40, -20,   0,   0,   0,   0, -20, -40,
+            -30,   0,  10,  15,  15,  10,   0, -30,
+            -30,   5,  15,  20,  20,  15,   5, -30,
+            -30,   0,  15,  20,  20,  15,   0, -30,
+            -30,   5,  10,  15,  15,  10,   5, -30,
+            -40, -20,   0,   5,   5,   0, -20, -40,
+            -50, -40, -30, -30, -30, -30, -40, -50
+    };
+    private static final int[] BISHOP = {
+            -20, -10, -10, -10, -10, -10, -10, -20,
+            -10,   0,   0,   0,   0,   0,   0, -10,
+            -10,   0,   5,  10,  10,   5,   0, -10,
+            -10,   5,   5,  10,  10,   5,   5, -10,
+            -10,   0,  10,  10,  10,  10,   0, -10,
+            -10,  10,  10,  10,  10,  10,  10, -10,
+            -10,   5,   0,   0,   0,   0,   5, -10,
+            -20, -10, -10, -10, -10, -10, -10, -20
+    };
+    private static final int[] ROOK_MG = {
+              0,   0,   0,   0,   0,   0,   0,   0,
+              5,  10,  10,  10,  10,  10,  10,   5,
+             -5,   0,   0,   0,   0,   0,   0,  -5,
+             -5,   0,   0,   0,   0,   0,   0,  -5,
+             -5,   0,   0,   0,   0,   0,   0,  -5,
+             -5,   0,   0,   0,   0,   0,   0,  -5,
+             -5,   0,   0,   0,   0,   0,   0,  -5,
+              0,   0,   0,   5,   5,   0,   0,   0
+    };
+    private static final int[] ROOK_EG = new int[64]; // в эндшпиле ладье важна активность, а не клетка
+    private static final int[] QUEEN = {
+            -20, -10, -10,  -5,  -5, -10, -10, -20,
+            -10,   0,   0,   0,   0,   0,   0, -10,
+            -10,   0,   5,   5,   5,   5,   0, -10,
+             -5,   0,   5,   5,   5,   5,   0,  -5,
+              0,   0,   5,   5,   5,   5,   0,  -5,
+            -10,   5,   5,   5,   5,   5,   0, -10,
+            -10,   0,   5,   0,   0,   0,   0, -10,
+            -20, -10, -10,  -5,  -5, -10, -10, -20
+    };
+    private static final int[] KING_MG = {
+            -30, -40, -40, -50, -50, -40, -40, -30,
+            -30, -40, -40, -50, -50, -40, -40, -30,
+            -30, -40, -40, -50, -50, -40, -40, -30,
+            -30, -40, -40, -50, -50, -40, -40, -30,
+            -20, -30, -30, -40, -40, -30, -30, -20,
+            -10, -20, -20, -20, -20, -20, -20, -10,
+             20,  20,   0,   0,   0,   0,  20,  20,
+             20,  30,  10,   0,   0,  10,  30,  20
+    };
+    private static final int[] KING_EG = {
+            -50, -40, -30, -20, -20, -30, -40, -50,
+            -30, -20, -10,   0,   0, -10, -20, -30,
+            -30, -10,  20,  30,  30,  20, -10, -30,
+            -30, -10,  30,  40,  40,  30, -10, -30,
+            -30, -10,  30,  40,  40,  30, -10, -30,
+            -30, -10,  20,  30,  30,  20, -10, -30,
+            -30, -30,   0,   0,   0,   0, -30, -30,
+            -50, -30, -30, -30, -30, -30, -30, -50
+    };
+
+    private static final int[][] MG_TABLES = {PAWN_MG, KNIGHT, BISHOP, ROOK_MG, QUEEN, KING_MG};
+    private static final int[][] EG_TABLES = {PAWN_EG, KNIGHT, BISHOP, ROOK_EG, QUEEN, KING_EG};
+
+    private static final int[] MG = new int[12 * 64]; // [color * 6 + type][square], материал + клетка
+    private static final int[] EG = new int[12 * 64];
+
+    static {
+        for (int type = 0; type < 6; type++) {
+            for (int square = 0; square < 64; square++) {
+                // для черных доска отражается по горизонтали: row -> 7 - row
+                MG[(type << 6) | square] = MG_VALUES[type] + MG_TABLES[type][square];
+                EG[(type << 6) | square] = EG_VALUES[type] + EG_TABLES[type][square];
+                MG[((6 + type) << 6) | square] = -(MG_VALUES[type] + MG_TABLES[type][square ^ 56]);
+                EG[((6 + type) << 6) | square] = -(EG_VALUES[type] + EG_TABLES[type][square ^ 56]);
+            }
+        }
+    }
+
+    private PieceSquareTables() {}
+
+    public static int midgame(int pieceIndex, int square) {
+        return MG[(pieceIndex << 6) | square];
+    }
+
+    public static int endgame(int pieceIndex, int square) {
+        return EG[(pieceIndex << 6) | square];
+    }
+
+    // вклад фигуры в стадию игры: полный набор фигур дает MAX_PHASE, голые короли - 0
+    public static int phase(int pieceIndex) {
+        return PHASE[pieceIndex % 6];
+    }
+
+    public static int midgameValue(int type) {
+        return MG_VALUES[type];
+    }
+
+    public static int endgameValue(int type) {
+        return EG_VALUES[type];
+    }
+}
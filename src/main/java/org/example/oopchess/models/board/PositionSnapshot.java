@@ -0,0 +1,144 @@
+package org.example.oopchess.models.board;
+
+import org.example.oopchess.enums.PieceColor;
+import org.example.oopchess.enums.PieceType;
+
+// Неизменяемая позиция в шести long: цвет и три битовые плоскости типа (type + 1, 0 - пусто),
+// хеш и слово состояния. Board строит снимок за константное время из своих битбордов, дальше его можно
+// отдавать любым потокам без блокировок и копий - живую доску (которую MoveValidator временно меняет
+// при проверке шаха) читает только поток партии.
+public final class PositionSnapshot {
+    // слово состояния
+    private static final int BLACK_TO_MOVE = 1;
+    private static final int CASTLING_SHIFT = 1;   // 4 бита, как Board.getCastlingRights
+    private static final int EN_PASSANT_SHIFT = 5; // 7 бит, клетка + 1
+    private static final int HALFMOVE_SHIFT = 12;  // 20 бит
+    private static final int FULLMOVE_SHIFT = 32;  // 32 бита, любой int
+    private static final int HALFMOVE_LIMIT = (1 << 20) - 1;
+
+    private final long white;
+    private final long type0;
+    private final long type1;
+    private final long type2;
+    private final long hash;
+    private final long state;
+
+    private PositionSnapshot(long white, long type0, long type1, long type2, long hash, long state) {
+        this.white = white;
+        this.type0 = type0;
+        this.type1 = type1;
+        this.type2 = type2;
+        this.hash = hash;
+        this.state = state;
+    }
+
+    // pieceBitboards - по индексу color * 6 + type, как в Board
+    static PositionSnapshot of(long[] pieceBitboards, long hash, PieceColor sideToMove, int castlingRights,
+                               int enPassantSquare, int halfmoveClock, int fullmoveNumber) {
+        long white = 0, type0 = 0, type1 = 0, type2 = 0;
+        for (int index = 0; index < pieceBitboards.length; index++) {
+            long pieces = pieceBitboards[index];
+            int code = index % 6 + 1;
+            if (index < 6) white |= pieces;
+            if ((code & 1) != 0) type0 |= pieces;
+            if ((code & 2) != 0) type1 |= pieces;
+            if ((code & 4) != 0) type2 |= pieces;
+        }
+        return new PositionSnapshot(white, type0, type1, type2, hash,
+                state(sideToMove, castlingRights, enPassantSquare, halfmoveClock, fullmoveNumber));
+    }
+
+    // счетчики не обрезаются: снимок обязан давать ту же позицию, что и доска, поэтому лишнее - исключение
+    static long state(PieceColor sideToMove, int castlingRights, int enPassantSquare, int halfmoveClock, int fullmoveNumber) {
+        if (halfmoveClock < 0 || halfmoveClock > HALFMOVE_LIMIT) {
+            throw new IllegalArgumentException("Halfmove clock out of range: " + halfmoveClock);
+        }
+        return (sideToMove == PieceColor.BLACK ? BLACK_TO_MOVE : 0)
+                | castlingRights << CASTLING_SHIFT
+                | (enPassantSquare + 1) << EN_PASSANT_SHIFT
+                | (long) halfmoveClock << HALFMOVE_SHIFT
+                | (long) fullmoveNumber << FULLMOVE_SHIFT;
+    }
+
+    // color * 6 + type или -1 для пустой клетки
+    public int pieceAt(int square) {
+        int code = (int) (type0 >>> square & 1 | (type1 >>> square & 1) << 1 | (type2 >>> square & 1) << 2);
+        if (code == 0) return -1;
+        return (white >>> square & 1) != 0 ? code - 1 : 6 + code - 1;
+    }
+
+    public long getOccupied() {
+        return type0 | type1 | type2;
+    }
+
+    public long getOccupancy(PieceColor color) {
+        return color == PieceColor.WHITE ? white : getOccupied() & ~white;
+    }
+
+    public long getBitboard(PieceColor color, PieceType type) {
+        int code = type.ordinal() + 1;
+        long pieces = ((code & 1) != 0 ? type0 : ~type0)
+                & ((code & 2) != 0 ? type1 : ~type1)
+                & ((code & 4) != 0 ? type2 : ~type2);
+        return pieces & getOccupancy(color);
+    }
+
+    public long getHash() {
+        return hash;
+    }
+
+    long getState() {
+        return state;
+    }
+
+    public PieceColor getSideToMove() {
+        return (state & BLACK_TO_MOVE) != 0 ? PieceColor.BLACK : PieceColor.WHITE;
+    }
+
+    public int getCastlingRights() {
+        return (int) (state >>> CASTLING_SHIFT & 0xF);
+    }
+
+    // -1 - взятие на проходе невозможно
+    public int getEnPassantSquare() {
+        return (int) (state >>> EN_PASSANT_SHIFT & 0x7F) - 1;
+    }
+
+    public int getHalfmoveClock() {
+        return (int) (state >>> HALFMOVE_SHIFT & HALFMOVE_LIMIT);
+    }
+
+    public int getFullmoveNumber() {
+        return (int) (state >>> FULLMOVE_SHIFT);
+    }
+
+    public String toFen() {
+        StringBuilder sb = new StringBuilder(90);
+        Fen.append(this, sb);
+        return sb.toString();
+    }
+
+    // новая изменяемая доска с этой позицией, например для анализа в другом потоке
+    public Board toBoard() {
+        return Board.fromFen(toFen());
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        PositionSnapshot other = (PositionSnapshot) o;
+        return hash == other.hash && state == other.state && white == other.white
+                && type0 == other.type0 && type1 == other.type1 && type2 == other.type2;
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(hash);
+    }
+
+    @Override
+    public String toString() {
+        return toFen();
+    }
+}
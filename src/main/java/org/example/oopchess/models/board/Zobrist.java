@@ -0,0 +1,55 @@
+package org.example.oopchess.models.board;
+
+// Случайные ключи для хеша позиции. Зерно фиксировано, чтобы хеши совпадали между запусками и машинами.
+public final class Zobrist {
+    private static final long[] PIECES = new long[12 * 64]; // [color * 6 + type][square]
+    private static final long[] CASTLING = new long[16];
+    private static final long[] EN_PASSANT = new long[8]; // по вертикали клетки взятия
+    private static final long SIDE;
+
+    static {
+        long seed = 0x9E3779B97F4A7C15L;
+        for (int i = 0; i < PIECES.length; i++) {
+            seed = next(seed);
+            PIECES[i] = mix(seed);
+        }
+        for (int i = 0; i < CASTLING.length; i++) {
+            seed = next(seed);
+            CASTLING[i] = i == 0 ? 0L : mix(seed);
+        }
+        for (int i = 0; i < EN_PASSANT.length; i++) {
+            seed = next(seed);
+            EN_PASSANT[i] = mix(seed);
+        }
+        SIDE = mix(next(seed));
+    }
+
+    private Zobrist() {}
+
+    public static long piece(int pieceIndex, int square) {
+        return PIECES[(pieceIndex << 6) | square];
+    }
+
+    public static long castling(int rights) {
+        return CASTLING[rights];
+    }
+
+    public static long enPassant(int square) {
+        return square < 0 ? 0L : EN_PASSANT[Bitboards.colOf(square)];
+    }
+
+    public static long side() {
+        return SIDE;
+    }
+
+    private static long next(long seed) {
+        return seed + 0x9E3779B97F4A7C15L;
+    }
+
+    // splitmix64
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
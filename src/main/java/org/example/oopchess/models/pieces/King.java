@@ -1,12 +1,14 @@
 package org.example.oopchess.models.pieces;
 
 import org.example.oopchess.enums.PieceColor;
+import org.example.oopchess.enums.PieceType;
+import org.example.oopchess.models.board.Bitboards;
 import org.example.oopchess.models.board.Board;
 import org.example.oopchess.models.board.Move;
 import org.example.oopchess.models.board.Position;
+import org.example.oopchess.rules.AttackTables;
 import org.example.oopchess.rules.MoveValidator;
 
-import java.util.ArrayList;
 import java.util.List;
 
 public class King extends Piece {
@@ -16,21 +18,8 @@ public class King extends Piece {
 
     @Override
     public List<Move> getPossibleMoves(Position current, Board board) {
-        List<Move> moves = new ArrayList<>();
-
-        for (int row = -1; row <= 1; row++) {
-            for (int col = -1; col <= 1; col++) {
-                if (row == 0 && col == 0) continue;
-
-                Position newPos = new Position(current.getRow() + row, current.getCol() + col);
-                if (board.isValidPosition(newPos)) {
-                    Piece target = board.getPiece(newPos);
-                    if (target == null || target.getColor() != color) {
-                        moves.add(new Move(current.getRow(), current.getCol(), newPos.getRow(), newPos.getCol()));
-                    }
-                }
-            }
-        }
+        int square = Bitboards.square(current.getRow(), current.getCol());
+        List<Move> moves = movesFromAttacks(current, board, AttackTables.kingAttacks(square));
 
         if (!hasMoved) {
             if (canCastle(current, board, true)) { // короткая рокировка
@@ -50,8 +39,8 @@ public class King extends Piece {
         int colDiff = Math.abs(from.getCol() - to.getCol());
 
         if (rowDiff <= 1 && colDiff <= 1) {
-            Piece target = board.getPiece(to);
-            return target == null || target.getColor() != color;
+            int square = Bitboards.square(from.getRow(), from.getCol());
+            return isAttackedTarget(to, board, AttackTables.kingAttacks(square));
         }
 
         if (!hasMoved && rowDiff == 0 && colDiff == 2) { // рокировка
@@ -66,21 +55,20 @@ public class King extends Piece {
         int rookCol = isKingSide ? 7 : 0;
         int step = isKingSide ? 1 : -1;
 
-        Piece rook = board.getPiece(new Position(kingPos.getRow(), rookCol));
+        Piece rook = board.getPiece(kingPos.getRow(), rookCol);
         if (rook == null || !(rook instanceof Rook) || rook.hasMoved()) {
             return false;
         }
 
-        for (int col = kingPos.getCol() + step; col != rookCol; col += step) {
-            if (board.getPiece(new Position(kingPos.getRow(), col)) != null) {
-                return false;
-            }
+        int kingSquare = Bitboards.square(kingPos.getRow(), kingPos.getCol());
+        int rookSquare = Bitboards.square(kingPos.getRow(), rookCol);
+        if ((AttackTables.between(kingSquare, rookSquare) & board.getOccupied()) != 0) {
+            return false;
         }
 
-        MoveValidator mv = new MoveValidator(board);
+        MoveValidator mv = board.getMoveValidator();
         for (int col = kingPos.getCol(); col != kingPos.getCol() + 2 * step + step; col += step) {
-            Position checkPos = new Position(kingPos.getRow(), col);
-            if (mv.isSquareAttacked(checkPos.getRow(), checkPos.getCol(), color)) { // король не под шахом
+            if (mv.isSquareAttacked(kingPos.getRow(), col, color)) { // король не под шахом
                 return false;
             }
         }
@@ -88,6 +76,11 @@ public class King extends Piece {
         return true;
     }
 
+    @Override
+    public PieceType getType() {
+        return PieceType.KING;
+    }
+
     @Override
     public char getSymbol() {
         return (color == PieceColor.WHITE) ? '♔' : '♚';
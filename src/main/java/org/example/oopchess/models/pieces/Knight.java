@@ -1,10 +1,12 @@
 package org.example.oopchess.models.pieces;
 
 import org.example.oopchess.enums.PieceColor;
+import org.example.oopchess.enums.PieceType;
+import org.example.oopchess.models.board.Bitboards;
 import org.example.oopchess.models.board.Board;
 import org.example.oopchess.models.board.Move;
 import org.example.oopchess.models.board.Position;
-import java.util.ArrayList;
+import org.example.oopchess.rules.AttackTables;
 import java.util.List;
 
 public class Knight extends Piece {
@@ -14,36 +16,19 @@ public class Knight extends Piece {
 
     @Override
     public List<Move> getPossibleMoves(Position current, Board board) {
-        List<Move> moves = new ArrayList<>();
-        int[][] knightMoves = {
-                {-2, -1}, {-2, 1}, {-1, -2}, {-1, 2},
-                {1, -2}, {1, 2}, {2, -1}, {2, 1}
-        };
-
-        for (int[] move : knightMoves) {
-            Position newPos = new Position(current.getRow() + move[0], current.getCol() + move[1]);
-            if (board.isValidPosition(newPos)) {
-                Piece target = board.getPiece(newPos);
-                if (target == null || target.getColor() != color) {
-                    moves.add(new Move(current.getRow(), current.getCol(), newPos.getRow(), newPos.getCol()));
-                }
-            }
-        }
-
-        return moves;
+        int square = Bitboards.square(current.getRow(), current.getCol());
+        return movesFromAttacks(current, board, AttackTables.knightAttacks(square));
     }
 
     @Override
     public boolean isValidMove(Position from, Position to, Board board) {
-        int rowDiff = Math.abs(from.getRow() - to.getRow());
-        int colDiff = Math.abs(from.getCol() - to.getCol());
-
-        if ((rowDiff == 2 && colDiff == 1) || (rowDiff == 1 && colDiff == 2)) {
-            Piece target = board.getPiece(to);
-            return target == null || target.getColor() != color;
-        }
+        int square = Bitboards.square(from.getRow(), from.getCol());
+        return isAttackedTarget(to, board, AttackTables.knightAttacks(square));
+    }
 
-        return false;
+    @Override
+    public PieceType getType() {
+        return PieceType.KNIGHT;
     }
 
     @Override
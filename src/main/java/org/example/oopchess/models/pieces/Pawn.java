@@ -1,6 +1,7 @@
 package org.example.oopchess.models.pieces;
 
 import org.example.oopchess.enums.PieceColor;
+import org.example.oopchess.enums.PieceType;
 import org.example.oopchess.models.board.Board;
 import org.example.oopchess.models.board.Move;
 import org.example.oopchess.models.board.Position;
@@ -80,16 +81,16 @@ public class Pawn extends Piece {
         int tr = to.getRow();
 
         if (fc == tc) {
-            if (tr == fr + direction && board.getPiece(new Position(tr, tc)) == null) return true;
+            if (tr == fr + direction && board.getPiece(tr, tc) == null) return true;
             if (fr == startRow && tr == fr + 2 * direction &&
-                    board.getPiece(new Position(tr, tc)) == null &&
-                    board.getPiece(new Position(fr + direction, fc)) == null)
+                    board.getPiece(tr, tc) == null &&
+                    board.getPiece(fr + direction, fc) == null)
                 return true;
         }
 
         // Взятие по диагонали
         if (Math.abs(fc - tc) == 1 && tr == fr + direction) {
-            Piece target = board.getPiece((new Position(tr, tc)));
+            Piece target = board.getPiece(tr, tc);
             if (target != null && target.getColor() != color) return true;
         }
         return isValidEnPassant(from, to, board);
@@ -116,6 +117,11 @@ public class Pawn extends Piece {
         return sidePiece instanceof Pawn && sidePiece.getColor() != color;
     }
 
+    @Override
+    public PieceType getType() {
+        return PieceType.PAWN;
+    }
+
     @Override
     public char getSymbol() {
         return (color == PieceColor.WHITE) ? '♙' : '♟';
@@ -1,10 +1,13 @@
 package org.example.oopchess.models.pieces;
 
 import org.example.oopchess.enums.PieceColor;
+import org.example.oopchess.enums.PieceType;
+import org.example.oopchess.models.board.Bitboards;
 import org.example.oopchess.models.board.Board;
 import org.example.oopchess.models.board.Move;
 import org.example.oopchess.models.board.Position;
 
+import java.util.ArrayList;
 import java.util.List;
 //TODO: создать отдельные классы для фигур с логикой ходов
 public abstract class Piece {
@@ -16,12 +19,43 @@ public abstract class Piece {
         this.hasMoved = false;
     }
 
+    public static Piece of(PieceType type, PieceColor color) {
+        switch (type) {
+            case PAWN: return new Pawn(color);
+            case KNIGHT: return new Knight(color);
+            case BISHOP: return new Bishop(color);
+            case ROOK: return new Rook(color);
+            case QUEEN: return new Queen(color);
+            default: return new King(color);
+        }
+    }
+
     public PieceColor getColor() { return color; }
     public boolean hasMoved() { return hasMoved; }
     public void setMoved(boolean hasMoved) { this.hasMoved = hasMoved; }
 
     public abstract List<Move> getPossibleMoves(Position current, Board board);
     public abstract boolean isValidMove(Position from, Position to, Board board);
+    public abstract PieceType getType();
     public abstract char getSymbol();
     public abstract String getPieceName();
+
+    // ходы на все клетки маски атак, кроме занятых своими фигурами
+    protected List<Move> movesFromAttacks(Position current, Board board, long attacks) {
+        long targets = attacks & ~board.getOccupancy(color);
+        List<Move> moves = new ArrayList<>(Bitboards.count(targets));
+        while (targets != 0) {
+            int to = Bitboards.lowestSquare(targets);
+            targets &= targets - 1;
+            moves.add(new Move(current.getRow(), current.getCol(), Bitboards.rowOf(to), Bitboards.colOf(to)));
+        }
+        return moves;
+    }
+
+    // ход возможен, если клетка to есть в маске атак и не занята своей фигурой
+    protected boolean isAttackedTarget(Position to, Board board, long attacks) {
+        if (!Bitboards.isValid(to.getRow(), to.getCol())) return false;
+        long target = Bitboards.bit(Bitboards.square(to.getRow(), to.getCol()));
+        return (attacks & target & ~board.getOccupancy(color)) != 0;
+    }
 }
@@ -0,0 +1,48 @@
+package org.example.oopchess.notation;
+
+public class ImportStats {
+    private final long games;
+    private final long moves;
+    private final long errors;
+    private final long millis;
+    private final String firstError;
+
+    public ImportStats(long games, long moves, long errors, long millis, String firstError) {
+        this.games = games;
+        this.moves = moves;
+        this.errors = errors;
+        this.millis = millis;
+        this.firstError = firstError;
+    }
+
+    public long getGames() {
+        return games;
+    }
+
+    public long getMoves() {
+        return moves;
+    }
+
+    public long getErrors() {
+        return errors;
+    }
+
+    public long getMillis() {
+        return millis;
+    }
+
+    // null, если ошибок не было
+    public String getFirstError() {
+        return firstError;
+    }
+
+    public long getGamesPerMinute() {
+        return millis == 0 ? 0 : games * 60_000 / millis;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("games %,d  moves %,d  errors %,d  time %,d ms  games/min %,d",
+                games, moves, errors, millis, getGamesPerMinute());
+    }
+}
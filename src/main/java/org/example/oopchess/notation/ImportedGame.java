@@ -0,0 +1,41 @@
+package org.example.oopchess.notation;
+
+import org.example.oopchess.enums.GameResult;
+
+import java.util.Map;
+
+// Партия после проверки ходов: ходы уже в виде PackedMove от начальной позиции
+public class ImportedGame {
+    private final Map<String, String> tags;
+    private final String startFen;
+    private final int[] moves;
+    private final GameResult result;
+
+    public ImportedGame(Map<String, String> tags, String startFen, int[] moves, GameResult result) {
+        this.tags = tags;
+        this.startFen = startFen;
+        this.moves = moves;
+        this.result = result;
+    }
+
+    public Map<String, String> getTags() {
+        return tags;
+    }
+
+    public String getTag(String name) {
+        return tags.get(name);
+    }
+
+    // пустая строка - обычная начальная позиция
+    public String getStartFen() {
+        return startFen;
+    }
+
+    public int[] getMoves() {
+        return moves;
+    }
+
+    public GameResult getResult() {
+        return result;
+    }
+}
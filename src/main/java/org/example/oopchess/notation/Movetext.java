@@ -0,0 +1,145 @@
+package org.example.oopchess.notation;
+
+import org.example.oopchess.enums.GameResult;
+import org.example.oopchess.models.board.Board;
+import org.example.oopchess.models.board.Fen;
+import org.example.oopchess.models.board.PackedMove;
+
+import java.util.Arrays;
+
+// Разбор текста ходов PGN с проверкой каждого хода на своей доске.
+// Пропускает номера ходов, комментарии {...} и ;..., варианты (...) любой вложенности и NAG ($n).
+// Экземпляр держит доску и буферы, поэтому у каждого рабочего потока свой.
+public class Movetext {
+    private final Board board = new Board();
+    private final San san = new San(board);
+    private int[] moves = new int[256];
+    private int moveCount;
+    private GameResult result = GameResult.UNFINISHED;
+
+    public ImportedGame replay(PgnGame game) {
+        String fen = game.getTag("FEN");
+        String startFen = fen != null ? fen : "";
+        parse(startFen, game.getMovetext());
+
+        // результат из текста ходов точнее тега, но если его там нет - берем тег
+        GameResult tagResult = GameResult.fromNotation(game.getTag("Result"));
+        return new ImportedGame(game.getTags(), startFen, Arrays.copyOf(moves, moveCount),
+                result != GameResult.UNFINISHED ? result : tagResult);
+    }
+
+    // IllegalArgumentException - ход нелегален или не распознан
+    public int parse(String startFen, CharSequence text) {
+        if (startFen.isEmpty()) {
+            board.initBoard();
+        } else {
+            Fen.load(board, startFen);
+        }
+        moveCount = 0;
+        result = GameResult.UNFINISHED;
+
+        int length = text.length();
+        int i = 0;
+        while (i < length) {
+            char c = text.charAt(i);
+            if (Character.isWhitespace(c)) {
+                i++;
+            } else if (c == '{') {
+                i = skipPast(text, i, '}');
+            } else if (c == ';') {
+                i = skipPast(text, i, '\n');
+            } else if (c == '(') {
+                i = skipVariation(text, i);
+            } else if (c == '$') {
+                i++;
+                while (i < length && Character.isDigit(text.charAt(i))) i++;
+            } else {
+                int end = i;
+                while (end < length && !isDelimiter(text.charAt(end))) end++;
+                token(text, i, end);
+                i = end;
+            }
+        }
+        return moveCount;
+    }
+
+    private void token(CharSequence text, int start, int end) {
+        GameResult tokenResult = resultOf(text, start, end);
+        if (tokenResult != null) {
+            result = tokenResult;
+            return;
+        }
+
+        // номер хода: "12." или "12..." - целиком или слитно с ходом "12.e4"
+        int i = start;
+        while (i < end && Character.isDigit(text.charAt(i))) i++;
+        if (i < end && text.charAt(i) == '.') {
+            while (i < end && text.charAt(i) == '.') i++;
+            start = i;
+        }
+        if (start == end) return;
+
+        int move = san.parse(text, start, end);
+        if (move == PackedMove.NONE) {
+            throw new IllegalArgumentException("Illegal move '" + text.subSequence(start, end) + "' at ply " + (moveCount + 1));
+        }
+        board.makeMove(move);
+        if (moveCount == moves.length) {
+            moves = Arrays.copyOf(moves, moveCount * 2);
+        }
+        moves[moveCount++] = move;
+    }
+
+    private static GameResult resultOf(CharSequence text, int start, int end) {
+        int length = end - start;
+        if (length == 1 && text.charAt(start) == '*') return GameResult.UNFINISHED;
+        if (length == 3 && text.charAt(start + 1) == '-') {
+            if (text.charAt(start) == '1' && text.charAt(start + 2) == '0') return GameResult.WHITE_WINS;
+            if (text.charAt(start) == '0' && text.charAt(start + 2) == '1') return GameResult.BLACK_WINS;
+        }
+        if (length == 7 && text.charAt(start) == '1' && text.charAt(start + 1) == '/' && text.charAt(start + 3) == '-') {
+            return GameResult.DRAW;
+        }
+        return null;
+    }
+
+    private static int skipPast(CharSequence text, int i, char terminator) {
+        while (i < text.length() && text.charAt(i) != terminator) i++;
+        return i + 1;
+    }
+
+    private static int skipVariation(CharSequence text, int i) {
+        int depth = 0;
+        while (i < text.length()) {
+            char c = text.charAt(i);
+            if (c == '{') {
+                i = skipPast(text, i, '}');
+                continue;
+            }
+            if (c == '(') depth++;
+            if (c == ')' && --depth == 0) return i + 1;
+            i++;
+        }
+        return i;
+    }
+
+    private static boolean isDelimiter(char c) {
+        return Character.isWhitespace(c) || c == '{' || c == '(' || c == ')' || c == ';' || c == '$';
+    }
+
+    public Board getBoard() {
+        return board;
+    }
+
+    public int getMoveCount() {
+        return moveCount;
+    }
+
+    public int getMove(int index) {
+        return moves[index];
+    }
+
+    public GameResult getResult() {
+        return result;
+    }
+}
@@ -0,0 +1,27 @@
+package org.example.oopchess.notation;
+
+import java.util.Map;
+
+// Партия из PGN в сыром виде: теги и текст ходов без разбора.
+// Разбор ходов - самая дорогая часть, поэтому он делается уже в рабочих потоках конвейера.
+public class PgnGame {
+    private final Map<String, String> tags;
+    private final String movetext;
+
+    public PgnGame(Map<String, String> tags, String movetext) {
+        this.tags = tags;
+        this.movetext = movetext;
+    }
+
+    public Map<String, String> getTags() {
+        return tags;
+    }
+
+    public String getTag(String name) {
+        return tags.get(name);
+    }
+
+    public String getMovetext() {
+        return movetext;
+    }
+}
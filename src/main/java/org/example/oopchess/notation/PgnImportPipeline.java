@@ -0,0 +1,129 @@
+package org.example.oopchess.notation;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+// Импорт PGN в несколько потоков: вызывающий поток режет файл на партии и складывает их пачками
+// в ограниченную очередь, пул рабочих разбирает и проверяет ходы (SAN против генератора).
+// Полная очередь блокирует чтение - так быстрый диск не переполнит память, пока рабочие не успевают.
+// Порядок партий на выходе не сохраняется; sink вызывается из рабочих потоков и должен быть потокобезопасным.
+// Исключение из sink (например, UncheckedIOException записи) или Error рабочего останавливает импорт
+// и пробрасывается из run().
+public class PgnImportPipeline {
+    private static final List<PgnGame> END = new ArrayList<>(); // маркер конца для рабочих, сравнивается по ссылке
+
+    private final int workers;
+    private final int queueCapacity;
+    private final int batchSize;
+
+    public PgnImportPipeline(int workers, int queueCapacity, int batchSize) {
+        if (workers < 1 || queueCapacity < 1 || batchSize < 1) {
+            throw new IllegalArgumentException("workers, queueCapacity and batchSize must be positive");
+        }
+        this.workers = workers;
+        this.queueCapacity = queueCapacity;
+        this.batchSize = batchSize;
+    }
+
+    public PgnImportPipeline() {
+        this(Math.max(1, Runtime.getRuntime().availableProcessors() - 1), 64, 256);
+    }
+
+    public ImportStats run(PgnReader reader, Consumer<ImportedGame> sink) throws IOException, InterruptedException {
+        BlockingQueue<List<PgnGame>> queue = new ArrayBlockingQueue<>(queueCapacity);
+        AtomicLong games = new AtomicLong();
+        AtomicLong moves = new AtomicLong();
+        AtomicLong errors = new AtomicLong();
+        AtomicReference<String> firstError = new AtomicReference<>();
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        long start = System.nanoTime();
+
+        ExecutorService pool = Executors.newFixedThreadPool(workers, runnable -> {
+            Thread thread = new Thread(runnable, "pgn-worker");
+            thread.setDaemon(true);
+            return thread;
+        });
+        List<Future<?>> futures = new ArrayList<>(workers);
+        for (int i = 0; i < workers; i++) {
+            futures.add(pool.submit(() -> {
+                Movetext movetext = new Movetext();
+                while (true) {
+                    List<PgnGame> batch = queue.take();
+                    if (batch == END) return null;
+                    try {
+                        for (PgnGame game : batch) {
+                            // после сбоя пачки только выбираются из очереди, чтобы чтение и END не встали на полной очереди
+                            if (failure.get() != null) break;
+                            ImportedGame imported;
+                            try {
+                                imported = movetext.replay(game);
+                            } catch (RuntimeException e) {
+                                // битая партия не останавливает импорт
+                                errors.incrementAndGet();
+                                firstError.compareAndSet(null, describe(game, e));
+                                continue;
+                            }
+                            sink.accept(imported);
+                            games.incrementAndGet();
+                            moves.addAndGet(imported.getMoves().length);
+                        }
+                    } catch (Throwable e) {
+                        // ошибка записи или Error разбора (OOM, переполнение стека на вложенных вариантах) - не ошибка
+                        // партии: импорт прекращается, исключение уходит из run(), а поток продолжает выбирать пачки
+                        failure.compareAndSet(null, e);
+                    }
+                }
+            }));
+        }
+
+        try {
+            List<PgnGame> batch = new ArrayList<>(batchSize);
+            PgnGame game;
+            while (failure.get() == null && (game = reader.next()) != null) {
+                batch.add(game);
+                if (batch.size() == batchSize) {
+                    queue.put(batch);
+                    batch = new ArrayList<>(batchSize);
+                }
+            }
+            if (!batch.isEmpty()) queue.put(batch);
+        } finally {
+            for (int i = 0; i < workers; i++) {
+                queue.put(END);
+            }
+            pool.shutdown();
+        }
+
+        for (Future<?> future : futures) {
+            try {
+                future.get();
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("PGN worker failed", e.getCause());
+            }
+        }
+        Throwable failed = failure.get();
+        if (failed instanceof UncheckedIOException) {
+            throw ((UncheckedIOException) failed).getCause();
+        }
+        if (failed instanceof RuntimeException) throw (RuntimeException) failed;
+        if (failed instanceof Error) throw (Error) failed;
+        if (failed != null) throw new IllegalStateException("PGN import failed", failed);
+        long millis = (System.nanoTime() - start) / 1_000_000;
+        return new ImportStats(games.get(), moves.get(), errors.get(), millis, firstError.get());
+    }
+
+    private static String describe(PgnGame game, RuntimeException e) {
+        return game.getTag("White") + " - " + game.getTag("Black") + ": " + e.getMessage();
+    }
+}
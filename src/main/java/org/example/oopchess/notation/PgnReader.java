@@ -0,0 +1,112 @@
+package org.example.oopchess.notation;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// Потоковое чтение PGN по партиям: файл любого размера читается построчно, в памяти - одна партия.
+// Здесь только делим поток на теги и текст ходов; сами ходы разбирает Movetext.
+public class PgnReader implements Closeable {
+    private final BufferedReader reader;
+    private String pending; // первая строка следующей партии, прочитанная заранее
+
+    public PgnReader(Reader reader) {
+        this.reader = reader instanceof BufferedReader ? (BufferedReader) reader : new BufferedReader(reader, 1 << 16);
+    }
+
+    // некорректные байты заменяются, а не обрывают импорт: в больших дампах встречается что угодно
+    public PgnReader(Path path) throws IOException {
+        this(new InputStreamReader(Files.newInputStream(path), StandardCharsets.UTF_8));
+    }
+
+    // null - партии закончились
+    public PgnGame next() throws IOException {
+        Map<String, String> tags = new LinkedHashMap<>();
+        StringBuilder movetext = new StringBuilder(512);
+        int braceDepth = 0;
+
+        String line;
+        while ((line = nextLine()) != null) {
+            if (braceDepth == 0) {
+                line = line.trim();
+                if (line.isEmpty()) {
+                    if (movetext.length() > 0) break;
+                    continue;
+                }
+                if (line.charAt(0) == '%') continue; // строка-экранирование по стандарту PGN
+                if (line.charAt(0) == '[') {
+                    if (movetext.length() > 0) {
+                        pending = line; // теги без пустой строки перед ними - уже следующая партия
+                        break;
+                    }
+                    parseTag(line, tags);
+                    continue;
+                }
+            }
+            movetext.append(line).append('\n');
+            braceDepth = updateBraceDepth(line, braceDepth);
+        }
+
+        if (tags.isEmpty() && movetext.length() == 0) return null;
+        return new PgnGame(tags, movetext.toString());
+    }
+
+    private String nextLine() throws IOException {
+        if (pending != null) {
+            String line = pending;
+            pending = null;
+            return line;
+        }
+        return reader.readLine();
+    }
+
+    // комментарий в фигурных скобках может тянуться на несколько строк, и внутри него '[' не начинает теги
+    private static int updateBraceDepth(String line, int depth) {
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (c == '{') {
+                depth++;
+            } else if (c == '}' && depth > 0) {
+                depth--;
+            } else if (c == ';' && depth == 0) {
+                break; // комментарий до конца строки
+            }
+        }
+        return depth;
+    }
+
+    // [Name "Value"], в значении допустимы \" и \\
+    private static void parseTag(String line, Map<String, String> tags) {
+        int i = 1;
+        int nameStart = i;
+        while (i < line.length() && !Character.isWhitespace(line.charAt(i)) && line.charAt(i) != '"') i++;
+        String name = line.substring(nameStart, i);
+        int quote = line.indexOf('"', i);
+        if (name.isEmpty() || quote < 0) return;
+
+        StringBuilder value = new StringBuilder();
+        for (i = quote + 1; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (c == '\\' && i + 1 < line.length()) {
+                value.append(line.charAt(++i));
+            } else if (c == '"') {
+                break;
+            } else {
+                value.append(c);
+            }
+        }
+        tags.put(name, value.toString());
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+}
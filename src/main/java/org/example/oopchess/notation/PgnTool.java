@@ -0,0 +1,121 @@
+package org.example.oopchess.notation;
+
+import org.example.oopchess.book.BookBuilder;
+import org.example.oopchess.book.PolyglotKey;
+import org.example.oopchess.models.board.Board;
+import org.example.oopchess.models.board.Fen;
+import org.example.oopchess.storage.GameRecordReader;
+import org.example.oopchess.storage.GameRecordWriter;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// Конвертация между PGN и двоичным архивом партий:
+//   import <in.pgn> <out.ocgr> [потоков]
+//   export <in.ocgr> <out.pgn>
+//   book <in.pgn> <out.bin> [полуходов] - дебютная книга для OpeningBook.open
+public class PgnTool {
+    private static final DateTimeFormatter PGN_DATE = DateTimeFormatter.ofPattern("yyyy.MM.dd").withZone(ZoneOffset.UTC);
+
+    public static void main(String[] args) throws Exception {
+        if (args.length >= 3 && args[0].equals("import")) {
+            int threads = args.length > 3 ? Integer.parseInt(args[3]) : Math.max(1, Runtime.getRuntime().availableProcessors() - 1);
+            importPgn(Paths.get(args[1]), Paths.get(args[2]), threads);
+        } else if (args.length >= 3 && args[0].equals("export")) {
+            exportPgn(Paths.get(args[1]), Paths.get(args[2]));
+        } else if (args.length >= 3 && args[0].equals("book")) {
+            buildBook(Paths.get(args[1]), Paths.get(args[2]), args.length > 3 ? Integer.parseInt(args[3]) : 20);
+        } else {
+            System.err.println("Usage: PgnTool import <in.pgn> <out.ocgr> [threads] | export <in.ocgr> <out.pgn>"
+                    + " | book <in.pgn> <out.bin> [plies]");
+            System.exit(2);
+        }
+    }
+
+    public static ImportStats importPgn(Path pgn, Path archive, int threads) throws IOException, InterruptedException {
+        ImportStats stats;
+        try (PgnReader reader = new PgnReader(pgn); GameRecordWriter writer = new GameRecordWriter(archive)) {
+            PgnImportPipeline pipeline = new PgnImportPipeline(threads, 4 * threads, 256);
+            stats = pipeline.run(reader, game -> {
+                synchronized (writer) {
+                    try {
+                        writer.writeGame(nonNull(game.getTag("White")), nonNull(game.getTag("Black")), game.getStartFen(),
+                                0, game.getResult(), game.getMoves(), game.getMoves().length);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                }
+            });
+        }
+        System.out.println(stats);
+        if (stats.getFirstError() != null) {
+            System.out.println("first error: " + stats.getFirstError());
+        }
+        return stats;
+    }
+
+    public static void exportPgn(Path archive, Path pgn) throws IOException {
+        long games = 0;
+        try (GameRecordReader reader = new GameRecordReader(archive);
+             PgnWriter writer = new PgnWriter(Files.newBufferedWriter(pgn, StandardCharsets.UTF_8))) {
+            int[] moves = new int[256];
+            while (reader.next()) {
+                Map<String, String> tags = new LinkedHashMap<>();
+                tags.put("White", reader.getWhite());
+                tags.put("Black", reader.getBlack());
+                if (reader.getTimestamp() > 0) {
+                    tags.put("Date", PGN_DATE.format(Instant.ofEpochSecond(reader.getTimestamp())));
+                }
+                if (moves.length < reader.getMoveCount()) {
+                    moves = new int[reader.getMoveCount()];
+                }
+                for (int i = 0; i < reader.getMoveCount(); i++) {
+                    moves[i] = reader.getMove(i);
+                }
+                writer.write(tags, reader.getStartFen(), moves, reader.getMoveCount(), reader.getResult());
+                games++;
+            }
+        }
+        System.out.printf("exported %,d games%n", games);
+    }
+
+    public static void buildBook(Path pgn, Path book, int plies) throws IOException {
+        BookBuilder builder = new BookBuilder(PolyglotKey.STANDARD, plies);
+        Movetext movetext = new Movetext();
+        Board board = new Board();
+        long games = 0;
+        long errors = 0;
+        try (PgnReader reader = new PgnReader(pgn)) {
+            PgnGame game;
+            while ((game = reader.next()) != null) {
+                try {
+                    ImportedGame imported = movetext.replay(game);
+                    if (imported.getStartFen().isEmpty()) {
+                        board.initBoard();
+                    } else {
+                        Fen.load(board, imported.getStartFen());
+                    }
+                    builder.addGame(board, imported.getMoves(), imported.getMoves().length, imported.getResult());
+                    games++;
+                } catch (IllegalArgumentException e) {
+                    errors++;
+                }
+            }
+        }
+        long entries = builder.write(book);
+        System.out.printf("book: %,d games, %,d skipped, %,d entries%n", games, errors, entries);
+    }
+
+    private static String nonNull(String value) {
+        return value != null ? value : "";
+    }
+}
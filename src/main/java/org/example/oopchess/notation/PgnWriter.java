@@ -0,0 +1,101 @@
+package org.example.oopchess.notation;
+
+import org.example.oopchess.enums.GameResult;
+import org.example.oopchess.enums.PieceColor;
+import org.example.oopchess.models.board.Board;
+import org.example.oopchess.models.board.Fen;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Map;
+
+// Запись партий в PGN: обязательные семь тегов, затем остальные, затем ходы в SAN с переносом строк
+public class PgnWriter implements Closeable {
+    private static final String[] SEVEN_TAG_ROSTER = {"Event", "Site", "Date", "Round", "White", "Black", "Result"};
+    private static final int LINE_WIDTH = 79;
+
+    private final Writer out;
+    private final Board board = new Board();
+    private final San san = new San(board);
+    private final StringBuilder line = new StringBuilder(LINE_WIDTH + 16);
+    private final StringBuilder token = new StringBuilder(16);
+
+    public PgnWriter(Writer out) {
+        this.out = out instanceof BufferedWriter ? out : new BufferedWriter(out, 1 << 16);
+    }
+
+    // startFen - пустая строка для обычной начальной позиции
+    public void write(Map<String, String> tags, String startFen, int[] moves, int count, GameResult result) throws IOException {
+        for (String name : SEVEN_TAG_ROSTER) {
+            String value = name.equals("Result") ? result.getNotation() : tags.get(name);
+            writeTag(name, value != null ? value : name.equals("Date") ? "????.??.??" : "?");
+        }
+        for (Map.Entry<String, String> tag : tags.entrySet()) {
+            if (isRosterTag(tag.getKey()) || tag.getKey().equals("SetUp") || tag.getKey().equals("FEN")) continue;
+            writeTag(tag.getKey(), tag.getValue());
+        }
+        if (startFen.isEmpty()) {
+            board.initBoard();
+        } else {
+            writeTag("SetUp", "1");
+            writeTag("FEN", startFen);
+            Fen.load(board, startFen);
+        }
+        out.write('\n');
+
+        line.setLength(0);
+        int moveNumber = 1;
+        for (int i = 0; i < count; i++) {
+            token.setLength(0);
+            boolean white = board.getSideToMove() == PieceColor.WHITE;
+            if (white || i == 0) {
+                token.append(moveNumber).append(white ? ". " : "... ");
+            }
+            san.append(token, moves[i]);
+            appendToken();
+            board.makeMove(moves[i]);
+            if (!white) moveNumber++;
+        }
+        token.setLength(0);
+        token.append(result.getNotation());
+        appendToken();
+        out.write(line.toString());
+        out.write("\n\n");
+    }
+
+    private void appendToken() throws IOException {
+        if (line.length() > 0 && line.length() + 1 + token.length() > LINE_WIDTH) {
+            out.write(line.toString());
+            out.write('\n');
+            line.setLength(0);
+        }
+        if (line.length() > 0) line.append(' ');
+        line.append(token);
+    }
+
+    private void writeTag(String name, String value) throws IOException {
+        out.write('[');
+        out.write(name);
+        out.write(" \"");
+        out.write(value.replace("\\", "\\\\").replace("\"", "\\\""));
+        out.write("\"]\n");
+    }
+
+    private static boolean isRosterTag(String name) {
+        for (String roster : SEVEN_TAG_ROSTER) {
+            if (roster.equals(name)) return true;
+        }
+        return false;
+    }
+
+    public void flush() throws IOException {
+        out.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        out.close();
+    }
+}
@@ -0,0 +1,179 @@
+package org.example.oopchess.notation;
+
+import org.example.oopchess.enums.PieceType;
+import org.example.oopchess.models.board.Bitboards;
+import org.example.oopchess.models.board.Board;
+import org.example.oopchess.models.board.PackedMove;
+import org.example.oopchess.rules.MoveGenerator;
+
+// Стандартная алгебраическая нотация (SAN) для позиции на доске: e4, Nbd7, exd5, O-O, e8=Q+.
+// Разбор и запись сверяются со списком легальных ходов генератора. Держит свои буферы,
+// поэтому экземпляр привязан к одной доске и одному потоку.
+public class San {
+    private static final String PIECE_LETTERS = "PNBRQK"; // по PieceType.ordinal()
+    private static final PieceType[] TYPES = PieceType.values();
+
+    private final Board board;
+    private final MoveGenerator generator;
+    private final int[] moves = new int[MoveGenerator.MAX_MOVES];
+    private final int[] replies = new int[MoveGenerator.MAX_MOVES];
+
+    public San(Board board) {
+        this.board = board;
+        this.generator = board.getMoveValidator().getMoveGenerator();
+    }
+
+    public String toSan(int move) {
+        StringBuilder sb = new StringBuilder(8);
+        append(sb, move);
+        return sb.toString();
+    }
+
+    // ход должен быть легальным в текущей позиции доски
+    public void append(StringBuilder sb, int move) {
+        int from = PackedMove.from(move);
+        int to = PackedMove.to(move);
+        PieceType type = board.getPiece(from).getType();
+
+        if (PackedMove.isCastling(move)) {
+            sb.append(to > from ? "O-O" : "O-O-O");
+        } else if (type == PieceType.PAWN) {
+            if (PackedMove.isCapture(move)) {
+                sb.append((char) ('a' + Bitboards.colOf(from))).append('x');
+            }
+            PackedMove.appendSquare(sb, to);
+            PieceType promotion = PackedMove.promotionType(move);
+            if (promotion != null) {
+                sb.append('=').append(PIECE_LETTERS.charAt(promotion.ordinal()));
+            }
+        } else {
+            sb.append(PIECE_LETTERS.charAt(type.ordinal()));
+            appendDisambiguation(sb, move, type);
+            if (PackedMove.isCapture(move)) sb.append('x');
+            PackedMove.appendSquare(sb, to);
+        }
+
+        board.makeMove(move);
+        if (board.getMoveValidator().isCheck(board.getSideToMove())) {
+            sb.append(generator.hasLegalMoves(board.getSideToMove(), replies) ? '+' : '#');
+        }
+        board.undoMove();
+    }
+
+    // вертикаль, если она однозначна, иначе горизонталь, иначе обе
+    private void appendDisambiguation(StringBuilder sb, int move, PieceType type) {
+        int from = PackedMove.from(move);
+        int to = PackedMove.to(move);
+        int count = generator.generateLegalMoves(moves, 0);
+        boolean ambiguous = false;
+        boolean sameCol = false;
+        boolean sameRow = false;
+        for (int i = 0; i < count; i++) {
+            int other = moves[i];
+            int otherFrom = PackedMove.from(other);
+            if (otherFrom == from || PackedMove.to(other) != to || board.getPiece(otherFrom).getType() != type) continue;
+            ambiguous = true;
+            if (Bitboards.colOf(otherFrom) == Bitboards.colOf(from)) sameCol = true;
+            if (Bitboards.rowOf(otherFrom) == Bitboards.rowOf(from)) sameRow = true;
+        }
+        if (!ambiguous) return;
+        if (!sameCol) {
+            sb.append((char) ('a' + Bitboards.colOf(from)));
+        } else if (!sameRow) {
+            sb.append((char) ('8' - Bitboards.rowOf(from)));
+        } else {
+            PackedMove.appendSquare(sb, from);
+        }
+    }
+
+    public int parse(CharSequence san) {
+        return parse(san, 0, san.length());
+    }
+
+    // ход из san[start, end) или PackedMove.NONE, если он нелегален, неоднозначен или записан с ошибкой
+    public int parse(CharSequence san, int start, int end) {
+        while (end > start && isSuffix(san.charAt(end - 1))) end--;
+        if (end - start < 2) return PackedMove.NONE;
+
+        if (san.charAt(start) == 'O' || san.charAt(start) == '0') {
+            return parseCastling(san, start, end);
+        }
+
+        PieceType promotion = null;
+        char last = san.charAt(end - 1);
+        if (isPieceLetter(last) && last != 'K') {
+            promotion = TYPES[PIECE_LETTERS.indexOf(last)];
+            end--;
+            if (end > start && san.charAt(end - 1) == '=') end--;
+        }
+        if (end - start < 2) return PackedMove.NONE;
+
+        int toCol = san.charAt(end - 2) - 'a';
+        int toRow = '8' - san.charAt(end - 1);
+        if (!Bitboards.isValid(toRow, toCol)) return PackedMove.NONE;
+        int to = Bitboards.square(toRow, toCol);
+        end -= 2;
+
+        PieceType type = PieceType.PAWN;
+        if (start < end && isPieceLetter(san.charAt(start))) {
+            type = TYPES[PIECE_LETTERS.indexOf(san.charAt(start))];
+            start++;
+        }
+
+        // остаток - уточнение откуда и 'x'
+        int fromCol = -1;
+        int fromRow = -1;
+        for (int i = start; i < end; i++) {
+            char c = san.charAt(i);
+            if (c >= 'a' && c <= 'h') {
+                fromCol = c - 'a';
+            } else if (c >= '1' && c <= '8') {
+                fromRow = '8' - c;
+            } else if (c != 'x' && c != ':' && c != '-') {
+                return PackedMove.NONE;
+            }
+        }
+
+        int count = generator.generateLegalMoves(moves, 0);
+        int found = PackedMove.NONE;
+        for (int i = 0; i < count; i++) {
+            int move = moves[i];
+            int from = PackedMove.from(move);
+            if (PackedMove.to(move) != to || board.getPiece(from).getType() != type) continue;
+            if (fromCol >= 0 && Bitboards.colOf(from) != fromCol) continue;
+            if (fromRow >= 0 && Bitboards.rowOf(from) != fromRow) continue;
+            if (PackedMove.promotionType(move) != promotion) continue;
+            if (PackedMove.isCastling(move)) continue; // рокировка записывается только как O-O
+            if (found != PackedMove.NONE) return PackedMove.NONE; // неоднозначно
+            found = move;
+        }
+        return found;
+    }
+
+    private int parseCastling(CharSequence san, int start, int end) {
+        int zeros = 0;
+        for (int i = start; i < end; i++) {
+            char c = san.charAt(i);
+            if (c == 'O' || c == '0') {
+                zeros++;
+            } else if (c != '-') {
+                return PackedMove.NONE;
+            }
+        }
+        int flags = zeros == 2 ? PackedMove.KING_CASTLE : zeros == 3 ? PackedMove.QUEEN_CASTLE : -1;
+        int count = generator.generateLegalMoves(moves, 0);
+        for (int i = 0; i < count; i++) {
+            if (PackedMove.flags(moves[i]) == flags) return moves[i];
+        }
+        return PackedMove.NONE;
+    }
+
+    private static boolean isPieceLetter(char c) {
+        return c == 'N' || c == 'B' || c == 'R' || c == 'Q' || c == 'K';
+    }
+
+    // шах, мат и оценки хода (!, ?) на разбор не влияют
+    private static boolean isSuffix(char c) {
+        return c == '+' || c == '#' || c == '!' || c == '?';
+    }
+}
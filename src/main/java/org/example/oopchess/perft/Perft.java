@@ -0,0 +1,66 @@
+package org.example.oopchess.perft;
+
+import org.example.oopchess.models.board.Board;
+import org.example.oopchess.models.board.PackedMove;
+import org.example.oopchess.rules.MoveGenerator;
+
+import java.io.PrintStream;
+
+// Подсчет листьев дерева ходов через Board.makeMove/undoMove - эталон корректности генератора ходов.
+public class Perft {
+    private final Board board;
+    private final MoveGenerator generator;
+    private int[][] buffers = new int[0][];
+
+    public Perft(Board board) {
+        this.board = board;
+        this.generator = board.getMoveValidator().getMoveGenerator();
+    }
+
+    public long perft(int depth) {
+        if (depth <= 0) return 1;
+        ensureBuffers(depth);
+        return count(depth);
+    }
+
+    // число узлов отдельно под каждым ходом из корня, удобно для поиска расхождений с другим движком
+    public long divide(int depth, PrintStream out) {
+        if (depth <= 0) return 1;
+        ensureBuffers(depth);
+
+        int[] moves = buffers[depth];
+        int size = generator.generateLegalMoves(moves, 0);
+        long total = 0;
+        for (int i = 0; i < size; i++) {
+            int move = moves[i];
+            board.makeMove(move);
+            long nodes = depth == 1 ? 1 : count(depth - 1);
+            board.undoMove();
+            out.println(PackedMove.toString(move) + ": " + nodes);
+            total += nodes;
+        }
+        out.println();
+        out.println("Moves: " + size);
+        out.println("Nodes: " + total);
+        return total;
+    }
+
+    private long count(int depth) {
+        int[] moves = buffers[depth];
+        int size = generator.generateLegalMoves(moves, 0);
+        if (depth == 1) return size; // на последнем уровне ходы не делаем, достаточно их количества
+
+        long nodes = 0;
+        for (int i = 0; i < size; i++) {
+            board.makeMove(moves[i]);
+            nodes += count(depth - 1);
+            board.undoMove();
+        }
+        return nodes;
+    }
+
+    private void ensureBuffers(int depth) {
+        if (buffers.length > depth) return;
+        buffers = new int[depth + 1][MoveGenerator.MAX_MOVES];
+    }
+}
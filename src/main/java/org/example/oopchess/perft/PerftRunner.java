@@ -0,0 +1,47 @@
+package org.example.oopchess.perft;
+
+import org.example.oopchess.models.board.Board;
+
+// Прогон эталонных позиций: печатает узлы и скорость, при расхождении завершается с кодом 1.
+// Аргументы: [максимальная глубина] или "divide <глубина> <FEN>".
+public class PerftRunner {
+    private static final int DEFAULT_MAX_DEPTH = 5;
+
+    public static void main(String[] args) {
+        if (args.length >= 3 && args[0].equals("divide")) {
+            int depth = Integer.parseInt(args[1]);
+            String fen = String.join(" ", java.util.Arrays.copyOfRange(args, 2, args.length));
+            new Perft(new Board(fen)).divide(depth, System.out);
+            return;
+        }
+
+        int maxDepth = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_MAX_DEPTH;
+        boolean failed = false;
+        long totalNodes = 0;
+        long totalNanos = 0;
+
+        for (PerftPosition position : PerftPosition.values()) {
+            Perft perft = new Perft(new Board(position.getFen()));
+            int depthLimit = Math.min(maxDepth, position.getMaxDepth());
+            for (int depth = 1; depth <= depthLimit; depth++) {
+                long start = System.nanoTime();
+                long nodes = perft.perft(depth);
+                long nanos = System.nanoTime() - start;
+                long expected = position.getExpectedNodes(depth);
+
+                totalNodes += nodes;
+                totalNanos += nanos;
+                boolean ok = nodes == expected;
+                failed |= !ok;
+                System.out.printf("%-10s depth %d: %,15d nodes %s %,12.0f nps%n",
+                        position, depth, nodes, ok ? "OK  " : "FAIL (expected " + expected + ")",
+                        nodes * 1e9 / Math.max(nanos, 1));
+            }
+        }
+
+        System.out.printf("Total: %,d nodes, %,.0f nps%n", totalNodes, totalNodes * 1e9 / Math.max(totalNanos, 1));
+        if (failed) {
+            System.exit(1);
+        }
+    }
+}
@@ -0,0 +1,212 @@
+package org.example.oopchess.rules;
+
+import org.example.oopchess.enums.PieceColor;
+import org.example.oopchess.models.board.Bitboards;
+
+// Предрасчитанные таблицы атак. Для ладьи и слона используются magic bitboards:
+// (occupied & mask) * magic >>> shift дает индекс в таблице атак клетки.
+// Магические числа подобраны заранее случайным перебором для нумерации клеток row * 8 + col.
+public final class AttackTables {
+    private static final int[][] KNIGHT_STEPS = {
+            {-2, -1}, {-2, 1}, {-1, -2}, {-1, 2},
+            {1, -2}, {1, 2}, {2, -1}, {2, 1}
+    };
+    private static final int[][] KING_STEPS = {
+            {-1, -1}, {-1, 0}, {-1, 1},
+            {0, -1}, {0, 1},
+            {1, -1}, {1, 0}, {1, 1}
+    };
+    private static final int[][] ROOK_DIRECTIONS = {{-1, 0}, {1, 0}, {0, -1}, {0, 1}};
+    private static final int[][] BISHOP_DIRECTIONS = {{-1, -1}, {-1, 1}, {1, -1}, {1, 1}};
+
+    private static final long[] KNIGHT = new long[64];
+    private static final long[] KING = new long[64];
+    private static final long[][] PAWN = new long[2][64];
+
+    private static final long[] ROOK_MASKS = new long[64];
+    private static final int[] ROOK_SHIFTS = new int[64];
+    private static final long[][] ROOK_ATTACKS = new long[64][];
+
+    private static final long[] BISHOP_MASKS = new long[64];
+    private static final int[] BISHOP_SHIFTS = new int[64];
+    private static final long[][] BISHOP_ATTACKS = new long[64][];
+
+    private static final long[] ROOK_MAGICS = {
+            0x0080004000802018L, 0x5040004010002000L, 0x0100200010084102L, 0x3100081000050020L,
+            0x0700050008001082L, 0x2480140002008031L, 0x0400281209008410L, 0xA10004820149A100L,
+            0x0000800020804010L, 0x0000804000802000L, 0x0001001100402000L, 0x0860800800100080L,
+            0x8021000800050010L, 0x8641808052000400L, 0xB121000402000100L, 0x0401001040810012L,
+            0x0080004000200040L, 0x0001050028400082L, 0x4880410020061100L, 0x040221001001000AL,
+            0x0004008004080081L, 0x100A010100040008L, 0x0420040048010210L, 0x0050060000804904L,
+            0x0040005880008020L, 0x0040400040201000L, 0x0104410900200010L, 0x4082880280100080L,
+            0x8004040080080080L, 0x0108020080800400L, 0x0000420400104801L, 0x000000A20001005CL,
+            0x8020400020801080L, 0x5800200040401000L, 0x0011001049002000L, 0x0000080080801000L,
+            0x100C008008080040L, 0x0100020080800400L, 0x0408020001010004L, 0x0000084902000084L,
+            0x0040014180028020L, 0xC000200040008080L, 0x1000100020008080L, 0x1000401022020008L,
+            0x0284008040080800L, 0x8011000400030018L, 0x8022000408020001L, 0x0100028251020024L,
+            0x0010400080002080L, 0x2110004000201840L, 0x0082100020018680L, 0x0208080080100080L,
+            0x0000110004080100L, 0x0080040080020080L, 0x0482008408010200L, 0xF000840085116200L,
+            0x6200104700228001L, 0x0040190082002042L, 0x800020000A40B103L, 0x0010100100080421L,
+            0x0002010420100802L, 0x0005004204004801L, 0x60010004020010A1L, 0x0000084028850402L
+    };
+    private static final long[] BISHOP_MAGICS = {
+            0x0020600090810040L, 0x8C02084644014108L, 0x0530510441000009L, 0x6051040081180020L,
+            0x4004042100102000L, 0x0819112030000008L, 0x0004008411084140L, 0x8060402804026022L,
+            0x08426A1810440248L, 0x0080029818010040L, 0x01101210A2020000L, 0x000004104201A100L,
+            0x0118062110110038L, 0x0102C20813180000L, 0x2000A10082212008L, 0x0004230411014810L,
+            0x00204008200400A0L, 0x0014041250125200L, 0x3021080808012280L, 0x002A0C8402120101L,
+            0x601100A690400900L, 0x0018200310101018L, 0x0821020208014408L, 0x0200240212010420L,
+            0x0008054121041000L, 0x0831500004048800L, 0x2817480210008014L, 0x0084010000200880L,
+            0x0003011001004010L, 0xA000840806010421L, 0x8200A08001080840L, 0x0542108400241101L,
+            0x0022021101A02100L, 0x0020907008080210L, 0x0011080204A10400L, 0x0880A02020080080L,
+            0x0120420020020080L, 0x0022500040820800L, 0x0404280200A04110L, 0x0000A40100065100L,
+            0x8108018410012040L, 0x4000809088201000L, 0x020011080102A800L, 0x4008020204240200L,
+            0x0520409812002040L, 0x1002009008808100L, 0x4413920204001200L, 0x0008009A82100180L,
+            0x0134414450400049L, 0x1000210108200003L, 0x0028202412080800L, 0x8380000084040302L,
+            0x020C021022022408L, 0x0008080208220000L, 0x00A0081000908100L, 0x6848210800811400L,
+            0x2040804110012040L, 0x2C0000C402980802L, 0x422010044E109000L, 0x00000004418C0C10L,
+            0x0000800040082200L, 0x0080C91010021820L, 0x0000040890041081L, 0x8040040104010012L
+    };
+
+    // луч между двумя клетками (без концов), 0 если они не на одной линии
+    private static final long[][] BETWEEN = new long[64][64];
+    // вся линия через две клетки от края до края, 0 если они не на одной линии
+    private static final long[][] LINE = new long[64][64];
+
+    static {
+        for (int square = 0; square < 64; square++) {
+            KNIGHT[square] = stepAttacks(square, KNIGHT_STEPS);
+            KING[square] = stepAttacks(square, KING_STEPS);
+            PAWN[PieceColor.WHITE.ordinal()][square] = stepAttacks(square, new int[][]{{-1, -1}, {-1, 1}});
+            PAWN[PieceColor.BLACK.ordinal()][square] = stepAttacks(square, new int[][]{{1, -1}, {1, 1}});
+
+            initMagic(square, ROOK_DIRECTIONS, ROOK_MAGICS[square], ROOK_MASKS, ROOK_SHIFTS, ROOK_ATTACKS);
+            initMagic(square, BISHOP_DIRECTIONS, BISHOP_MAGICS[square], BISHOP_MASKS, BISHOP_SHIFTS, BISHOP_ATTACKS);
+        }
+        initLines();
+    }
+
+    private AttackTables() {}
+
+    public static long knightAttacks(int square) {
+        return KNIGHT[square];
+    }
+
+    public static long kingAttacks(int square) {
+        return KING[square];
+    }
+
+    // клетки, которые бьет пешка цвета color, стоящая на square
+    public static long pawnAttacks(PieceColor color, int square) {
+        return PAWN[color.ordinal()][square];
+    }
+
+    public static long pawnAttacks(int color, int square) {
+        return PAWN[color][square];
+    }
+
+    public static long rookAttacks(int square, long occupied) {
+        return ROOK_ATTACKS[square][(int) (((occupied & ROOK_MASKS[square]) * ROOK_MAGICS[square]) >>> ROOK_SHIFTS[square])];
+    }
+
+    public static long bishopAttacks(int square, long occupied) {
+        return BISHOP_ATTACKS[square][(int) (((occupied & BISHOP_MASKS[square]) * BISHOP_MAGICS[square]) >>> BISHOP_SHIFTS[square])];
+    }
+
+    public static long queenAttacks(int square, long occupied) {
+        return rookAttacks(square, occupied) | bishopAttacks(square, occupied);
+    }
+
+    public static long between(int from, int to) {
+        return BETWEEN[from][to];
+    }
+
+    public static long line(int from, int to) {
+        return LINE[from][to];
+    }
+
+    private static long stepAttacks(int square, int[][] steps) {
+        int row = Bitboards.rowOf(square);
+        int col = Bitboards.colOf(square);
+        long attacks = 0L;
+        for (int[] step : steps) {
+            int r = row + step[0];
+            int c = col + step[1];
+            if (Bitboards.isValid(r, c)) {
+                attacks |= Bitboards.bit(Bitboards.square(r, c));
+            }
+        }
+        return attacks;
+    }
+
+    // атаки дальнобойной фигуры обычным проходом по лучам, используется только при построении таблиц
+    private static long slidingAttacks(int square, long occupied, int[][] directions) {
+        long attacks = 0L;
+        for (int[] dir : directions) {
+            int r = Bitboards.rowOf(square) + dir[0];
+            int c = Bitboards.colOf(square) + dir[1];
+            while (Bitboards.isValid(r, c)) {
+                long bit = Bitboards.bit(Bitboards.square(r, c));
+                attacks |= bit;
+                if ((occupied & bit) != 0) break;
+                r += dir[0];
+                c += dir[1];
+            }
+        }
+        return attacks;
+    }
+
+    // значимые клетки луча: крайняя клетка не влияет на атаки, поэтому в маску не входит
+    private static long relevantMask(int square, int[][] directions) {
+        long mask = 0L;
+        for (int[] dir : directions) {
+            int r = Bitboards.rowOf(square) + dir[0];
+            int c = Bitboards.colOf(square) + dir[1];
+            while (Bitboards.isValid(r + dir[0], c + dir[1])) {
+                mask |= Bitboards.bit(Bitboards.square(r, c));
+                r += dir[0];
+                c += dir[1];
+            }
+        }
+        return mask;
+    }
+
+    private static void initMagic(int square, int[][] directions, long magic, long[] masks,
+                                  int[] shifts, long[][] attacks) {
+        long mask = relevantMask(square, directions);
+        int bits = Long.bitCount(mask);
+        int shift = 64 - bits;
+        long[] table = new long[1 << bits];
+
+        long subset = 0L;
+        do { // перебор всех подмножеств маски (carry-rippler)
+            long reference = slidingAttacks(square, subset, directions);
+            int index = (int) ((subset * magic) >>> shift);
+            if (table[index] != 0 && table[index] != reference) {
+                throw new IllegalStateException("Bad magic for square " + square);
+            }
+            table[index] = reference;
+            subset = (subset - mask) & mask;
+        } while (subset != 0);
+
+        masks[square] = mask;
+        shifts[square] = shift;
+        attacks[square] = table;
+    }
+
+    private static void initLines() {
+        for (int from = 0; from < 64; from++) {
+            for (int to = 0; to < 64; to++) {
+                if (from == to) continue;
+                long toBit = Bitboards.bit(to);
+                if ((slidingAttacks(from, 0L, ROOK_DIRECTIONS) & toBit) != 0) {
+                    BETWEEN[from][to] = rookAttacks(from, toBit) & rookAttacks(to, Bitboards.bit(from));
+                    LINE[from][to] = (rookAttacks(from, 0L) & rookAttacks(to, 0L)) | Bitboards.bit(from) | toBit;
+                } else if ((slidingAttacks(from, 0L, BISHOP_DIRECTIONS) & toBit) != 0) {
+                    BETWEEN[from][to] = bishopAttacks(from, toBit) & bishopAttacks(to, Bitboards.bit(from));
+                    LINE[from][to] = (bishopAttacks(from, 0L) & bishopAttacks(to, 0L)) | Bitboards.bit(from) | toBit;
+                }
+            }
+        }
+    }
+}
@@ -1,15 +1,24 @@
 package org.example.oopchess.rules;
 
+import org.example.oopchess.book.OpeningBook;
+import org.example.oopchess.engine.Search;
+import org.example.oopchess.engine.SearchLimits;
+import org.example.oopchess.engine.SearchResult;
+import org.example.oopchess.engine.TranspositionTable;
+import org.example.oopchess.enums.GameResult;
 import org.example.oopchess.enums.GameState;
 import org.example.oopchess.enums.PieceColor;
+import org.example.oopchess.enums.PieceType;
 import org.example.oopchess.models.board.*;
 import org.example.oopchess.models.pieces.Piece;
 import org.example.oopchess.models.player.Player;
+import org.example.oopchess.tablebase.Tablebase;
 
 import java.util.*;
-import java.util.stream.Collectors;
 
 public class GameController {
+    private static final int FIFTY_MOVE_PLIES = 100;
+
     private Board board;
     private Map<PieceColor, Player> players;
     private Queue<PieceColor> turnQueue;
@@ -17,6 +26,20 @@ public class GameController {
     private GameState gameState;
     private Move lastMove;
     private Map<PieceColor, GameState> playerStatuses;
+    private Search search;
+    private OpeningBook openingBook;
+    private int bookPlies;
+    private Tablebase tablebase;
+    private int tablebaseScore = Tablebase.UNKNOWN;
+
+    // легальные ходы текущей позиции: считаются один раз и обслуживают подсветку клеток,
+    // поиск хода и проверку мата/пата. Ключ - хеш позиции, сбрасываются при makeMove/undoLastMove
+    private final int[] legalMoves = new int[MoveGenerator.MAX_MOVES];
+    private int legalMoveCount;
+    private long legalMovesHash;
+    private boolean legalMovesValid;
+
+    private final List<MoveListener> moveListeners = new ArrayList<>();
 
     public GameController() {
         initGame();
@@ -41,51 +64,129 @@ public class GameController {
         currentPlayerColor = turnQueue.peek();
         gameState = GameState.PLAYING;
         lastMove = null;
+        search = null;
+        legalMovesValid = false;
+        tablebaseScore = Tablebase.UNKNOWN;
+        for (MoveListener listener : moveListeners) {
+            listener.onNewGame();
+        }
     }
 
     public Move makeMove(int fr, int fc, int tr, int tc) {
+        return makeMove(fr, fc, tr, tc, null);
+    }
+
+    // promotion == null - первый подходящий ход (при превращении это ферзь)
+    public Move makeMove(int fr, int fc, int tr, int tc, PieceType promotion) {
         if (gameState != GameState.PLAYING && gameState != GameState.CHECK) return null;
 
-        Piece piece = board.getPiece(new Position(fr, fc));
-        if (piece == null || piece.getColor() != currentPlayerColor) return null;
+        Piece piece = board.getPiece(fr, fc);
+        if (piece == null || piece.getColor() != currentPlayerColor || !Bitboards.isValid(tr, tc)) return null;
+
+        int selected = findLegalMove(Bitboards.square(fr, fc), Bitboards.square(tr, tc), promotion);
+        if (selected == PackedMove.NONE) return null;
 
-        List<Move> possibleMoves = board.getValidMoves(piece, fr, fc);
-        Move selectedMove = null;
+        Move selectedMove = board.getMoveValidator().toMove(selected, piece);
+        board.makeMove(selectedMove, selected);
+        legalMovesValid = false;
+        lastMove = selectedMove;
+        updateGameState();
+        switchPlayer();
+        for (MoveListener listener : moveListeners) {
+            listener.onMove(selected);
+        }
+
+        return selectedMove;
+    }
 
-        for (Move move : possibleMoves) {
-            if (move.getToRow() == tr && move.getToCol() == tc) {
-                selectedMove = move;
-                break;
+    // при превращении без указанной фигуры берется первая из генератора - ферзь
+    private int findLegalMove(int from, int to, PieceType promotion) {
+        ensureLegalMoves();
+        for (int i = 0; i < legalMoveCount; i++) {
+            int move = legalMoves[i];
+            if (PackedMove.from(move) == from && PackedMove.to(move) == to
+                    && (promotion == null || !PackedMove.isPromotion(move) || PackedMove.promotionType(move) == promotion)) {
+                return move;
             }
         }
+        return PackedMove.NONE;
+    }
 
-        if (selectedMove == null) return null;
+    private void ensureLegalMoves() {
+        if (legalMovesValid && legalMovesHash == board.getHash()) return;
 
-        if (board.makeMove(selectedMove)) {
-            lastMove = selectedMove;
-            updateGameState();
-            switchPlayer();
+        legalMoveCount = board.getMoveValidator().getMoveGenerator().generateLegalMoves(legalMoves, 0);
+        legalMovesHash = board.getHash();
+        legalMovesValid = true;
+    }
 
-            return selectedMove;
+    // книга опрашивается первые maxPlies полуходов партии; книга не закрывается контроллером
+    // и может быть общей для многих партий
+    public void setOpeningBook(OpeningBook book, int maxPlies) {
+        this.openingBook = book;
+        this.bookPlies = maxPlies;
+    }
+
+    // таблицы не закрываются контроллером и могут быть общими для многих партий
+    public void setTablebase(Tablebase tablebase) {
+        this.tablebase = tablebase;
+        if (search != null) search.setTablebase(tablebase);
+    }
+
+    // ход компьютера за текущего игрока: из книги, пока позиция в ней есть, иначе поиском
+    public Move makeComputerMove(SearchLimits limits) {
+        if (gameState != GameState.PLAYING && gameState != GameState.CHECK) return null;
+
+        int move = PackedMove.NONE;
+        if (openingBook != null && board.getPly() < bookPlies) {
+            move = openingBook.choose(board);
         }
+        if (move == PackedMove.NONE) {
+            if (search == null) {
+                search = new Search(board, new TranspositionTable(16));
+                search.setTablebase(tablebase);
+            }
+            SearchResult result = search.search(limits);
+            move = result.getBestMove();
+        }
+        if (move == PackedMove.NONE) return null;
 
-        return null;
+        int from = PackedMove.from(move);
+        int to = PackedMove.to(move);
+        return makeMove(Bitboards.rowOf(from), Bitboards.colOf(from), Bitboards.rowOf(to), Bitboards.colOf(to),
+                PackedMove.promotionType(move));
     }
 
     private void updateGameState() {
         PieceColor opponentColor = getOpponentColor();
 
-        if (board.isCheckmate(opponentColor)) {
+        // после хода на доске ходит соперник, так что закешированный список - это его ходы
+        ensureLegalMoves();
+        boolean inCheck = board.isCheck(opponentColor);
+        boolean noMoves = legalMoveCount == 0;
+
+        if (inCheck && noMoves) {
             gameState = GameState.WIN;
             playerStatuses.put(opponentColor, GameState.CHECKMATE);
             playerStatuses.put(getCurrentPlayerColor(), GameState.WIN);
             return;
         }
 
-        if (board.isCheck(opponentColor)) {
+        // ничья по правилам: троекратное повторение, правило 50 ходов, недостаточный материал.
+        // Ничья по таблицам - не ничья по правилам (мат еще возможен при ошибке), ее оценку
+        // вызывающий код берет из getTablebaseScore и сам решает, присуждать ли результат
+        tablebaseScore = tablebase != null ? tablebase.probe(board) : Tablebase.UNKNOWN;
+        if (!noMoves && isDrawByRule()) {
+            gameState = GameState.DRAW;
+            playerStatuses.put(opponentColor, GameState.DRAW);
+            playerStatuses.put(getCurrentPlayerColor(), GameState.DRAW);
+            return;
+        }
+
+        if (inCheck) {
             gameState = GameState.CHECK;
             playerStatuses.put(opponentColor, GameState.CHECK);
-        } else if (board.isStalemate(opponentColor)) {
+        } else if (noMoves) {
             gameState = GameState.STALEMATE;
             playerStatuses.put(opponentColor, GameState.STALEMATE);
         } else {
@@ -94,6 +195,12 @@ public class GameController {
         }
     }
 
+    private boolean isDrawByRule() {
+        return board.getHalfmoveClock() >= FIFTY_MOVE_PLIES
+                || board.hasInsufficientMaterial()
+                || board.repetitionCount() >= 2;
+    }
+
     private PieceColor getOpponentColor() {
         Iterator<PieceColor> iterator = turnQueue.iterator();
         iterator.next();
@@ -121,12 +228,19 @@ public class GameController {
 
     public void undoLastMove() {
         if (!board.getMoveHistory().isEmpty()) {
+            int undone = board.getLastMove();
             board.undoMove();
+            legalMovesValid = false;
+            tablebaseScore = tablebase != null ? tablebase.probe(board) : Tablebase.UNKNOWN;
             // При отмене хода возвращаем предыдущего игрока
             switchPlayerBack();
             gameState = GameState.PLAYING;
             playerStatuses.put(PieceColor.WHITE, GameState.PLAYING);
             playerStatuses.put(PieceColor.BLACK, GameState.PLAYING);
+            // слушатели видят уже восстановленные доску, очередь хода и статусы
+            for (MoveListener listener : moveListeners) {
+                listener.onUndo(undone);
+            }
         }
     }
 
@@ -150,6 +264,21 @@ public class GameController {
         }
     }
 
+    public void addMoveListener(MoveListener listener) {
+        moveListeners.add(listener);
+    }
+
+    public void removeMoveListener(MoveListener listener) {
+        moveListeners.remove(listener);
+    }
+
+    public GameResult getResult() {
+        if (playerStatuses.get(PieceColor.WHITE) == GameState.WIN) return GameResult.WHITE_WINS;
+        if (playerStatuses.get(PieceColor.BLACK) == GameState.WIN) return GameResult.BLACK_WINS;
+        if (gameState == GameState.DRAW || gameState == GameState.STALEMATE) return GameResult.DRAW;
+        return GameResult.UNFINISHED;
+    }
+
     public Board getBoard() { return board; }
 
     public Player getCurrentPlayer() {
@@ -172,16 +301,36 @@ public class GameController {
 
     public Move getLastMove() { return lastMove; }
 
+    // точная оценка позиции по таблицам для стороны на ходу (см. Tablebase.probe) или Tablebase.UNKNOWN;
+    // для присуждения результата вызывающим кодом - сама партия по ней не заканчивается
+    public int getTablebaseScore() { return tablebaseScore; }
+
     public List<Position> getValidMovesForPiece(int row, int col) {
-        Piece piece = board.getPiece(new Position(row, col));
+        Piece piece = board.getPiece(row, col);
+        if (piece == null || piece.getColor() != currentPlayerColor) {
+            return List.of();
+        }
 
-        if (piece != null && piece.getColor() == currentPlayerColor) {
-            return board.getValidMoves(piece, row, col).stream()
-                    .map(move -> new Position(move.getToRow(), move.getToCol()))
-                    .collect(Collectors.toList());
+        ensureLegalMoves();
+        int from = Bitboards.square(row, col);
+        long targets = 0L; // превращения дают несколько ходов на одну клетку
+        List<Position> positions = new ArrayList<>();
+        for (int i = 0; i < legalMoveCount; i++) {
+            int move = legalMoves[i];
+            int to = PackedMove.to(move);
+            if (PackedMove.from(move) == from && (targets & Bitboards.bit(to)) == 0) {
+                targets |= Bitboards.bit(to);
+                positions.add(new Position(Bitboards.rowOf(to), Bitboards.colOf(to)));
+            }
         }
+        return positions;
+    }
 
-        return List.of();
+    // копия закешированного списка легальных ходов текущей позиции, возвращает их число
+    public int getLegalMoves(int[] moves) {
+        ensureLegalMoves();
+        System.arraycopy(legalMoves, 0, moves, 0, legalMoveCount);
+        return legalMoveCount;
     }
 
     public List<PieceColor> getTurnOrder() {
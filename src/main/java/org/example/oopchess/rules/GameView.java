@@ -0,0 +1,67 @@
+package org.example.oopchess.rules;
+
+import org.example.oopchess.enums.GameState;
+import org.example.oopchess.enums.PieceColor;
+import org.example.oopchess.models.board.Bitboards;
+import org.example.oopchess.models.board.PackedMove;
+import org.example.oopchess.models.board.PositionSnapshot;
+
+// Неизменяемый снимок партии для интерфейса: позиция, легальные ходы стороны на ходу (по маске целей
+// на каждую клетку), статусы. Строится в потоке партии и дальше читается из любого потока без блокировок.
+public final class GameView {
+    private final PositionSnapshot position;
+    private final long[] targets = new long[64];
+    private final PieceColor currentColor;
+    private final GameState gameState;
+    private final GameState whiteStatus;
+    private final GameState blackStatus;
+    private final String whiteName;
+    private final String blackName;
+    private final int lastMove;
+
+    GameView(GameController controller, int[] moves) {
+        position = controller.getBoard().snapshot();
+        int count = controller.getLegalMoves(moves);
+        for (int i = 0; i < count; i++) {
+            targets[PackedMove.from(moves[i])] |= Bitboards.bit(PackedMove.to(moves[i]));
+        }
+        currentColor = controller.getCurrentPlayerColor();
+        gameState = controller.getGameState();
+        whiteStatus = controller.getPlayerStatus(PieceColor.WHITE);
+        blackStatus = controller.getPlayerStatus(PieceColor.BLACK);
+        whiteName = controller.getPlayer(PieceColor.WHITE).getName();
+        blackName = controller.getPlayer(PieceColor.BLACK).getName();
+        lastMove = controller.getBoard().getLastMove();
+    }
+
+    // color * 6 + type или -1 для пустой клетки
+    public int pieceAt(int square) {
+        return position.pieceAt(square);
+    }
+
+    public boolean isOwnPiece(int square) {
+        return (position.getOccupancy(currentColor) & Bitboards.bit(square)) != 0;
+    }
+
+    public PositionSnapshot getPosition() { return position; }
+
+    // клетки, куда фигура с square может пойти; 0 - ходов нет или фигура не стороны на ходу
+    public long getTargets(int square) {
+        return targets[square];
+    }
+
+    public PieceColor getCurrentColor() { return currentColor; }
+
+    public GameState getGameState() { return gameState; }
+
+    public GameState getPlayerStatus(PieceColor color) {
+        return color == PieceColor.WHITE ? whiteStatus : blackStatus;
+    }
+
+    public String getPlayerName(PieceColor color) {
+        return color == PieceColor.WHITE ? whiteName : blackName;
+    }
+
+    // PackedMove последнего хода или PackedMove.NONE
+    public int getLastMove() { return lastMove; }
+}
@@ -0,0 +1,59 @@
+package org.example.oopchess.rules;
+
+import org.example.oopchess.engine.SearchLimits;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+
+// Партия в собственном потоке: все обращения к GameController (проверка хода, расчет мата/пата, поиск
+// компьютера) идут задачами одного потока, вызывающий поток - обычно поток JavaFX - никогда не ждет.
+// После каждой команды наружу уходит неизменяемый GameView; как часто его рисовать, решает подписчик.
+public class GameWorker {
+    private final ExecutorService executor;
+    private final Consumer<GameView> publisher;
+    private final int[] moves = new int[MoveGenerator.MAX_MOVES];
+    private GameController controller; // только поток партии
+
+    public GameWorker(Consumer<GameView> publisher) {
+        this.publisher = publisher;
+        // обычный, не виртуальный поток: поиск подолгу занимает процессор и держал бы поток-носитель
+        this.executor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "game-worker");
+            thread.setDaemon(true);
+            return thread;
+        });
+        submit(() -> controller = new GameController());
+    }
+
+    public void newGame() {
+        submit(() -> controller = new GameController());
+    }
+
+    public void makeMove(int fr, int fc, int tr, int tc) {
+        submit(() -> controller.makeMove(fr, fc, tr, tc));
+    }
+
+    public void makeComputerMove(SearchLimits limits) {
+        submit(() -> controller.makeComputerMove(limits));
+    }
+
+    public void undoLastMove() {
+        submit(() -> controller.undoLastMove());
+    }
+
+    public void resign() {
+        submit(() -> controller.resign());
+    }
+
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private void submit(Runnable command) {
+        executor.execute(() -> {
+            command.run();
+            publisher.accept(new GameView(controller, moves));
+        });
+    }
+}
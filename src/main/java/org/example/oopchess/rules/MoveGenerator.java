@@ -0,0 +1,293 @@
+package org.example.oopchess.rules;
+
+import org.example.oopchess.enums.PieceColor;
+import org.example.oopchess.enums.PieceType;
+import org.example.oopchess.models.board.Bitboards;
+import org.example.oopchess.models.board.Board;
+import org.example.oopchess.models.board.PackedMove;
+import org.example.oopchess.models.pieces.Piece;
+
+// Генератор ходов на масках. Ходы пишутся в виде PackedMove в переданный буфер,
+// метод возвращает индекс за последним записанным ходом, поэтому один буфер можно делить между уровнями поиска.
+public class MoveGenerator {
+    public static final int MAX_MOVES = 256; // в любой позиции не больше 218 ходов
+
+    private final Board board;
+
+    public MoveGenerator(Board board) {
+        this.board = board;
+    }
+
+    public int generateLegalMoves(int[] moves, int start) {
+        return generateLegalMoves(board.getSideToMove(), moves, start);
+    }
+
+    // только легальные ходы: связки и шах учитываются масками, делать и отменять ход для проверки не нужно
+    public int generateLegalMoves(PieceColor side, int[] moves, int start) {
+        return generate(side, moves, start, true, Bitboards.ALL);
+    }
+
+    // легальные взятия (включая взятие на проходе и превращения со взятием) - для форсированного поиска
+    public int generateLegalCaptures(PieceColor side, int[] moves, int start) {
+        return generate(side, moves, start, true, board.getOccupancy(opposite(side)));
+    }
+
+    public int generatePseudoLegalMoves(int[] moves, int start) {
+        return generate(board.getSideToMove(), moves, start, false, Bitboards.ALL);
+    }
+
+    // псевдолегальные ходы: король может остаться под боем, проверка через isLegal
+    public int generatePseudoLegalMoves(PieceColor side, int[] moves, int start) {
+        return generate(side, moves, start, false, Bitboards.ALL);
+    }
+
+    // проверка псевдолегального хода стороны, которая сейчас ходит
+    public boolean isLegal(int move) {
+        PieceColor side = board.getPiece(PackedMove.from(move)).getColor();
+        board.makeMove(move);
+        boolean legal = !board.getMoveValidator().isCheck(side);
+        board.undoMove();
+        return legal;
+    }
+
+    // проверка произвольного хода, например прочитанного из файла: ход должен совпасть с легальным
+    // вместе с флагами, иначе Board.makeMove(int) на мусоре даст NPE или тихо неверную доску
+    public boolean isLegalMove(int move, int[] buffer) {
+        int count = generateLegalMoves(buffer, 0);
+        for (int i = 0; i < count; i++) {
+            if (buffer[i] == move) return true;
+        }
+        return false;
+    }
+
+    public boolean hasLegalMoves(PieceColor side, int[] buffer) {
+        return generateLegalMoves(side, buffer, 0) > 0;
+    }
+
+    private int generate(PieceColor side, int[] moves, int count, boolean legalOnly, long targetsMask) {
+        PieceColor enemy = opposite(side);
+        long own = board.getOccupancy(side);
+        long occupied = board.getOccupied();
+        int kingSquare = board.findKing(side);
+        MoveValidator validator = board.getMoveValidator();
+
+        long checkMask = Bitboards.ALL;
+        long pinned = 0L;
+        if (legalOnly && kingSquare >= 0) {
+            long checkers = validator.attackersOf(kingSquare, enemy, occupied);
+            count = generateKingMoves(side, kingSquare, own, occupied, moves, count, true, targetsMask);
+            if (Bitboards.count(checkers) > 1) {
+                return count; // двойной шах - ходит только король
+            }
+            if (checkers != 0) {
+                int checker = Bitboards.lowestSquare(checkers);
+                checkMask = checkers | AttackTables.between(kingSquare, checker);
+            } else if (targetsMask == Bitboards.ALL) {
+                count = generateCastling(side, kingSquare, moves, count);
+            }
+            pinned = pinnedPieces(side, kingSquare);
+        } else if (kingSquare >= 0) {
+            count = generateKingMoves(side, kingSquare, own, occupied, moves, count, false, targetsMask);
+            if (targetsMask == Bitboards.ALL) {
+                count = generateCastling(side, kingSquare, moves, count);
+            }
+        }
+
+        long allowed = ~own & checkMask & targetsMask;
+        count = generatePawnMoves(side, kingSquare, pinned, checkMask & targetsMask, legalOnly, moves, count);
+
+        long knights = board.getBitboard(side, PieceType.KNIGHT) & ~pinned; // связанный конь не ходит никогда
+        while (knights != 0) {
+            int from = Bitboards.lowestSquare(knights);
+            knights &= knights - 1;
+            count = addMoves(from, AttackTables.knightAttacks(from) & allowed, moves, count);
+        }
+
+        long queens = board.getBitboard(side, PieceType.QUEEN);
+        long diagonal = board.getBitboard(side, PieceType.BISHOP) | queens;
+        while (diagonal != 0) {
+            int from = Bitboards.lowestSquare(diagonal);
+            diagonal &= diagonal - 1;
+            long targets = AttackTables.bishopAttacks(from, occupied) & allowed;
+            if ((pinned & Bitboards.bit(from)) != 0) targets &= AttackTables.line(kingSquare, from);
+            count = addMoves(from, targets, moves, count);
+        }
+
+        long straight = board.getBitboard(side, PieceType.ROOK) | queens;
+        while (straight != 0) {
+            int from = Bitboards.lowestSquare(straight);
+            straight &= straight - 1;
+            long targets = AttackTables.rookAttacks(from, occupied) & allowed;
+            if ((pinned & Bitboards.bit(from)) != 0) targets &= AttackTables.line(kingSquare, from);
+            count = addMoves(from, targets, moves, count);
+        }
+
+        return count;
+    }
+
+    private int generateKingMoves(PieceColor side, int kingSquare, long own, long occupied,
+                                  int[] moves, int count, boolean legalOnly, long targetsMask) {
+        long targets = AttackTables.kingAttacks(kingSquare) & ~own & targetsMask;
+        if (!legalOnly) {
+            return addMoves(kingSquare, targets, moves, count);
+        }
+
+        PieceColor enemy = opposite(side);
+        long withoutKing = occupied & ~Bitboards.bit(kingSquare); // король не должен закрывать собой луч атаки
+        MoveValidator validator = board.getMoveValidator();
+        while (targets != 0) {
+            int to = Bitboards.lowestSquare(targets);
+            targets &= targets - 1;
+            if (validator.attackersOf(to, enemy, withoutKing) == 0) {
+                moves[count++] = PackedMove.of(kingSquare, to, flagsFor(to));
+            }
+        }
+        return count;
+    }
+
+    private int generateCastling(PieceColor side, int kingSquare, int[] moves, int count) {
+        int homeRow = side == PieceColor.WHITE ? 7 : 0;
+        if (kingSquare != Bitboards.square(homeRow, 4)) return count;
+
+        Piece king = board.getPiece(kingSquare);
+        if (king.hasMoved()) return count;
+
+        MoveValidator validator = board.getMoveValidator();
+        PieceColor enemy = opposite(side);
+        long occupied = board.getOccupied();
+        if (validator.attackersOf(kingSquare, enemy, occupied) != 0) return count;
+
+        for (int rookCol = 7; rookCol >= 0; rookCol -= 7) {
+            int rookSquare = Bitboards.square(homeRow, rookCol);
+            Piece rook = board.getPiece(rookSquare);
+            if (rook == null || rook.getType() != PieceType.ROOK || rook.getColor() != side || rook.hasMoved()) {
+                continue;
+            }
+            if ((AttackTables.between(kingSquare, rookSquare) & occupied) != 0) continue;
+
+            int step = rookCol == 7 ? 1 : -1;
+            if (validator.attackersOf(kingSquare + step, enemy, occupied) != 0
+                    || validator.attackersOf(kingSquare + 2 * step, enemy, occupied) != 0) {
+                continue;
+            }
+            int flags = rookCol == 7 ? PackedMove.KING_CASTLE : PackedMove.QUEEN_CASTLE;
+            moves[count++] = PackedMove.of(kingSquare, kingSquare + 2 * step, flags);
+        }
+        return count;
+    }
+
+    private int generatePawnMoves(PieceColor side, int kingSquare, long pinned, long allowed,
+                                  boolean legalOnly, int[] moves, int count) {
+        long pawns = board.getBitboard(side, PieceType.PAWN);
+        long empty = ~board.getOccupied();
+        long enemies = board.getOccupancy(opposite(side));
+        boolean white = side == PieceColor.WHITE;
+        int forward = white ? -8 : 8;
+        long startRow = Bitboards.row(white ? 6 : 1);
+        long promotionRow = Bitboards.row(white ? 0 : 7);
+
+        while (pawns != 0) {
+            int from = Bitboards.lowestSquare(pawns);
+            pawns &= pawns - 1;
+            long fromBit = Bitboards.bit(from);
+            long pinLine = (pinned & fromBit) != 0 ? AttackTables.line(kingSquare, from) : Bitboards.ALL;
+
+            long targets = 0L;
+            int oneStep = from + forward;
+            long oneStepBit = Bitboards.bit(oneStep);
+            if ((empty & oneStepBit) != 0) {
+                targets |= oneStepBit;
+                if ((fromBit & startRow) != 0 && (empty & Bitboards.bit(oneStep + forward)) != 0
+                        && (allowed & pinLine & Bitboards.bit(oneStep + forward)) != 0) {
+                    moves[count++] = PackedMove.of(from, oneStep + forward, PackedMove.DOUBLE_PAWN_PUSH);
+                }
+            }
+            targets |= AttackTables.pawnAttacks(side, from) & enemies;
+            targets &= allowed & pinLine;
+
+            while (targets != 0) {
+                int to = Bitboards.lowestSquare(targets);
+                targets &= targets - 1;
+                boolean capture = (enemies & Bitboards.bit(to)) != 0;
+                if ((promotionRow & Bitboards.bit(to)) != 0) {
+                    // ферзь первым - он нужен чаще всего
+                    moves[count++] = PackedMove.promotion(from, to, PieceType.QUEEN, capture);
+                    moves[count++] = PackedMove.promotion(from, to, PieceType.ROOK, capture);
+                    moves[count++] = PackedMove.promotion(from, to, PieceType.BISHOP, capture);
+                    moves[count++] = PackedMove.promotion(from, to, PieceType.KNIGHT, capture);
+                } else {
+                    moves[count++] = PackedMove.of(from, to, capture ? PackedMove.CAPTURE : PackedMove.QUIET);
+                }
+            }
+        }
+
+        int enPassant = board.getEnPassantSquare();
+        if (enPassant >= 0 && side == board.getSideToMove()) {
+            count = generateEnPassant(side, kingSquare, enPassant, legalOnly, moves, count);
+        }
+        return count;
+    }
+
+    private int generateEnPassant(PieceColor side, int kingSquare, int enPassant, boolean legalOnly,
+                                  int[] moves, int count) {
+        PieceColor enemy = opposite(side);
+        int captured = enPassant + (side == PieceColor.WHITE ? 8 : -8);
+        long capturedBit = Bitboards.bit(captured);
+        if ((board.getBitboard(enemy, PieceType.PAWN) & capturedBit) == 0) return count;
+
+        // пешки, которые бьют клетку взятия на проходе - те же клетки, что бьет оттуда пешка противника
+        long attackers = AttackTables.pawnAttacks(enemy, enPassant) & board.getBitboard(side, PieceType.PAWN);
+        while (attackers != 0) {
+            int from = Bitboards.lowestSquare(attackers);
+            attackers &= attackers - 1;
+            if (legalOnly && kingSquare >= 0) {
+                // взятие убирает сразу две пешки с линии - проверяем занятость после хода целиком
+                long occupied = (board.getOccupied() ^ Bitboards.bit(from) ^ capturedBit) | Bitboards.bit(enPassant);
+                long checkers = board.getMoveValidator().attackersOf(kingSquare, enemy, occupied) & ~capturedBit;
+                if (checkers != 0) continue;
+            }
+            moves[count++] = PackedMove.of(from, enPassant, PackedMove.EN_PASSANT);
+        }
+        return count;
+    }
+
+    private long pinnedPieces(PieceColor side, int kingSquare) {
+        PieceColor enemy = opposite(side);
+        long enemyOccupancy = board.getOccupancy(enemy);
+        long queens = board.getBitboard(enemy, PieceType.QUEEN);
+        long snipers = (AttackTables.rookAttacks(kingSquare, enemyOccupancy)
+                & (board.getBitboard(enemy, PieceType.ROOK) | queens))
+                | (AttackTables.bishopAttacks(kingSquare, enemyOccupancy)
+                & (board.getBitboard(enemy, PieceType.BISHOP) | queens));
+
+        long occupied = board.getOccupied();
+        long own = board.getOccupancy(side);
+        long pinned = 0L;
+        while (snipers != 0) {
+            int sniper = Bitboards.lowestSquare(snipers);
+            snipers &= snipers - 1;
+            long blockers = AttackTables.between(kingSquare, sniper) & occupied;
+            if (Bitboards.count(blockers) == 1 && (blockers & own) != 0) {
+                pinned |= blockers;
+            }
+        }
+        return pinned;
+    }
+
+    private int addMoves(int from, long targets, int[] moves, int count) {
+        while (targets != 0) {
+            int to = Bitboards.lowestSquare(targets);
+            targets &= targets - 1;
+            moves[count++] = PackedMove.of(from, to, flagsFor(to));
+        }
+        return count;
+    }
+
+    private int flagsFor(int to) {
+        return board.getPiece(to) != null ? PackedMove.CAPTURE : PackedMove.QUIET;
+    }
+
+    private static PieceColor opposite(PieceColor color) {
+        return color == PieceColor.WHITE ? PieceColor.BLACK : PieceColor.WHITE;
+    }
+}
@@ -0,0 +1,10 @@
+package org.example.oopchess.rules;
+
+// Подписчик на ходы партии; вызывается в потоке, который делает ход
+public interface MoveListener {
+    void onMove(int move); // PackedMove
+
+    default void onUndo(int move) {} // отмененный ход (PackedMove), состояние партии уже восстановлено
+
+    default void onNewGame() {} // initGame: на контроллере новая доска
+}
@@ -1,11 +1,11 @@
 package org.example.oopchess.rules;
 
 import org.example.oopchess.enums.PieceColor;
+import org.example.oopchess.enums.PieceType;
+import org.example.oopchess.models.board.Bitboards;
 import org.example.oopchess.models.board.Board;
 import org.example.oopchess.models.board.Move;
-import org.example.oopchess.models.board.Position;
-import org.example.oopchess.models.pieces.King;
-import org.example.oopchess.models.pieces.Pawn;
+import org.example.oopchess.models.board.PackedMove;
 import org.example.oopchess.models.pieces.Piece;
 
 import java.util.ArrayList;
@@ -13,171 +13,118 @@ import java.util.List;
 
 public class MoveValidator {
     private Board board;
+    private MoveGenerator moveGenerator;
+    private int[] moveBuffer;
 
     public MoveValidator(Board board) {
         this.board = board;
+        this.moveGenerator = new MoveGenerator(board);
+        this.moveBuffer = new int[MoveGenerator.MAX_MOVES];
+    }
+
+    public MoveGenerator getMoveGenerator() {
+        return moveGenerator;
     }
 
     public boolean isValidMove(Move move) {
+        return findLegalMove(move) != PackedMove.NONE;
+    }
+
+    // ищет среди легальных ходов упакованный ход, соответствующий move; PackedMove.NONE если такого нет
+    public int findLegalMove(Move move) {
         Piece piece = move.getPiece();
-        if (piece == null) return false;
+        if (piece == null) return PackedMove.NONE;
 
         int fr = move.getFromRow();
         int fc = move.getFromCol();
         int tr = move.getToRow();
         int tc = move.getToCol();
 
-        if (!board.isValidPosition(new Position(tr, tc))) return false;
-        if (fr == tr && fc == tc) return false;
-
-        Piece target = board.getPiece(new Position(tr, tc));
-        if (target != null && target.getColor() == piece.getColor()) return false;
-
-        Position from = new Position(fr, fc);
-        Position to = new Position(tr, tc);
-        if (!piece.isValidMove(from, to, board)) return false;
-
-        return !wouldLeaveKingInCheck(move);
-    }
-
-    private boolean wouldLeaveKingInCheck(Move move) {
-        Piece originalPiece = board.getPiece(new Position(move.getFromRow(), move.getFromCol()));
-        Piece targetPiece = board.getPiece(new Position(move.getToRow(), move.getToCol()));
-
-        board.setPiece(move.getToRow(), move.getToCol(), originalPiece);
-        board.setPiece(move.getFromRow(), move.getFromCol(), null);
+        if (!Bitboards.isValid(fr, fc) || !Bitboards.isValid(tr, tc)) return PackedMove.NONE;
+        if (board.getPiece(fr, fc) != piece) return PackedMove.NONE;
 
-        boolean isInCheck = isCheck(move.getPiece().getColor());
+        int from = Bitboards.square(fr, fc);
+        int to = Bitboards.square(tr, tc);
+        PieceType promotion = move.getPromotionPiece() != null ? move.getPromotionPiece().getType() : PieceType.QUEEN;
 
-        board.setPiece(move.getFromRow(), move.getFromCol(), originalPiece);
-        board.setPiece(move.getToRow(), move.getToCol(), targetPiece);
-
-        return isInCheck;
+        int count = moveGenerator.generateLegalMoves(piece.getColor(), moveBuffer, 0);
+        for (int i = 0; i < count; i++) {
+            int packed = moveBuffer[i];
+            if (PackedMove.from(packed) == from && PackedMove.to(packed) == to
+                    && (!PackedMove.isPromotion(packed) || PackedMove.promotionType(packed) == promotion)) {
+                return packed;
+            }
+        }
+        return PackedMove.NONE;
     }
 
     public boolean isSquareAttacked(int row, int col, PieceColor color) {
         PieceColor opponent = (color == PieceColor.WHITE) ? PieceColor.BLACK : PieceColor.WHITE;
+        return attackersOf(Bitboards.square(row, col), opponent, board.getOccupied()) != 0;
+    }
 
-        for (int r = 0; r < 8; r++) {
-            for (int c = 0; c < 8; c++) {
-                Piece piece = board.getPiece(new Position(r, c));
-                if (piece != null && piece.getColor() == opponent) {
-                    Position from = new Position(r, c);
-                    Position to = new Position(row, col);
-                    if (piece.isValidMove(from, to, board)) {
-                        if (piece instanceof Pawn) {
-                            int rowDiff = row - r;
-                            int colDiff = Math.abs(col - c);
-                            int direction = (piece.getColor() == PieceColor.WHITE) ? -1 : 1;
-
-                            if (rowDiff == direction && colDiff == 1) {
-                                return true;
-                            }
-                        } else {
-                            return true;
-                        }
-                    }
-                }
-            }
-        }
-        return false;
+    // все фигуры цвета attacker, которые бьют клетку square при заданной занятости доски
+    public long attackersOf(int square, PieceColor attacker, long occupied) {
+        PieceColor defender = (attacker == PieceColor.WHITE) ? PieceColor.BLACK : PieceColor.WHITE;
+        long queens = board.getBitboard(attacker, PieceType.QUEEN);
+        long rooksAndQueens = board.getBitboard(attacker, PieceType.ROOK) | queens;
+        long bishopsAndQueens = board.getBitboard(attacker, PieceType.BISHOP) | queens;
+
+        return (AttackTables.pawnAttacks(defender, square) & board.getBitboard(attacker, PieceType.PAWN))
+                | (AttackTables.knightAttacks(square) & board.getBitboard(attacker, PieceType.KNIGHT))
+                | (AttackTables.kingAttacks(square) & board.getBitboard(attacker, PieceType.KING))
+                | (AttackTables.rookAttacks(square, occupied) & rooksAndQueens)
+                | (AttackTables.bishopAttacks(square, occupied) & bishopsAndQueens);
     }
 
     public List<Move> getValidMoves (Piece piece, int row, int col){
         List<Move> moves = new ArrayList<>();
+        int from = Bitboards.square(row, col);
 
-        List<Move> possiblePositions = piece.getPossibleMoves(new Position(row, col), board);
-
-        for (Move move: possiblePositions) {
-            if (move.getPiece() == null) {
-                move.setPiece(piece);
-            }
-
-            if (isValidMove(move)) {
-                moves.add(move);
+        int count = moveGenerator.generateLegalMoves(piece.getColor(), moveBuffer, 0);
+        for (int i = 0; i < count; i++) {
+            int packed = moveBuffer[i];
+            if (PackedMove.from(packed) == from) {
+                moves.add(toMove(packed, piece));
             }
         }
 
         return moves;
     }
 
-    public boolean isCheck(PieceColor color) {
-        Position kingPosition = findKingPosition(color);
-        if (kingPosition == null) return false;
-
-        PieceColor opponentColor = (color == PieceColor.WHITE) ? PieceColor.BLACK : PieceColor.WHITE;
-
-        for (int row = 0; row < 8; row++) {
-            for (int col = 0; col < 8; col++) {
-                Piece piece = board.getPiece(new Position(row, col));
-                if (piece != null && piece.getColor() == opponentColor) {
-                    if (canAttackSquare(piece, row, col, kingPosition.getRow(), kingPosition.getCol())) {
-                        return true;
-                    }
-                }
-            }
+    public Move toMove(int packed, Piece piece) {
+        int from = PackedMove.from(packed);
+        int to = PackedMove.to(packed);
+        Move move = new Move(Bitboards.rowOf(from), Bitboards.colOf(from), Bitboards.rowOf(to), Bitboards.colOf(to), piece);
+        move.setEnPassant(PackedMove.isEnPassant(packed));
+        move.setCastling(PackedMove.isCastling(packed));
+        if (PackedMove.isPromotion(packed)) {
+            move.setPromotionPiece(Piece.of(PackedMove.promotionType(packed), piece.getColor()));
         }
-        return false;
+        return move;
     }
 
-    private boolean canAttackSquare(Piece attacker, int fromRow, int fromCol, int toRow, int toCol) {
-        Position from = new Position(fromRow, fromCol);
-        Position to = new Position(toRow, toCol);
-
-        if (attacker instanceof Pawn) {
-            int direction = (attacker.getColor() == PieceColor.WHITE) ? -1 : 1;
-            int rowDiff = toRow - fromRow;
-            int colDiff = Math.abs(toCol - fromCol);
-
-            return rowDiff == direction && colDiff == 1;
-        }
-
-        return attacker.isValidMove(from, to, board);
-    }
+    public boolean isCheck(PieceColor color) {
+        int kingSquare = board.findKing(color);
+        if (kingSquare < 0) return false;
 
-    private Position findKingPosition(PieceColor color) {
-        for (int row = 0; row < 8; row++) {
-            for (int col = 0; col < 8; col++) {
-                Piece piece = board.getPiece(new Position(row, col));
-                if (piece != null && piece instanceof King && piece.getColor() == color) {
-                    return new Position(row, col);
-                }
-            }
-        }
-        return null;
+        PieceColor opponentColor = (color == PieceColor.WHITE) ? PieceColor.BLACK : PieceColor.WHITE;
+        return attackersOf(kingSquare, opponentColor, board.getOccupied()) != 0;
     }
 
     public boolean isCheckmate(PieceColor color) {
         if (!isCheck(color)) return false;
 
-        for (int row = 0; row < 8; row++) {
-            for (int col = 0; col < 8; col++) {
-                Piece piece = board.getPiece(new Position(row, col));
-                if (piece != null && piece.getColor() == color) {
-                    List<Move> moves = getValidMoves(piece, row, col);
-                    if (!moves.isEmpty()) {
-                        return false;
-                    }
-                }
-            }
-        }
-        return true;
+        return !hasAnyValidMove(color);
     }
 
     public boolean isStalemate(PieceColor color) {
         if (isCheck(color)) return false;
 
-        for (int row = 0; row < 8; row++) {
-            for (int col = 0; col < 8; col++) {
-                Piece piece = board.getPiece(new Position(row, col));
-                if (piece != null && piece.getColor() == color) {
-                    List<Move> moves = getValidMoves(piece, row, col);
-                    if (!moves.isEmpty()) {
-                        return false;
-                    }
-                }
-            }
-        }
-        return true;
+        return !hasAnyValidMove(color);
+    }
+
+    private boolean hasAnyValidMove(PieceColor color) {
+        return moveGenerator.hasLegalMoves(color, moveBuffer);
     }
 }
@@ -0,0 +1,110 @@
+package org.example.oopchess.server;
+
+import org.example.oopchess.broadcast.MoveStreamReader;
+import org.example.oopchess.models.board.Move;
+import org.example.oopchess.rules.GameController;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+// Сервер без интерфейса, держит тысячи партий одновременно.
+// Каждая партия закреплена за одной из полос - однопоточным исполнителем, - поэтому все ее ходы
+// выполняются последовательно одним потоком и GameController не нуждается в блокировках.
+public class GameServer implements AutoCloseable {
+    private final ExecutorService[] stripes;
+    private final SessionRegistry registry;
+    private final AtomicLong nextId = new AtomicLong(1);
+
+    public GameServer(int stripeCount) {
+        if (stripeCount < 1) {
+            throw new IllegalArgumentException("stripeCount must be positive: " + stripeCount);
+        }
+        stripes = new ExecutorService[stripeCount];
+        for (int i = 0; i < stripeCount; i++) {
+            String name = "game-stripe-" + i;
+            stripes[i] = Executors.newSingleThreadExecutor(runnable -> {
+                Thread thread = new Thread(runnable, name);
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        registry = new SessionRegistry(stripeCount);
+    }
+
+    public GameServer() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    public CompletableFuture<Long> createGame() {
+        long id = nextId.getAndIncrement();
+        int stripe = registry.shardOf(id);
+        return CompletableFuture.supplyAsync(() -> {
+            registry.put(new GameSession(id, stripe));
+            return id;
+        }, stripes[stripe]);
+    }
+
+    public CompletableFuture<Boolean> closeGame(long gameId) {
+        return CompletableFuture.supplyAsync(() -> {
+            GameSession session = registry.remove(gameId);
+            if (session == null) return false;
+            session.getMoveStream().close();
+            return true;
+        }, stripes[registry.shardOf(gameId)]);
+    }
+
+    // null в результате - ход нелегален или партия уже закончена
+    public CompletableFuture<Move> makeMove(long gameId, int fr, int fc, int tr, int tc) {
+        return executeInSession(gameId, session -> {
+            Move move = session.getController().makeMove(fr, fc, tr, tc);
+            if (move != null) session.onMove();
+            return move;
+        });
+    }
+
+    // новый зритель партии: читает события в своем потоке, ход партии его не ждет
+    public CompletableFuture<MoveStreamReader> watch(long gameId) {
+        return executeInSession(gameId, session -> session.getMoveStream().subscribe());
+    }
+
+    public <T> CompletableFuture<T> execute(long gameId, Function<GameController, T> action) {
+        return executeInSession(gameId, session -> action.apply(session.getController()));
+    }
+
+    // задача выполняется на полосе партии; результат не должен отдавать наружу изменяемое состояние сессии
+    public <T> CompletableFuture<T> executeInSession(long gameId, Function<GameSession, T> action) {
+        return CompletableFuture.supplyAsync(() -> {
+            GameSession session = registry.get(gameId);
+            if (session == null) {
+                throw new IllegalArgumentException("Unknown game: " + gameId);
+            }
+            return action.apply(session);
+        }, stripes[registry.shardOf(gameId)]);
+    }
+
+    public int getActiveGames() {
+        return registry.size();
+    }
+
+    public int getStripeCount() {
+        return stripes.length;
+    }
+
+    @Override
+    public void close() {
+        for (ExecutorService stripe : stripes) {
+            stripe.shutdown();
+        }
+        try {
+            for (ExecutorService stripe : stripes) {
+                stripe.awaitTermination(5, TimeUnit.SECONDS);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package org.example.oopchess.server;
+
+import org.example.oopchess.broadcast.MoveStream;
+import org.example.oopchess.rules.GameController;
+
+// Одна партия на сервере. GameController не потокобезопасен, поэтому сессия
+// привязана к одному потоку-полосе и трогается только из задач этой полосы.
+public class GameSession {
+    private static final int STREAM_CAPACITY = 256; // полуходов; отставшие сильнее зрители догоняют по снимку
+
+    private final long id;
+    private final int stripe;
+    private final GameController controller;
+    private final MoveStream moveStream;
+    private int moveCount;
+
+    GameSession(long id, int stripe) {
+        this.id = id;
+        this.stripe = stripe;
+        this.controller = new GameController();
+        this.moveStream = new MoveStream(controller, STREAM_CAPACITY);
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    public int getStripe() {
+        return stripe;
+    }
+
+    public GameController getController() {
+        return controller;
+    }
+
+    // единственное, что в сессии можно читать не из потока полосы
+    public MoveStream getMoveStream() {
+        return moveStream;
+    }
+
+    public int getMoveCount() {
+        return moveCount;
+    }
+
+    void onMove() {
+        moveCount++;
+    }
+}
@@ -0,0 +1,53 @@
+package org.example.oopchess.server;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+// Гистограмма задержек в микросекундах: до 1 мс - точные корзины, дальше по 64 корзины
+// на каждую степень двойки (погрешность около 1.5%). Пишется из многих потоков без блокировок.
+public class LatencyHistogram {
+    private static final int LINEAR = 1024;
+    private static final int SUB_BUCKETS = 64;
+    private static final int SUB_BITS = 6;
+    private static final int MAX_EXPONENT = 40;
+
+    private final AtomicLongArray buckets = new AtomicLongArray(LINEAR + (MAX_EXPONENT - 10 + 1) * SUB_BUCKETS);
+
+    public void record(long nanos) {
+        buckets.incrementAndGet(index(Math.max(0, nanos / 1_000)));
+    }
+
+    public long count() {
+        long count = 0;
+        for (int i = 0; i < buckets.length(); i++) {
+            count += buckets.get(i);
+        }
+        return count;
+    }
+
+    // перцентиль в микросекундах (нижняя граница корзины), p от 0 до 100
+    public long percentile(double p) {
+        long total = count();
+        if (total == 0) return 0;
+        long rank = Math.max(1, (long) Math.ceil(total * p / 100.0));
+        long seen = 0;
+        for (int i = 0; i < buckets.length(); i++) {
+            seen += buckets.get(i);
+            if (seen >= rank) return lowerBound(i);
+        }
+        return lowerBound(buckets.length() - 1);
+    }
+
+    private static int index(long micros) {
+        if (micros < LINEAR) return (int) micros;
+        int exponent = Math.min(63 - Long.numberOfLeadingZeros(micros), MAX_EXPONENT);
+        int sub = (int) (micros >>> (exponent - SUB_BITS)) & (SUB_BUCKETS - 1);
+        return LINEAR + (exponent - 10) * SUB_BUCKETS + sub;
+    }
+
+    private static long lowerBound(int index) {
+        if (index < LINEAR) return index;
+        int exponent = 10 + (index - LINEAR) / SUB_BUCKETS;
+        int sub = (index - LINEAR) % SUB_BUCKETS;
+        return (long) (SUB_BUCKETS + sub) << (exponent - SUB_BITS);
+    }
+}
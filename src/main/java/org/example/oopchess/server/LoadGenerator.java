@@ -0,0 +1,139 @@
+package org.example.oopchess.server;
+
+import org.example.oopchess.enums.GameState;
+import org.example.oopchess.models.board.Bitboards;
+import org.example.oopchess.models.board.PackedMove;
+import org.example.oopchess.rules.GameController;
+import org.example.oopchess.rules.MoveGenerator;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Нагрузочный тест сервера: N партий одновременно, в каждой игроки делают случайные легальные ходы.
+// У каждой партии не больше одного хода в полете, как у живого игрока; после хода - пауза на "обдумывание".
+// Закончившаяся партия закрывается и заменяется новой, так что число партий держится постоянным.
+//
+// Запуск: LoadGenerator [партий=10000] [секунд=30] [пауза мс=50] [полос=число ядер]
+public class LoadGenerator {
+    private static final int MAX_GAME_MOVES = 300;
+    private static final ThreadLocal<int[]> MOVE_BUFFER = ThreadLocal.withInitial(() -> new int[MoveGenerator.MAX_MOVES]);
+
+    private final GameServer server;
+    private final ScheduledExecutorService scheduler;
+    private final long thinkMillis;
+    private final LatencyHistogram latency = new LatencyHistogram();
+    private final AtomicLong moves = new AtomicLong();
+    private final AtomicInteger finishedGames = new AtomicInteger();
+    private final AtomicInteger errors = new AtomicInteger();
+    private volatile boolean running = true;
+
+    public LoadGenerator(GameServer server, long thinkMillis) {
+        this.server = server;
+        this.thinkMillis = thinkMillis;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "load-scheduler");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        int games = args.length > 0 ? Integer.parseInt(args[0]) : 10_000;
+        int seconds = args.length > 1 ? Integer.parseInt(args[1]) : 30;
+        long thinkMillis = args.length > 2 ? Long.parseLong(args[2]) : 50;
+        int stripes = args.length > 3 ? Integer.parseInt(args[3]) : Runtime.getRuntime().availableProcessors();
+
+        try (GameServer server = new GameServer(stripes)) {
+            LoadGenerator generator = new LoadGenerator(server, thinkMillis);
+            System.out.printf("games=%d stripes=%d think=%dms duration=%ds%n", games, stripes, thinkMillis, seconds);
+            generator.run(games, seconds);
+        }
+    }
+
+    public void run(int games, int seconds) throws InterruptedException {
+        for (int i = 0; i < games; i++) {
+            startGame();
+        }
+
+        long start = System.nanoTime();
+        long previousMoves = 0;
+        for (int s = 1; s <= seconds; s++) {
+            Thread.sleep(1_000);
+            long total = moves.get();
+            System.out.printf("%3ds  moves/s=%,d  games=%,d  p99=%dus%n",
+                    s, total - previousMoves, server.getActiveGames(), latency.percentile(99));
+            previousMoves = total;
+        }
+        running = false;
+        double elapsed = (System.nanoTime() - start) / 1e9;
+        scheduler.shutdownNow();
+
+        System.out.printf("moves=%,d  moves/s=%,.0f  finished games=%,d  errors=%d%n",
+                moves.get(), moves.get() / elapsed, finishedGames.get(), errors.get());
+        System.out.printf("latency us: p50=%d p90=%d p99=%d p99.9=%d%n",
+                latency.percentile(50), latency.percentile(90), latency.percentile(99), latency.percentile(99.9));
+    }
+
+    private void startGame() {
+        if (!running) return;
+        server.createGame().whenComplete((id, error) -> {
+            if (error != null) {
+                errors.incrementAndGet();
+            } else {
+                nextMove(id);
+            }
+        });
+    }
+
+    private void nextMove(long gameId) {
+        if (!running) return;
+        long submitted = System.nanoTime();
+        server.executeInSession(gameId, LoadGenerator::playRandomMove).whenComplete((inProgress, error) -> {
+            latency.record(System.nanoTime() - submitted);
+            if (error != null) {
+                errors.incrementAndGet();
+                return;
+            }
+            moves.incrementAndGet();
+            if (inProgress) {
+                schedule(() -> nextMove(gameId));
+            } else {
+                finishedGames.incrementAndGet();
+                server.closeGame(gameId).thenRun(this::startGame);
+            }
+        });
+    }
+
+    private void schedule(Runnable task) {
+        if (!running) return;
+        if (thinkMillis > 0) {
+            scheduler.schedule(task, thinkMillis, TimeUnit.MILLISECONDS);
+        } else {
+            task.run();
+        }
+    }
+
+    // выполняется на полосе партии; false - партия закончилась
+    private static boolean playRandomMove(GameSession session) {
+        GameController controller = session.getController();
+        int[] legal = MOVE_BUFFER.get();
+        int count = controller.getLegalMoves(legal);
+        if (count == 0) return false;
+
+        int move = legal[ThreadLocalRandom.current().nextInt(count)];
+        int from = PackedMove.from(move);
+        int to = PackedMove.to(move);
+        if (controller.makeMove(Bitboards.rowOf(from), Bitboards.colOf(from), Bitboards.rowOf(to), Bitboards.colOf(to),
+                PackedMove.promotionType(move)) == null) {
+            throw new IllegalStateException("Legal move rejected: " + PackedMove.toString(move));
+        }
+        session.onMove();
+
+        GameState state = controller.getGameState();
+        return (state == GameState.PLAYING || state == GameState.CHECK) && session.getMoveCount() < MAX_GAME_MOVES;
+    }
+}
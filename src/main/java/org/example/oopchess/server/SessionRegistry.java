@@ -0,0 +1,42 @@
+package org.example.oopchess.server;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Реестр сессий, разбитый на шарды по id. Шард i пишется только потоком полосы i,
+// читать его можно из любого потока.
+public class SessionRegistry {
+    private final List<ConcurrentHashMap<Long, GameSession>> shards;
+
+    public SessionRegistry(int shardCount) {
+        shards = new ArrayList<>(shardCount);
+        for (int i = 0; i < shardCount; i++) {
+            shards.add(new ConcurrentHashMap<>());
+        }
+    }
+
+    public int shardOf(long gameId) {
+        return (int) Long.remainderUnsigned(gameId, shards.size());
+    }
+
+    public GameSession get(long gameId) {
+        return shards.get(shardOf(gameId)).get(gameId);
+    }
+
+    void put(GameSession session) {
+        shards.get(shardOf(session.getId())).put(session.getId(), session);
+    }
+
+    GameSession remove(long gameId) {
+        return shards.get(shardOf(gameId)).remove(gameId);
+    }
+
+    public int size() {
+        int size = 0;
+        for (ConcurrentHashMap<Long, GameSession> shard : shards) {
+            size += shard.size();
+        }
+        return size;
+    }
+}
@@ -0,0 +1,137 @@
+package org.example.oopchess.spectator;
+
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.paint.Color;
+import org.example.oopchess.models.board.Board;
+import org.example.oopchess.models.board.PackedMove;
+import org.example.oopchess.models.pieces.Piece;
+import org.example.oopchess.rules.GameController;
+import org.example.oopchess.rules.MoveListener;
+
+// Одна доска на общем холсте стены. Ходы приходят из потока партии (MoveListener): там же читаются
+// фигуры на задетых клетках и копятся в pending с маской грязных клеток. Поток JavaFX на кадре забирает
+// маску и перерисовывает только эти клетки - обычно 2-4 из 64.
+public class BoardTile implements MoveListener {
+    private static final Color LIGHT = Color.TAN;
+    private static final Color DARK = Color.SADDLEBROWN;
+    private static final Color LIGHT_LAST_MOVE = Color.rgb(205, 210, 106);
+    private static final Color DARK_LAST_MOVE = Color.rgb(170, 162, 58);
+    private static final long ALL = ~0L;
+
+    private final double x;
+    private final double y;
+    private final double cellSize;
+
+    // под замком this: пишет поток партии, читает поток JavaFX
+    private GameController controller;
+    private final byte[] pending = new byte[64]; // индекс фигуры + 1, 0 - пусто
+    private long dirty;
+    private int lastFrom = -1;
+    private int lastTo = -1;
+
+    // только поток JavaFX
+    private final byte[] shown = new byte[64];
+    private int shownFrom = -1;
+    private int shownTo = -1;
+
+    BoardTile(double x, double y, double cellSize) {
+        this.x = x;
+        this.y = y;
+        this.cellSize = cellSize;
+    }
+
+    // подключить партию (или другой контроллер в том же месте стены); вызывается из потока партии;
+    // новую партию того же контроллера (initGame) плитка подхватывает сама через onNewGame
+    public synchronized void attach(GameController newController) {
+        if (controller != null) controller.removeMoveListener(this);
+        controller = newController;
+        controller.addMoveListener(this);
+        lastFrom = -1;
+        lastTo = -1;
+        readSquares(ALL);
+    }
+
+    @Override
+    public synchronized void onMove(int move) {
+        long squares = moveSquares(move) | bit(lastFrom) | bit(lastTo);
+        lastFrom = PackedMove.from(move);
+        lastTo = PackedMove.to(move);
+        readSquares(squares);
+    }
+
+    // отмена меняет те же клетки, что и ход; подсветка переходит на предыдущий ход партии
+    @Override
+    public synchronized void onUndo(int move) {
+        long squares = moveSquares(move) | bit(lastFrom) | bit(lastTo);
+        int previous = controller.getBoard().getLastMove();
+        lastFrom = previous == PackedMove.NONE ? -1 : PackedMove.from(previous);
+        lastTo = previous == PackedMove.NONE ? -1 : PackedMove.to(previous);
+        readSquares(squares | bit(lastFrom) | bit(lastTo));
+    }
+
+    // initGame: у контроллера новая доска
+    @Override
+    public synchronized void onNewGame() {
+        lastFrom = -1;
+        lastTo = -1;
+        readSquares(ALL);
+    }
+
+    private static long moveSquares(int move) {
+        int from = PackedMove.from(move);
+        int to = PackedMove.to(move);
+        long squares = bit(from) | bit(to);
+        if (PackedMove.isCastling(move)) {
+            squares |= to > from ? bit(from + 3) | bit(from + 1) : bit(from - 4) | bit(from - 1);
+        } else if (PackedMove.isEnPassant(move)) {
+            squares |= bit((from & ~7) | (to & 7)); // взятая пешка стоит на горизонтали "откуда", вертикали "куда"
+        }
+        return squares;
+    }
+
+    private void readSquares(long squares) {
+        Board board = controller.getBoard();
+        for (long rest = squares; rest != 0; rest &= rest - 1) {
+            int square = Long.numberOfTrailingZeros(rest);
+            Piece piece = board.getPiece(square);
+            pending[square] = (byte) (piece == null ? 0 : piece.getColor().ordinal() * 6 + piece.getType().ordinal() + 1);
+        }
+        dirty |= squares;
+    }
+
+    // поток JavaFX: перерисовать изменившиеся клетки; false - рисовать было нечего
+    boolean paint(GraphicsContext gc, GlyphAtlas atlas) {
+        long squares;
+        synchronized (this) {
+            squares = dirty;
+            if (squares == 0) return false;
+            dirty = 0;
+            for (long rest = squares; rest != 0; rest &= rest - 1) {
+                int square = Long.numberOfTrailingZeros(rest);
+                shown[square] = pending[square];
+            }
+            shownFrom = lastFrom;
+            shownTo = lastTo;
+        }
+
+        for (long rest = squares; rest != 0; rest &= rest - 1) {
+            int square = Long.numberOfTrailingZeros(rest);
+            int row = square >>> 3;
+            int col = square & 7;
+            double cellX = x + col * cellSize;
+            double cellY = y + row * cellSize;
+            boolean light = ((row + col) & 1) == 0;
+            boolean lastMove = square == shownFrom || square == shownTo;
+            gc.setFill(lastMove ? (light ? LIGHT_LAST_MOVE : DARK_LAST_MOVE) : (light ? LIGHT : DARK));
+            gc.fillRect(cellX, cellY, cellSize, cellSize);
+            if (shown[square] != 0) {
+                atlas.draw(gc, shown[square] - 1, cellX, cellY);
+            }
+        }
+        return true;
+    }
+
+    private static long bit(int square) {
+        return square < 0 ? 0 : 1L << square;
+    }
+}
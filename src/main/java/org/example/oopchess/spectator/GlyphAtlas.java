@@ -0,0 +1,56 @@
+package org.example.oopchess.spectator;
+
+import javafx.geometry.VPos;
+import javafx.scene.SnapshotParameters;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.image.Image;
+import javafx.scene.paint.Color;
+import javafx.scene.text.Font;
+import javafx.scene.text.FontWeight;
+import javafx.scene.text.TextAlignment;
+import org.example.oopchess.enums.PieceColor;
+import org.example.oopchess.enums.PieceType;
+import org.example.oopchess.models.pieces.Piece;
+
+// Все 12 фигур, один раз растеризованные в полосу под размер клетки: на каждом кадре фигура -
+// это копирование прямоугольника из картинки, без раскладки текста и шрифтов.
+// Создается в потоке JavaFX (нужен snapshot).
+class GlyphAtlas {
+    private final Image image;
+    private final double cellSize;
+
+    GlyphAtlas(double cellSize) {
+        this.cellSize = cellSize;
+        Canvas canvas = new Canvas(cellSize * 12, cellSize);
+        GraphicsContext gc = canvas.getGraphicsContext2D();
+        gc.setFont(Font.font("System", FontWeight.BOLD, cellSize * 0.8));
+        gc.setTextAlign(TextAlignment.CENTER);
+        gc.setTextBaseline(VPos.CENTER);
+        gc.setLineWidth(Math.max(1, cellSize / 40));
+
+        for (PieceColor color : PieceColor.values()) {
+            for (PieceType type : PieceType.values()) {
+                int index = color.ordinal() * 6 + type.ordinal();
+                String glyph = String.valueOf(Piece.of(type, color).getSymbol());
+                double x = index * cellSize + cellSize / 2;
+                double y = cellSize / 2;
+                gc.setFill(color == PieceColor.WHITE ? Color.WHITE : Color.BLACK);
+                gc.fillText(glyph, x, y);
+                if (color == PieceColor.WHITE) {
+                    gc.setStroke(Color.BLACK); // белая фигура без контура теряется на светлой клетке
+                    gc.strokeText(glyph, x, y);
+                }
+            }
+        }
+
+        SnapshotParameters parameters = new SnapshotParameters();
+        parameters.setFill(Color.TRANSPARENT);
+        image = canvas.snapshot(parameters, null);
+    }
+
+    // index - color * 6 + type, как в Board
+    void draw(GraphicsContext gc, int index, double x, double y) {
+        gc.drawImage(image, index * cellSize, 0, cellSize, cellSize, x, y, cellSize, cellSize);
+    }
+}
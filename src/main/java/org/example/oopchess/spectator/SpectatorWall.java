@@ -0,0 +1,100 @@
+package org.example.oopchess.spectator;
+
+import javafx.animation.AnimationTimer;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.paint.Color;
+import org.example.oopchess.rules.GameController;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Стена из многих досок на одном Canvas: весь экран - один узел сцены вместо сотен на доску.
+// Один AnimationTimer на всю стену: на каждом импульсе обходит доски и перерисовывает только грязные клетки,
+// так что кадр без ходов ничего не рисует, а кадр с ходами на 100 досках - несколько сотен fillRect/drawImage.
+public class SpectatorWall {
+    private static final double GAP = 6;
+
+    private final int columns;
+    private final int rows;
+    private final double cellSize;
+    private final Canvas canvas;
+    private final GraphicsContext gc;
+    private final GlyphAtlas atlas;
+    private final List<BoardTile> tiles = new ArrayList<>();
+    private final AnimationTimer timer;
+
+    private long frameCount;
+    private long fpsWindowStart;
+    private volatile double fps;
+
+    // создается в потоке JavaFX
+    public SpectatorWall(int columns, int rows, double cellSize) {
+        this.columns = columns;
+        this.rows = rows;
+        this.cellSize = cellSize;
+        double boardSize = cellSize * 8;
+        this.canvas = new Canvas(columns * (boardSize + GAP) + GAP, rows * (boardSize + GAP) + GAP);
+        this.gc = canvas.getGraphicsContext2D();
+        this.atlas = new GlyphAtlas(cellSize);
+        gc.setFill(Color.rgb(40, 40, 40));
+        gc.fillRect(0, 0, canvas.getWidth(), canvas.getHeight());
+
+        this.timer = new AnimationTimer() {
+            @Override
+            public void handle(long now) {
+                for (BoardTile tile : tiles) {
+                    tile.paint(gc, atlas);
+                }
+                countFrame(now);
+            }
+        };
+    }
+
+    public Canvas getCanvas() {
+        return canvas;
+    }
+
+    // следующее свободное место стены; партию подключает BoardTile.attach
+    public BoardTile addBoard() {
+        if (tiles.size() == columns * rows) {
+            throw new IllegalStateException("Wall is full: " + tiles.size() + " boards");
+        }
+        int index = tiles.size();
+        double boardSize = cellSize * 8;
+        BoardTile tile = new BoardTile(GAP + (index % columns) * (boardSize + GAP),
+                GAP + (index / columns) * (boardSize + GAP), cellSize);
+        tiles.add(tile);
+        return tile;
+    }
+
+    public BoardTile addBoard(GameController controller) {
+        BoardTile tile = addBoard();
+        tile.attach(controller);
+        return tile;
+    }
+
+    public void start() {
+        timer.start();
+    }
+
+    public void stop() {
+        timer.stop();
+    }
+
+    // кадров в секунду за последнюю секунду
+    public double getFps() {
+        return fps;
+    }
+
+    private void countFrame(long now) {
+        if (fpsWindowStart == 0) fpsWindowStart = now;
+        frameCount++;
+        long elapsed = now - fpsWindowStart;
+        if (elapsed >= 1_000_000_000L) {
+            fps = frameCount * 1e9 / elapsed;
+            frameCount = 0;
+            fpsWindowStart = now;
+        }
+    }
+}
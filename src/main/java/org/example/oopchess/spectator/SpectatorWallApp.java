@@ -0,0 +1,88 @@
+package org.example.oopchess.spectator;
+
+import javafx.animation.AnimationTimer;
+import javafx.application.Application;
+import javafx.scene.Scene;
+import javafx.scene.layout.StackPane;
+import javafx.stage.Stage;
+import org.example.oopchess.enums.GameState;
+import org.example.oopchess.models.board.Bitboards;
+import org.example.oopchess.models.board.PackedMove;
+import org.example.oopchess.rules.GameController;
+import org.example.oopchess.rules.MoveGenerator;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// Демонстрация и замер стены: N партий случайными ходами в отдельном потоке, FPS в заголовке окна.
+//   SpectatorWallApp [досок] [мс между ходами в партии]
+public class SpectatorWallApp extends Application {
+    private ScheduledExecutorService games;
+
+    @Override
+    public void start(Stage stage) {
+        int boards = getParameters().getRaw().size() > 0 ? Integer.parseInt(getParameters().getRaw().get(0)) : 100;
+        long moveMillis = getParameters().getRaw().size() > 1 ? Long.parseLong(getParameters().getRaw().get(1)) : 250;
+        int columns = (int) Math.ceil(Math.sqrt(boards));
+        int rows = (boards + columns - 1) / columns;
+
+        SpectatorWall wall = new SpectatorWall(columns, rows, 12);
+        GameController[] controllers = new GameController[boards];
+        for (int i = 0; i < boards; i++) {
+            controllers[i] = new GameController();
+            wall.addBoard(controllers[i]);
+        }
+
+        // все партии в одном потоке: контроллер не потокобезопасен, а слушатели стены читают доску в потоке хода
+        games = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "spectator-games");
+            thread.setDaemon(true);
+            return thread;
+        });
+        int[] moves = new int[MoveGenerator.MAX_MOVES];
+        long tick = Math.max(1, moveMillis * 1000 / boards);
+        int[] next = {0};
+        games.scheduleAtFixedRate(() -> {
+            int i = next[0]++ % boards;
+            GameController controller = controllers[i];
+            int count = controller.getLegalMoves(moves);
+            GameState state = controller.getGameState();
+            if (count == 0 || (state != GameState.PLAYING && state != GameState.CHECK)) {
+                controller.initGame(); // плитка перечитает доску в onNewGame
+                return;
+            }
+            int move = moves[ThreadLocalRandom.current().nextInt(count)];
+            int from = PackedMove.from(move);
+            int to = PackedMove.to(move);
+            controller.makeMove(Bitboards.rowOf(from), Bitboards.colOf(from), Bitboards.rowOf(to), Bitboards.colOf(to),
+                    PackedMove.promotionType(move));
+        }, 0, tick, TimeUnit.MICROSECONDS);
+
+        new AnimationTimer() {
+            private long lastTitle;
+
+            @Override
+            public void handle(long now) {
+                if (now - lastTitle > 500_000_000L) {
+                    stage.setTitle(String.format("Spectator wall: %d boards, %.0f fps", boards, wall.getFps()));
+                    lastTitle = now;
+                }
+            }
+        }.start();
+
+        wall.start();
+        stage.setScene(new Scene(new StackPane(wall.getCanvas())));
+        stage.show();
+    }
+
+    @Override
+    public void stop() {
+        if (games != null) games.shutdownNow();
+    }
+
+    public static void main(String[] args) {
+        launch(args);
+    }
+}
@@ -0,0 +1,151 @@
+package org.example.oopchess.storage;
+
+import org.example.oopchess.enums.GameResult;
+import org.example.oopchess.models.board.Board;
+import org.example.oopchess.models.board.Fen;
+import org.example.oopchess.models.board.PackedMove;
+import org.example.oopchess.rules.MoveGenerator;
+
+import java.nio.charset.StandardCharsets;
+
+// Окно на одну партию отображенного архива: заголовок разбирается в seek, ходы читаются прямо из
+// отображения без копирования. Объект переиспользуется для разных партий; у каждого потока - свой.
+public class ArchiveGame {
+    private static final GameResult[] RESULTS = GameResult.values();
+
+    private final MappedFile data;
+    private final int[] legalMoves = new int[MoveGenerator.MAX_MOVES];
+    private long cursor;
+
+    private int index = -1;
+    private long offset;
+    private long end; // конец записи: все длины внутри тела сверяются с ним, а не с размером файла
+    private long timestamp;
+    private long whitePosition;
+    private long blackPosition;
+    private long fenPosition;
+    private GameResult result;
+    private int moveCount;
+    private long movesPosition;
+
+    ArchiveGame(MappedFile data) {
+        this.data = data;
+    }
+
+    void seek(int index, long offset) {
+        this.index = index;
+        this.offset = offset;
+        cursor = offset;
+        end = data.size();
+        long length = readVarint();
+        if (length < 0 || length > end - cursor) throw corrupt("record length " + length + " runs past the archive");
+        end = cursor + length;
+        timestamp = readVarint();
+        whitePosition = cursor;
+        skipString();
+        blackPosition = cursor;
+        skipString();
+        fenPosition = cursor;
+        skipString();
+        if (cursor >= end) throw corrupt("missing game result");
+        int resultIndex = data.getByte(cursor++);
+        if (resultIndex < 0 || resultIndex >= RESULTS.length) throw corrupt("bad game result " + resultIndex);
+        result = RESULTS[resultIndex];
+        long count = readVarint();
+        movesPosition = cursor;
+        if (count < 0 || count > (end - movesPosition) / 2) throw corrupt("truncated move list");
+        moveCount = (int) count;
+    }
+
+    public int getIndex() {
+        return index;
+    }
+
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    public String getWhite() {
+        return stringAt(whitePosition);
+    }
+
+    public String getBlack() {
+        return stringAt(blackPosition);
+    }
+
+    public String getStartFen() {
+        return stringAt(fenPosition);
+    }
+
+    public GameResult getResult() {
+        return result;
+    }
+
+    public int getMoveCount() {
+        return moveCount;
+    }
+
+    public int getMove(int ply) {
+        long position = movesPosition + 2L * ply;
+        return ((data.getByte(position) & 0xFF) << 8) | (data.getByte(position + 1) & 0xFF);
+    }
+
+    public void replay(Board board) {
+        replay(board, moveCount);
+    }
+
+    // позиция после первых plies ходов партии; битая запись - IllegalArgumentException со смещением партии
+    public void replay(Board board, int plies) {
+        if (data.getByte(fenPosition) == 0) {
+            board.initBoard();
+        } else {
+            try {
+                Fen.load(board, getStartFen());
+            } catch (IllegalArgumentException e) {
+                throw corrupt(e.getMessage());
+            }
+        }
+        int count = Math.min(plies, moveCount);
+        for (int i = 0; i < count; i++) {
+            applyMove(board, i);
+        }
+    }
+
+    // ход ply партии поверх позиции после предыдущих, только если он легален
+    void applyMove(Board board, int ply) {
+        int move = getMove(ply);
+        if (!board.getMoveValidator().getMoveGenerator().isLegalMove(move, legalMoves)) {
+            throw corrupt("illegal move " + PackedMove.toString(move) + " at ply " + ply);
+        }
+        board.makeMove(move);
+    }
+
+    private IllegalArgumentException corrupt(String reason) {
+        return new IllegalArgumentException("Corrupt game " + index + " at offset " + offset + ": " + reason);
+    }
+
+    private long readVarint() {
+        long value = 0;
+        for (int shift = 0; shift < 64 && cursor < end; shift += 7) {
+            int b = data.getByte(cursor++);
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) return value;
+        }
+        throw corrupt("malformed varint");
+    }
+
+    private void skipString() {
+        long length = readVarint();
+        if (length < 0 || length > end - cursor) throw corrupt("bad string length " + length);
+        cursor += length;
+    }
+
+    private String stringAt(long position) {
+        cursor = position;
+        byte[] bytes = new byte[(int) readVarint()];
+        for (int i = 0; i < bytes.length; i++) {
+            bytes[i] = data.getByte(cursor + i);
+        }
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
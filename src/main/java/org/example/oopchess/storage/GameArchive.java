@@ -0,0 +1,238 @@
+package org.example.oopchess.storage;
+
+import org.example.oopchess.models.board.Board;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+// Архив партий, отображенный в память, с произвольным доступом.
+//
+// Рядом с архивом хранятся индексы (тоже отображаются, открытие мгновенное):
+//   <архив>.idx  - смещения партий: заголовок 32 байта, затем по long на партию;
+//   <архив>.pidx - необязательный индекс позиций: открытая адресация по хешу позиции,
+//                  слоты (hash, ссылка на партию и полуход), строится buildPositionIndex().
+// Индекс с другим размером архива считается устаревшим и перестраивается.
+// Один GameArchive можно читать из многих потоков, у каждого потока - свои ArchiveGame и Board.
+public class GameArchive implements Closeable {
+    private static final long INDEX_MAGIC = 0x4F4347494458_0001L; // "OCGIDX", версия 1
+    private static final long POSITION_MAGIC = 0x4F4347504958_0001L; // "OCGPIX", версия 1
+    private static final int HEADER_SIZE = 32;
+
+    private final Path path;
+    private final MappedFile data;
+    private MappedFile index;
+    private MappedFile positions;
+    private int gameCount;
+    private long positionSlots;
+
+    private GameArchive(Path path, MappedFile data) {
+        this.path = path;
+        this.data = data;
+    }
+
+    public static GameArchive open(Path path) throws IOException {
+        MappedFile data = MappedFile.openReadOnly(path);
+        checkHeader(data);
+        GameArchive archive = new GameArchive(path, data);
+        archive.openIndex();
+        archive.openPositionIndex();
+        return archive;
+    }
+
+    private static void checkHeader(MappedFile data) throws IOException {
+        if (data.size() < GameRecordFormat.FILE_HEADER_SIZE) {
+            throw new IOException("Not a game record stream");
+        }
+        for (int i = 0; i < GameRecordFormat.MAGIC.length; i++) {
+            if (data.getByte(i) != GameRecordFormat.MAGIC[i]) {
+                throw new IOException("Not a game record stream");
+            }
+        }
+        if (data.getByte(GameRecordFormat.MAGIC.length) != GameRecordFormat.VERSION) {
+            throw new IOException("Unsupported game record version: " + data.getByte(GameRecordFormat.MAGIC.length));
+        }
+    }
+
+    private void openIndex() throws IOException {
+        Path indexPath = sibling(".idx");
+        if (Files.exists(indexPath)) {
+            MappedFile existing = MappedFile.openReadOnly(indexPath);
+            if (existing.size() >= HEADER_SIZE && existing.getLong(0) == INDEX_MAGIC && existing.getLong(8) == data.size()) {
+                index = existing;
+                gameCount = (int) existing.getLong(16);
+                return;
+            }
+            existing.close();
+        }
+        buildIndex(indexPath);
+    }
+
+    // проход по длинам записей - тела партий не разбираются
+    private void buildIndex(Path indexPath) throws IOException {
+        long[] offsets = new long[1024];
+        int count = 0;
+        long position = GameRecordFormat.FILE_HEADER_SIZE;
+        while (position < data.size()) {
+            if (count == offsets.length) offsets = Arrays.copyOf(offsets, count * 2);
+            offsets[count++] = position;
+            long length = 0;
+            for (int shift = 0; ; shift += 7) {
+                // длина оборвана концом файла
+                if (position >= data.size() || shift >= 64) throw new IOException("Truncated game archive: " + path);
+                int b = data.getByte(position++);
+                length |= (long) (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) break;
+            }
+            // отрицательная длина отправила бы позицию назад, и цикл не закончился бы
+            if (length < 0 || length > data.size() - position) throw new IOException("Truncated game archive: " + path);
+            position += length;
+        }
+
+        MappedFile created = MappedFile.create(indexPath, HEADER_SIZE + 8L * count);
+        created.putLong(0, INDEX_MAGIC);
+        created.putLong(8, data.size());
+        created.putLong(16, count);
+        for (int i = 0; i < count; i++) {
+            created.putLong(HEADER_SIZE + 8L * i, offsets[i]);
+        }
+        created.force();
+        index = created;
+        gameCount = count;
+    }
+
+    private void openPositionIndex() throws IOException {
+        Path positionPath = sibling(".pidx");
+        if (!Files.exists(positionPath)) return;
+        MappedFile existing = MappedFile.openReadOnly(positionPath);
+        if (existing.size() >= HEADER_SIZE && existing.getLong(0) == POSITION_MAGIC && existing.getLong(8) == data.size()) {
+            positions = existing;
+            positionSlots = existing.getLong(16);
+        } else {
+            existing.close();
+        }
+    }
+
+    public int getGameCount() {
+        return gameCount;
+    }
+
+    public long offsetOf(int game) {
+        if (game < 0 || game >= gameCount) {
+            throw new IndexOutOfBoundsException("Game " + game + " of " + gameCount);
+        }
+        return index.getLong(HEADER_SIZE + 8L * game);
+    }
+
+    // новое окно для чтения партий; окна не потокобезопасны, архив - да
+    public ArchiveGame newView() {
+        return new ArchiveGame(data);
+    }
+
+    public ArchiveGame read(int game, ArchiveGame view) {
+        view.seek(game, offsetOf(game));
+        return view;
+    }
+
+    public ArchiveGame read(int game) {
+        return read(game, newView());
+    }
+
+    // позиция партии game после ply полуходов
+    public void replay(int game, int ply, Board board) {
+        read(game).replay(board, ply);
+    }
+
+    public boolean hasPositionIndex() {
+        return positions != null;
+    }
+
+    // индекс всех позиций всех партий (после каждого полухода). Проигрывает весь архив, поэтому строится явно.
+    public void buildPositionIndex() throws IOException {
+        ArchiveGame view = newView();
+        long entries = 0;
+        for (int game = 0; game < gameCount; game++) {
+            entries += read(game, view).getMoveCount();
+        }
+        long slots = Long.highestOneBit(Math.max(1, entries * 2 - 1)) << 1; // заполнение не больше половины
+
+        Path positionPath = sibling(".pidx");
+        if (positions != null) {
+            positions.close();
+            positions = null;
+        }
+        MappedFile created = MappedFile.create(positionPath, HEADER_SIZE + 16 * slots);
+        Board board = new Board();
+        try {
+            for (int game = 0; game < gameCount; game++) {
+                read(game, view).replay(board, 0);
+                for (int ply = 0; ply < view.getMoveCount(); ply++) {
+                    view.applyMove(board, ply);
+                    insert(created, slots, board.getHash(), reference(game, ply + 1));
+                }
+            }
+        } catch (IllegalArgumentException e) {
+            created.close(); // без заголовка недостроенный индекс при следующем open не примется
+            throw e;
+        }
+        created.putLong(0, POSITION_MAGIC);
+        created.putLong(8, data.size());
+        created.putLong(16, slots);
+        created.putLong(24, entries);
+        created.force();
+        positions = created;
+        positionSlots = slots;
+    }
+
+    private static void insert(MappedFile table, long slots, long hash, long reference) {
+        long slot = hash & (slots - 1);
+        while (table.getLong(HEADER_SIZE + 16 * slot + 8) != 0) {
+            slot = (slot + 1) & (slots - 1);
+        }
+        table.putLong(HEADER_SIZE + 16 * slot, hash);
+        table.putLong(HEADER_SIZE + 16 * slot + 8, reference);
+    }
+
+    // все вхождения позиции: ссылки для gameOf/plyOf; пустой массив, если позиции нет или индекс не построен
+    public long[] findPosition(long hash) {
+        if (positions == null) return new long[0];
+        long[] found = new long[8];
+        int count = 0;
+        long slot = hash & (positionSlots - 1);
+        long reference;
+        while ((reference = positions.getLong(HEADER_SIZE + 16 * slot + 8)) != 0) {
+            if (positions.getLong(HEADER_SIZE + 16 * slot) == hash) {
+                if (count == found.length) found = Arrays.copyOf(found, count * 2);
+                found[count++] = reference - 1;
+            }
+            slot = (slot + 1) & (positionSlots - 1);
+        }
+        return Arrays.copyOf(found, count);
+    }
+
+    // +1, чтобы ссылка не совпадала с пустым слотом
+    private static long reference(int game, int ply) {
+        return (((long) game << 16) | ply) + 1;
+    }
+
+    public static int gameOf(long reference) {
+        return (int) (reference >>> 16);
+    }
+
+    public static int plyOf(long reference) {
+        return (int) (reference & 0xFFFF);
+    }
+
+    private Path sibling(String suffix) {
+        return path.resolveSibling(path.getFileName() + suffix);
+    }
+
+    @Override
+    public void close() throws IOException {
+        data.close();
+        if (index != null) index.close();
+        if (positions != null) positions.close();
+    }
+}
@@ -0,0 +1,18 @@
+package org.example.oopchess.storage;
+
+// Двоичный формат архива партий.
+//
+// Файл:   MAGIC (4 байта "OCGR"), VERSION (1 байт), затем партии подряд до конца потока.
+// Партия: varint длина тела, тело:
+//         varint время (секунды эпохи), строка белые, строка черные,
+//         строка начальная позиция FEN (пустая - обычная начальная), байт результата (GameResult.ordinal),
+//         varint число ходов, ходы по 2 байта (младшие 16 бит PackedMove, big-endian).
+// Строка: varint длина в байтах + UTF-8.
+// Длина тела впереди позволяет пропускать партии, не разбирая их.
+public final class GameRecordFormat {
+    public static final byte[] MAGIC = {'O', 'C', 'G', 'R'};
+    public static final int VERSION = 1;
+    public static final int FILE_HEADER_SIZE = MAGIC.length + 1;
+
+    private GameRecordFormat() {}
+}
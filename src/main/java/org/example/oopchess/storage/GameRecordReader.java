@@ -0,0 +1,197 @@
+package org.example.oopchess.storage;
+
+import org.example.oopchess.enums.GameResult;
+import org.example.oopchess.models.board.Board;
+import org.example.oopchess.models.board.Fen;
+import org.example.oopchess.models.board.PackedMove;
+import org.example.oopchess.rules.MoveGenerator;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+// Потоковое чтение архива партий. next() переходит к следующей партии, переиспользуя буферы;
+// строки заголовка декодируются только по запросу, ходы проигрываются прямо в Board без объектов Move.
+public class GameRecordReader implements Closeable {
+    private static final GameResult[] RESULTS = GameResult.values();
+
+    private final InputStream in;
+    private byte[] body = new byte[1024];
+    private int bodyLength;
+    private int position; // позиция разбора внутри body
+    private int[] moves = new int[256];
+    private int moveCount;
+    private final int[] legalMoves = new int[MoveGenerator.MAX_MOVES];
+    private long recordIndex = -1; // номер текущей партии в потоке, для сообщений об ошибках
+
+    private long timestamp;
+    private int whiteOffset;
+    private int blackOffset;
+    private int fenOffset;
+    private GameResult result;
+
+    public GameRecordReader(InputStream in) throws IOException {
+        this.in = in instanceof BufferedInputStream ? in : new BufferedInputStream(in, 1 << 16);
+        byte[] header = this.in.readNBytes(GameRecordFormat.FILE_HEADER_SIZE);
+        if (header.length != GameRecordFormat.FILE_HEADER_SIZE
+                || !Arrays.equals(header, 0, GameRecordFormat.MAGIC.length, GameRecordFormat.MAGIC, 0, GameRecordFormat.MAGIC.length)) {
+            throw new IOException("Not a game record stream");
+        }
+        if (header[GameRecordFormat.MAGIC.length] != GameRecordFormat.VERSION) {
+            throw new IOException("Unsupported game record version: " + header[GameRecordFormat.MAGIC.length]);
+        }
+    }
+
+    public GameRecordReader(Path path) throws IOException {
+        this(Files.newInputStream(path));
+    }
+
+    // false - архив закончился
+    public boolean next() throws IOException {
+        int first = in.read();
+        if (first < 0) return false;
+        recordIndex++;
+
+        long length = first & 0x7F;
+        for (int shift = 7; (first & 0x80) != 0; shift += 7) {
+            first = in.read();
+            if (first < 0 || shift > 28) throw new IOException("Malformed record length");
+            length |= (long) (first & 0x7F) << shift;
+        }
+        // запас под заголовок массива, как у ArrayList; иначе (int) length переполнится
+        if (length > Integer.MAX_VALUE - 8) throw new IOException("Game record too long: " + length);
+        if (length > body.length) {
+            body = new byte[(int) Math.max(length, body.length * 2L)];
+        }
+        bodyLength = (int) length;
+        if (in.readNBytes(body, 0, bodyLength) != bodyLength) {
+            throw new EOFException("Truncated game record");
+        }
+        parse();
+        return true;
+    }
+
+    // тело партии уже в памяти, поэтому разбираем его из массива, а не из потока
+    private void parse() throws IOException {
+        position = 0;
+        timestamp = readVarint();
+        whiteOffset = position;
+        skipString();
+        blackOffset = position;
+        skipString();
+        fenOffset = position;
+        skipString();
+        if (position >= bodyLength) throw new IOException("Missing game result");
+        int resultIndex = body[position++];
+        if (resultIndex < 0 || resultIndex >= RESULTS.length) throw new IOException("Bad game result: " + resultIndex);
+        result = RESULTS[resultIndex];
+
+        long count = readVarint();
+        if (count < 0 || count > (bodyLength - position) / 2) throw new IOException("Truncated move list");
+        moveCount = (int) count;
+        if (moveCount > moves.length) {
+            moves = new int[Math.max(moveCount, moves.length * 2)];
+        }
+        for (int i = 0; i < moveCount; i++) {
+            moves[i] = ((body[position] & 0xFF) << 8) | (body[position + 1] & 0xFF);
+            position += 2;
+        }
+    }
+
+    private long readVarint() throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 64 && position < bodyLength; shift += 7) {
+            int b = body[position++];
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) return value;
+        }
+        throw new IOException("Malformed varint");
+    }
+
+    // длина проверяется по концу записи: буфер переиспользуется, за bodyLength лежат байты прошлой партии
+    private void skipString() throws IOException {
+        long length = readVarint();
+        if (length < 0 || length > bodyLength - position) throw new IOException("Bad string length: " + length);
+        position += (int) length;
+    }
+
+    private String stringAt(int offset) {
+        position = offset;
+        try {
+            int length = (int) readVarint();
+            return new String(body, position, length, StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new IllegalStateException(e); // тело уже проверено в parse()
+        }
+    }
+
+    public String getWhite() {
+        return stringAt(whiteOffset);
+    }
+
+    public String getBlack() {
+        return stringAt(blackOffset);
+    }
+
+    // пустая строка - обычная начальная позиция
+    public String getStartFen() {
+        return stringAt(fenOffset);
+    }
+
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    public GameResult getResult() {
+        return result;
+    }
+
+    public int getMoveCount() {
+        return moveCount;
+    }
+
+    public int getMove(int index) {
+        return moves[index];
+    }
+
+    public void replay(Board board) {
+        replay(board, moveCount);
+    }
+
+    // расставляет начальную позицию и делает первые plies ходов быстрым путем Board.makeMove(int);
+    // каждый ход сверяется со списком легальных, битая запись - IllegalArgumentException с номером партии
+    public void replay(Board board, int plies) {
+        if (body[fenOffset] == 0) {
+            board.initBoard();
+        } else {
+            try {
+                Fen.load(board, getStartFen());
+            } catch (IllegalArgumentException e) {
+                throw corrupt(e.getMessage());
+            }
+        }
+        MoveGenerator generator = board.getMoveValidator().getMoveGenerator();
+        int count = Math.min(plies, moveCount);
+        for (int i = 0; i < count; i++) {
+            if (!generator.isLegalMove(moves[i], legalMoves)) {
+                throw corrupt("illegal move " + PackedMove.toString(moves[i]) + " at ply " + i);
+            }
+            board.makeMove(moves[i]);
+        }
+    }
+
+    private IllegalArgumentException corrupt(String reason) {
+        return new IllegalArgumentException("Corrupt game record " + recordIndex + ": " + reason);
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+}
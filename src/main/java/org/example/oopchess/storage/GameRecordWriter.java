@@ -0,0 +1,145 @@
+package org.example.oopchess.storage;
+
+import org.example.oopchess.enums.GameResult;
+import org.example.oopchess.rules.MoveListener;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+// Потоковая запись партий в формате GameRecordFormat.
+// Подписывается на GameController как MoveListener: ходы текущей партии копятся в short[]
+// (отмена хода просто укорачивает буфер), а в поток партия уходит целиком в endGame.
+public class GameRecordWriter implements MoveListener, Closeable {
+    private final OutputStream out;
+    private final ByteArrayOutputStream body = new ByteArrayOutputStream(1024);
+    private long bytesWritten;
+    private long gamesWritten;
+
+    private String white;
+    private String black;
+    private String startFen;
+    private long timestamp;
+    private short[] moves = new short[256];
+    private int moveCount;
+    private boolean inGame;
+
+    public GameRecordWriter(OutputStream out) throws IOException {
+        this.out = out instanceof BufferedOutputStream ? out : new BufferedOutputStream(out, 1 << 16);
+        this.out.write(GameRecordFormat.MAGIC);
+        this.out.write(GameRecordFormat.VERSION);
+        bytesWritten = GameRecordFormat.FILE_HEADER_SIZE;
+    }
+
+    public GameRecordWriter(Path path) throws IOException {
+        this(Files.newOutputStream(path));
+    }
+
+    public void beginGame(String white, String black) {
+        beginGame(white, black, "", System.currentTimeMillis() / 1000);
+    }
+
+    // startFen - пустая строка для обычной начальной позиции
+    public void beginGame(String white, String black, String startFen, long timestamp) {
+        if (inGame) {
+            throw new IllegalStateException("Game already started");
+        }
+        this.white = white;
+        this.black = black;
+        this.startFen = startFen;
+        this.timestamp = timestamp;
+        moveCount = 0;
+        inGame = true;
+    }
+
+    @Override
+    public void onMove(int move) {
+        if (!inGame) return;
+        if (moveCount == moves.length) {
+            moves = Arrays.copyOf(moves, moves.length * 2);
+        }
+        moves[moveCount++] = (short) move;
+    }
+
+    @Override
+    public void onUndo(int move) {
+        if (inGame && moveCount > 0) moveCount--;
+    }
+
+    // контроллер начал новую партию, не дождавшись endGame: незаконченная партия без результата
+    // отбрасывается, ходы новой не пишутся, пока не вызван beginGame
+    @Override
+    public void onNewGame() {
+        inGame = false;
+        moveCount = 0;
+    }
+
+    // возвращает смещение записи партии в потоке - пригодится для индекса
+    public long endGame(GameResult result) throws IOException {
+        if (!inGame) {
+            throw new IllegalStateException("No game in progress");
+        }
+        inGame = false;
+        return write(result);
+    }
+
+    // запись готовой партии без подписки на контроллер (конвертация, пакетная обработка)
+    public long writeGame(String white, String black, String startFen, long timestamp,
+                          GameResult result, int[] packedMoves, int count) throws IOException {
+        beginGame(white, black, startFen, timestamp);
+        for (int i = 0; i < count; i++) {
+            onMove(packedMoves[i]);
+        }
+        return endGame(result);
+    }
+
+    private long write(GameResult result) throws IOException {
+        body.reset();
+        Varint.write(body, timestamp);
+        writeString(white);
+        writeString(black);
+        writeString(startFen);
+        body.write(result.ordinal());
+        Varint.write(body, moveCount);
+        for (int i = 0; i < moveCount; i++) {
+            body.write(moves[i] >>> 8);
+            body.write(moves[i]);
+        }
+
+        long offset = bytesWritten;
+        Varint.write(out, body.size());
+        body.writeTo(out);
+        bytesWritten += Varint.size(body.size()) + body.size();
+        gamesWritten++;
+        return offset;
+    }
+
+    private void writeString(String value) throws IOException {
+        byte[] bytes = value == null ? new byte[0] : value.getBytes(StandardCharsets.UTF_8);
+        Varint.write(body, bytes.length);
+        body.write(bytes);
+    }
+
+    public long getBytesWritten() {
+        return bytesWritten;
+    }
+
+    public long getGamesWritten() {
+        return gamesWritten;
+    }
+
+    public void flush() throws IOException {
+        out.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        out.close();
+    }
+}
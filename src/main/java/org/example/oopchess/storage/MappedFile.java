@@ -0,0 +1,72 @@
+package org.example.oopchess.storage;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+// Файл, отображенный в память кусками по 1 ГБ (один MappedByteBuffer адресует не больше 2 ГБ).
+// Чтение только абсолютными get, без позиции буфера, поэтому одно отображение можно читать из многих потоков.
+// long читаются и пишутся по смещениям, кратным 8, - такой long никогда не пересекает границу куска.
+public class MappedFile implements Closeable {
+    private static final int CHUNK_BITS = 30;
+    private static final long CHUNK_SIZE = 1L << CHUNK_BITS;
+    private static final long CHUNK_MASK = CHUNK_SIZE - 1;
+
+    private final FileChannel channel;
+    private final MappedByteBuffer[] chunks;
+    private final long size;
+
+    private MappedFile(FileChannel channel, FileChannel.MapMode mode, long size) throws IOException {
+        this.channel = channel;
+        this.size = size;
+        int count = (int) ((size + CHUNK_SIZE - 1) >>> CHUNK_BITS);
+        chunks = new MappedByteBuffer[count];
+        for (int i = 0; i < count; i++) {
+            long start = (long) i << CHUNK_BITS;
+            chunks[i] = channel.map(mode, start, Math.min(CHUNK_SIZE, size - start));
+        }
+    }
+
+    public static MappedFile openReadOnly(Path path) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+        return new MappedFile(channel, FileChannel.MapMode.READ_ONLY, channel.size());
+    }
+
+    // новый файл заданного размера для записи (индексы)
+    public static MappedFile create(Path path, long size) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        return new MappedFile(channel, FileChannel.MapMode.READ_WRITE, size);
+    }
+
+    public long size() {
+        return size;
+    }
+
+    public byte getByte(long offset) {
+        return chunks[(int) (offset >>> CHUNK_BITS)].get((int) (offset & CHUNK_MASK));
+    }
+
+    public long getLong(long offset) {
+        return chunks[(int) (offset >>> CHUNK_BITS)].getLong((int) (offset & CHUNK_MASK));
+    }
+
+    public void putLong(long offset, long value) {
+        chunks[(int) (offset >>> CHUNK_BITS)].putLong((int) (offset & CHUNK_MASK), value);
+    }
+
+    public void force() {
+        for (MappedByteBuffer chunk : chunks) {
+            chunk.force();
+        }
+    }
+
+    // само отображение освобождается сборщиком мусора, закрываем только канал
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
@@ -0,0 +1,133 @@
+package org.example.oopchess.tablebase;
+
+import org.example.oopchess.engine.Search;
+import org.example.oopchess.enums.PieceColor;
+import org.example.oopchess.enums.PieceType;
+import org.example.oopchess.models.board.Bitboards;
+import org.example.oopchess.models.board.Board;
+import org.example.oopchess.storage.MappedFile;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+// Эндшпильные таблицы на три фигуры: KQK, KRK, KPK. Каждая - отдельный файл, отображенный в память,
+// по байту на позицию: 0 - ничья, 0xFF - невозможная позиция, иначе n - мат через n - 1 полуходов
+// (выигрывает сильная сторона). Индекс - сторона на ходу, король сильной стороны, король слабой, фигура:
+// 2 * 64^3 байт, то есть 512 КБ на таблицу. Опрос - одно чтение из памяти, без поиска и без аллокаций.
+public class Tablebase implements Closeable {
+    static final byte[] MAGIC = {'O', 'C', 'T', 'B'};
+    static final int VERSION = 1;
+    static final int HEADER_SIZE = 8;
+    static final int POSITIONS = 2 * 64 * 64 * 64;
+    static final byte INVALID = (byte) 0xFF;
+
+    // в позиции не три фигуры или для такого материала нет таблицы
+    public static final int UNKNOWN = Integer.MIN_VALUE;
+
+    private static final PieceType[] TABLE_TYPES = {PieceType.QUEEN, PieceType.ROOK, PieceType.PAWN};
+
+    private final MappedFile[] tables = new MappedFile[PieceType.values().length];
+
+    private Tablebase() {}
+
+    // открывает найденные в каталоге таблицы, недостающих просто не будет
+    public static Tablebase open(Path directory) throws IOException {
+        Tablebase tablebase = new Tablebase();
+        for (PieceType type : TABLE_TYPES) {
+            Path path = directory.resolve(fileName(type));
+            if (Files.exists(path)) {
+                tablebase.tables[type.ordinal()] = openTable(path, type);
+            }
+        }
+        return tablebase;
+    }
+
+    // строит недостающие таблицы (несколько секунд на все три) и открывает каталог
+    public static Tablebase openOrGenerate(Path directory) throws IOException {
+        Files.createDirectories(directory);
+        byte[] queen = readOrGenerate(directory, PieceType.QUEEN, null, null);
+        byte[] rook = readOrGenerate(directory, PieceType.ROOK, null, null);
+        readOrGenerate(directory, PieceType.PAWN, queen, rook);
+        return open(directory);
+    }
+
+    private static byte[] readOrGenerate(Path directory, PieceType type, byte[] queen, byte[] rook) throws IOException {
+        Path path = directory.resolve(fileName(type));
+        if (Files.exists(path)) {
+            byte[] bytes = Files.readAllBytes(path);
+            return Arrays.copyOfRange(bytes, HEADER_SIZE, bytes.length);
+        }
+        byte[] table = TablebaseGenerator.generate(type, queen, rook);
+        Path temporary = directory.resolve(fileName(type) + ".tmp");
+        TablebaseGenerator.write(temporary, type, table);
+        Files.move(temporary, path); // полуготовый файл не должен выглядеть как таблица
+        return table;
+    }
+
+    private static MappedFile openTable(Path path, PieceType type) throws IOException {
+        MappedFile file = MappedFile.openReadOnly(path);
+        boolean valid = file.size() == HEADER_SIZE + POSITIONS && file.getByte(MAGIC.length) == VERSION
+                && file.getByte(MAGIC.length + 1) == type.ordinal();
+        for (int i = 0; i < MAGIC.length && valid; i++) {
+            valid = file.getByte(i) == MAGIC[i];
+        }
+        if (!valid) {
+            file.close();
+            throw new IllegalArgumentException("Not a tablebase file: " + path);
+        }
+        return file;
+    }
+
+    static String fileName(PieceType type) {
+        return "K" + "PNBRQK".charAt(type.ordinal()) + "K.tb";
+    }
+
+    static int index(int stm, int strongKing, int weakKing, int piece) {
+        return stm << 18 | strongKing << 12 | weakKing << 6 | piece;
+    }
+
+    // оценка для стороны на ходу в единицах поиска: 0 - ничья, Search.MATE - n - мат через n полуходов,
+    // -(Search.MATE - n) - получит мат через n полуходов; UNKNOWN - позиция не из таблиц
+    public int probe(Board board) {
+        long occupied = board.getOccupied();
+        if (Long.bitCount(occupied) != 3 || board.getCastlingRights() != 0) return UNKNOWN; // рокировку таблицы не знают
+        long others = occupied & ~kings(board);
+        if (Long.bitCount(others) != 1) return UNKNOWN;
+
+        int pieceSquare = Bitboards.lowestSquare(others);
+        PieceColor strong = board.getPiece(pieceSquare).getColor();
+        PieceType type = board.getPiece(pieceSquare).getType();
+        MappedFile table = tables[type.ordinal()];
+        if (table == null) return UNKNOWN;
+
+        PieceColor weak = strong == PieceColor.WHITE ? PieceColor.BLACK : PieceColor.WHITE;
+        int strongKing = board.findKing(strong);
+        int weakKing = board.findKing(weak);
+        if (strong == PieceColor.BLACK) {
+            // черные пешки идут в другую сторону: отражаем доску по горизонтали и меняем цвета
+            strongKing ^= 56;
+            weakKing ^= 56;
+            pieceSquare ^= 56;
+        }
+        int stm = board.getSideToMove() == strong ? 0 : 1;
+        int value = table.getByte(HEADER_SIZE + index(stm, strongKing, weakKing, pieceSquare)) & 0xFF;
+        if (value == (INVALID & 0xFF)) return UNKNOWN;
+        if (value == 0) return 0;
+        int score = Search.MATE - (value - 1);
+        return stm == 0 ? score : -score;
+    }
+
+    private static long kings(Board board) {
+        return board.getBitboard(PieceColor.WHITE, PieceType.KING) | board.getBitboard(PieceColor.BLACK, PieceType.KING);
+    }
+
+    @Override
+    public void close() throws IOException {
+        for (MappedFile table : tables) {
+            if (table != null) table.close();
+        }
+    }
+}
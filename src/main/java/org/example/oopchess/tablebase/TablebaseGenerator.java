@@ -0,0 +1,183 @@
+package org.example.oopchess.tablebase;
+
+import org.example.oopchess.enums.PieceColor;
+import org.example.oopchess.enums.PieceType;
+import org.example.oopchess.models.board.Bitboards;
+import org.example.oopchess.rules.AttackTables;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+// Построение таблиц "король и фигура против короля" ретроградным анализом: от матов назад,
+// проход за проходом по всем позициям. На проходе n сильная сторона получает выигрыш, если есть ход
+// в позицию, проигранную за n - 1 полуходов; слабая - проигрыш, когда все ее ходы ведут в уже выигранные
+// позиции. Так у сильной стороны получается кратчайший мат, у слабой - самая долгая защита.
+// Сильная сторона всегда белая (Tablebase зеркалит позицию), белые пешки идут к строке 0.
+// Ходы считаются прямо на битбордах трех фигур, без Board: проходов десятки, позиций полмиллиона.
+public final class TablebaseGenerator {
+    private static final int PAWN_PUSH = -8;
+
+    private TablebaseGenerator() {}
+
+    // пешечной таблице нужны готовые KQK и KRK - в них ведут превращения
+    public static byte[] generate(PieceType type, byte[] queenTable, byte[] rookTable) {
+        byte[] table = new byte[Tablebase.POSITIONS];
+        boolean pawn = type == PieceType.PAWN;
+        if (pawn && (queenTable == null || rookTable == null)) {
+            throw new IllegalArgumentException("KPK needs KQK and KRK tables");
+        }
+
+        for (int index = 0; index < Tablebase.POSITIONS; index++) {
+            int stm = index >>> 18;
+            int strongKing = (index >>> 12) & 63;
+            int weakKing = (index >>> 6) & 63;
+            int piece = index & 63;
+            if (!isValid(type, stm, strongKing, weakKing, piece)) {
+                table[index] = Tablebase.INVALID;
+            } else if (stm == 1 && isMate(type, strongKing, weakKing, piece)) {
+                table[index] = 1;
+            }
+        }
+
+        // превращения приводят в позиции других таблиц с любым значением, поэтому до их максимума
+        // проходы без изменений еще не значат, что дальше ничего не решится
+        int minPasses = pawn ? Math.max(maxValue(queenTable), maxValue(rookTable)) + 1 : 0;
+        int quietPasses = 0;
+        for (int n = 1; n < 0xFE && (quietPasses < 2 || n <= minPasses); n++) {
+            boolean changed = (n & 1) == 1
+                    ? strongPass(table, type, n, queenTable, rookTable)
+                    : weakPass(table, type, n);
+            quietPasses = changed ? 0 : quietPasses + 1;
+        }
+        return table;
+    }
+
+    // сильная сторона на ходу: выигрыш за n + 1, если есть ход в позицию слабой со значением n
+    private static boolean strongPass(byte[] table, PieceType type, int n, byte[] queenTable, byte[] rookTable) {
+        boolean changed = false;
+        for (int index = 0; index < Tablebase.POSITIONS / 2; index++) {
+            if (table[index] != 0) continue;
+            int strongKing = index >>> 12;
+            int weakKing = (index >>> 6) & 63;
+            int piece = index & 63;
+            if (strongWins(table, type, n, strongKing, weakKing, piece, queenTable, rookTable)) {
+                table[index] = (byte) (n + 1);
+                changed = true;
+            }
+        }
+        return changed;
+    }
+
+    private static boolean strongWins(byte[] table, PieceType type, int n, int strongKing, int weakKing, int piece,
+                                      byte[] queenTable, byte[] rookTable) {
+        long kingMoves = AttackTables.kingAttacks(strongKing) & ~Bitboards.bit(piece) & ~AttackTables.kingAttacks(weakKing);
+        while (kingMoves != 0) {
+            int to = Bitboards.lowestSquare(kingMoves);
+            kingMoves &= kingMoves - 1;
+            if (value(table, Tablebase.index(1, to, weakKing, piece)) == n) return true;
+        }
+
+        if (type != PieceType.PAWN) {
+            long occupied = Bitboards.bit(strongKing) | Bitboards.bit(weakKing) | Bitboards.bit(piece);
+            long pieceMoves = attacks(type, piece, occupied) & ~Bitboards.bit(strongKing) & ~Bitboards.bit(weakKing);
+            while (pieceMoves != 0) {
+                int to = Bitboards.lowestSquare(pieceMoves);
+                pieceMoves &= pieceMoves - 1;
+                if (value(table, Tablebase.index(1, strongKing, weakKing, to)) == n) return true;
+            }
+            return false;
+        }
+
+        int to = piece + PAWN_PUSH;
+        if (to == strongKing || to == weakKing) return false;
+        if (Bitboards.rowOf(to) == 0) {
+            // превращение: дальше считают таблицы ферзя и ладьи; конь и слон не выигрывают
+            int promoted = Tablebase.index(1, strongKing, weakKing, to);
+            return value(queenTable, promoted) == n || value(rookTable, promoted) == n;
+        }
+        if (value(table, Tablebase.index(1, strongKing, weakKing, to)) == n) return true;
+        int doublePush = to + PAWN_PUSH;
+        return Bitboards.rowOf(piece) == 6 && doublePush != strongKing && doublePush != weakKing
+                && value(table, Tablebase.index(1, strongKing, weakKing, doublePush)) == n;
+    }
+
+    // слабая сторона на ходу: проигрыш за n + 1, если каждый ход ведет в выигрыш сильной, а ходы вообще есть
+    private static boolean weakPass(byte[] table, PieceType type, int n) {
+        boolean changed = false;
+        for (int index = Tablebase.POSITIONS / 2; index < Tablebase.POSITIONS; index++) {
+            if (table[index] != 0) continue;
+            int strongKing = (index >>> 12) & 63;
+            int weakKing = (index >>> 6) & 63;
+            int piece = index & 63;
+
+            long occupied = Bitboards.bit(strongKing) | Bitboards.bit(piece); // король уходит - линии за ним открываются
+            long targets = AttackTables.kingAttacks(weakKing) & ~AttackTables.kingAttacks(strongKing)
+                    & ~pieceAttacks(type, piece, occupied);
+            if (targets == 0) continue; // пат
+
+            boolean lost = true;
+            while (targets != 0 && lost) {
+                int to = Bitboards.lowestSquare(targets);
+                targets &= targets - 1;
+                // взятие фигуры - ничья; иначе позиция должна быть уже решена в пользу сильной
+                int child = value(table, Tablebase.index(0, strongKing, to, piece));
+                lost = to != piece && child > 0 && child != (Tablebase.INVALID & 0xFF);
+            }
+            if (lost) {
+                table[index] = (byte) (n + 1);
+                changed = true;
+            }
+        }
+        return changed;
+    }
+
+    private static boolean isValid(PieceType type, int stm, int strongKing, int weakKing, int piece) {
+        if (strongKing == weakKing || strongKing == piece || weakKing == piece) return false;
+        if ((AttackTables.kingAttacks(strongKing) & Bitboards.bit(weakKing)) != 0) return false;
+        if (type == PieceType.PAWN && (Bitboards.rowOf(piece) == 0 || Bitboards.rowOf(piece) == 7)) return false;
+        // сторона не на ходу не может стоять под шахом
+        long occupied = Bitboards.bit(strongKing) | Bitboards.bit(weakKing) | Bitboards.bit(piece);
+        return stm == 1 || (pieceAttacks(type, piece, occupied) & Bitboards.bit(weakKing)) == 0;
+    }
+
+    private static boolean isMate(PieceType type, int strongKing, int weakKing, int piece) {
+        long occupied = Bitboards.bit(strongKing) | Bitboards.bit(weakKing) | Bitboards.bit(piece);
+        if ((pieceAttacks(type, piece, occupied) & Bitboards.bit(weakKing)) == 0) return false;
+        long escapes = AttackTables.kingAttacks(weakKing) & ~AttackTables.kingAttacks(strongKing)
+                & ~pieceAttacks(type, piece, occupied & ~Bitboards.bit(weakKing));
+        return escapes == 0;
+    }
+
+    private static long attacks(PieceType type, int square, long occupied) {
+        return type == PieceType.QUEEN ? AttackTables.queenAttacks(square, occupied) : AttackTables.rookAttacks(square, occupied);
+    }
+
+    private static long pieceAttacks(PieceType type, int square, long occupied) {
+        return type == PieceType.PAWN ? AttackTables.pawnAttacks(PieceColor.WHITE, square) : attacks(type, square, occupied);
+    }
+
+    private static int value(byte[] table, int index) {
+        return table[index] & 0xFF;
+    }
+
+    private static int maxValue(byte[] table) {
+        int max = 0;
+        for (byte value : table) {
+            if (value != Tablebase.INVALID) max = Math.max(max, value & 0xFF);
+        }
+        return max;
+    }
+
+    public static void write(Path path, PieceType type, byte[] table) throws IOException {
+        try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(path), 1 << 16)) {
+            out.write(Tablebase.MAGIC);
+            out.write(Tablebase.VERSION);
+            out.write(type.ordinal());
+            out.write(new byte[Tablebase.HEADER_SIZE - Tablebase.MAGIC.length - 2]);
+            out.write(table);
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package org.example.oopchess.models.board;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+// Разбор и запись FEN: известные позиции возвращаются без изменений, хеш не зависит от того,
+// пришла позиция из FEN или ходами, испорченная строка - IllegalArgumentException
+class FenTest {
+    private static final String[] POSITIONS = {
+            Fen.START_POSITION,
+            "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1",
+            "8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w - - 0 1",
+            "r3k2r/Pppp1ppp/1b3nbN/nP6/BBP1P3/q4N2/Pp1P2PP/R2Q1RK1 w kq - 0 1",
+            "rnbq1k1r/pp1Pbppp/2p5/8/2B5/8/PPP1NnPP/RNBQK2R w KQ - 1 8",
+            "rnbqkbnr/ppp1p1pp/8/3pPp2/8/8/PPPP1PPP/RNBQKBNR w KQkq f6 0 3",
+            "7k/8/6K1/8/8/8/8/R7 b - - 1500 5000"
+    };
+
+    @Test
+    void roundTrip() {
+        Board board = new Board();
+        for (String fen : POSITIONS) {
+            board.loadFen(fen);
+            assertEquals(fen, board.toFen(), fen);
+            assertEquals(fen, board.snapshot().toFen(), fen);
+        }
+    }
+
+    @Test
+    void startPositionMatchesInitBoard() {
+        Board board = new Board();
+        board.initBoard();
+        assertEquals(Fen.START_POSITION, board.toFen());
+        assertEquals(board.getHash(), Board.fromFen(Fen.START_POSITION).getHash());
+    }
+
+    @Test
+    void hashMatchesPlayedMoves() {
+        Board board = new Board();
+        board.initBoard();
+        board.makeMove(PackedMove.of(52, 36, PackedMove.DOUBLE_PAWN_PUSH)); // e2e4
+        board.makeMove(PackedMove.of(11, 27, PackedMove.DOUBLE_PAWN_PUSH)); // d7d5
+        board.makeMove(PackedMove.of(36, 28, 0));                          // e4e5
+        board.makeMove(PackedMove.of(13, 29, PackedMove.DOUBLE_PAWN_PUSH)); // f7f5
+        String fen = "rnbqkbnr/ppp1p1pp/8/3pPp2/8/8/PPPP1PPP/RNBQKBNR w KQkq f6 0 3";
+        assertEquals(fen, board.toFen());
+        assertEquals(board.getHash(), Board.fromFen(fen).getHash());
+    }
+
+    @Test
+    void missingCountersDefault() {
+        assertEquals(Fen.START_POSITION, Board.fromFen("rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq").toFen());
+    }
+
+    @Test
+    void rejectsMalformed() {
+        String[] malformed = {
+                "",
+                "8/8 w",
+                "9/8/8/8/8/8/8/8 w - - 0 1",
+                "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR x KQkq - 0 1",
+                "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNX w KQkq - 0 1",
+                "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq z9 0 1",
+                "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 1234567 1",
+                "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1 extra"
+        };
+        for (String fen : malformed) {
+            assertThrows(IllegalArgumentException.class, () -> Board.fromFen(fen));
+        }
+    }
+}
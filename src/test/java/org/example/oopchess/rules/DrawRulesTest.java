@@ -0,0 +1,65 @@
+package org.example.oopchess.rules;
+
+import org.example.oopchess.enums.GameState;
+import org.example.oopchess.enums.PieceColor;
+import org.example.oopchess.models.board.Board;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Ничьи по правилам в GameController: троекратное повторение, правило 50 ходов, недостаточный материал
+class DrawRulesTest {
+    private static GameController controller(String fen) {
+        GameController controller = new GameController();
+        controller.getBoard().loadFen(fen);
+        return controller;
+    }
+
+    @Test
+    void threefoldRepetition() {
+        GameController controller = new GameController();
+        // Кg1-f3 Кg8-f6 Кf3-g1 Кf6-g8 дважды: начальная позиция встречается в третий раз на восьмом полуходе
+        int[][] shuffle = {{7, 6, 5, 5}, {0, 6, 2, 5}, {5, 5, 7, 6}, {2, 5, 0, 6}};
+        for (int ply = 0; ply < 8; ply++) {
+            assertEquals(GameState.PLAYING, controller.getGameState());
+            int[] move = shuffle[ply % 4];
+            controller.makeMove(move[0], move[1], move[2], move[3]);
+        }
+        assertEquals(GameState.DRAW, controller.getGameState());
+    }
+
+    @Test
+    void fiftyMoveRule() {
+        GameController controller = controller("7k/8/6K1/8/8/8/8/R7 w - - 99 80");
+        controller.makeMove(7, 0, 6, 0); // Лa1-a2, сотый полуход без взятий и ходов пешек
+        assertEquals(100, controller.getBoard().getHalfmoveClock());
+        assertEquals(GameState.DRAW, controller.getGameState());
+    }
+
+    @Test
+    void mateOnHundredthHalfmoveStands() {
+        GameController controller = controller("7k/8/6K1/8/8/8/8/R7 w - - 99 80");
+        controller.makeMove(7, 0, 0, 0); // Лa1-a8#
+        assertEquals(GameState.WIN, controller.getGameState());
+        assertEquals(GameState.CHECKMATE, controller.getPlayerStatus(PieceColor.BLACK));
+    }
+
+    @Test
+    void insufficientMaterialAfterCapture() {
+        GameController controller = controller("7k/8/8/8/8/8/6q1/7K w - - 0 1");
+        controller.makeMove(7, 7, 6, 6); // Крh1:g2, остаются голые короли
+        assertEquals(GameState.DRAW, controller.getGameState());
+    }
+
+    @Test
+    void insufficientMaterial() {
+        assertTrue(Board.fromFen("8/8/8/4k3/8/8/8/K7 w - - 0 1").hasInsufficientMaterial());
+        assertTrue(Board.fromFen("8/8/8/4k3/8/8/8/KN6 w - - 0 1").hasInsufficientMaterial());
+        assertTrue(Board.fromFen("8/8/2b5/4k3/8/8/8/KB6 w - - 0 1").hasInsufficientMaterial(), "bishops on light squares");
+        assertFalse(Board.fromFen("8/8/3b4/4k3/8/8/8/KB6 w - - 0 1").hasInsufficientMaterial(), "opposite-coloured bishops");
+        assertFalse(Board.fromFen("8/8/8/4k3/8/8/8/KNN5 w - - 0 1").hasInsufficientMaterial());
+        assertFalse(Board.fromFen("8/8/8/4k3/8/8/8/KP6 w - - 0 1").hasInsufficientMaterial());
+    }
+}
@@ -0,0 +1,78 @@
+package org.example.oopchess.rules;
+
+import org.example.oopchess.models.board.Board;
+import org.example.oopchess.models.board.PackedMove;
+import org.example.oopchess.perft.Perft;
+import org.example.oopchess.perft.PerftPosition;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Легальность упакованных ходов: число узлов perft на малой глубине, связки, двойной шах,
+// взятие на проходе со вскрытием короля и проверка произвольного хода из файла (isLegalMove)
+class MoveGeneratorTest {
+    private final int[] moves = new int[MoveGenerator.MAX_MOVES];
+
+    private static MoveGenerator generator(Board board) {
+        return board.getMoveValidator().getMoveGenerator();
+    }
+
+    @Test
+    void perftShallow() {
+        for (PerftPosition position : PerftPosition.values()) {
+            Perft perft = new Perft(Board.fromFen(position.getFen()));
+            for (int depth = 1; depth <= 3; depth++) {
+                assertEquals(position.getExpectedNodes(depth), perft.perft(depth), position + " depth " + depth);
+            }
+        }
+    }
+
+    @Test
+    void pinnedPieceHasNoMoves() {
+        Board board = Board.fromFen("4r1k1/8/8/8/8/8/4B3/4K3 w - - 0 1");
+        int count = generator(board).generateLegalMoves(moves, 0);
+        for (int i = 0; i < count; i++) {
+            assertNotEquals(52, PackedMove.from(moves[i]), "pinned bishop moved: " + PackedMove.toString(moves[i]));
+        }
+        int bishopMove = PackedMove.of(52, 43, PackedMove.QUIET); // Сe2-d3 открывает короля
+        assertFalse(generator(board).isLegal(bishopMove));
+        assertFalse(generator(board).isLegalMove(bishopMove, moves));
+    }
+
+    @Test
+    void doubleCheckOnlyKingMoves() {
+        Board board = Board.fromFen("4k3/8/8/8/8/5n2/8/r3K2R w K - 0 1");
+        int count = generator(board).generateLegalMoves(moves, 0);
+        assertTrue(count > 0);
+        for (int i = 0; i < count; i++) {
+            assertEquals(60, PackedMove.from(moves[i]), PackedMove.toString(moves[i]));
+            assertFalse(PackedMove.isCastling(moves[i]));
+        }
+    }
+
+    @Test
+    void enPassantExposingKingIsIllegal() {
+        Board board = Board.fromFen("8/8/8/KPp4r/8/8/8/4k3 w - c6 0 2");
+        int enPassant = PackedMove.of(25, 18, PackedMove.EN_PASSANT); // b5:c6
+        assertFalse(generator(board).isLegalMove(enPassant, moves));
+        assertTrue(generator(board).isLegalMove(PackedMove.of(25, 17, PackedMove.QUIET), moves)); // b5-b6
+    }
+
+    @Test
+    void arbitraryMoveMustMatchFlags() {
+        Board board = new Board();
+        board.initBoard();
+        MoveGenerator generator = generator(board);
+        assertTrue(generator.isLegalMove(PackedMove.of(52, 36, PackedMove.DOUBLE_PAWN_PUSH), moves)); // e2-e4
+        assertFalse(generator.isLegalMove(PackedMove.of(52, 36, PackedMove.QUIET), moves));
+        assertFalse(generator.isLegalMove(PackedMove.of(52, 36, PackedMove.CAPTURE), moves));
+        assertFalse(generator.isLegalMove(PackedMove.of(52, 28, PackedMove.QUIET), moves));        // e2-e5
+        assertFalse(generator.isLegalMove(PackedMove.of(12, 28, PackedMove.DOUBLE_PAWN_PUSH), moves)); // черная пешка, ход белых
+        assertFalse(generator.isLegalMove(PackedMove.of(0, 63, PackedMove.QUIET), moves));
+        assertFalse(generator.isLegalMove(PackedMove.NONE, moves));
+        assertEquals(Board.fromFen("rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1").getHash(), board.getHash());
+    }
+}
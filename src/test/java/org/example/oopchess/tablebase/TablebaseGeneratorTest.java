@@ -0,0 +1,121 @@
+package org.example.oopchess.tablebase;
+
+import org.example.oopchess.engine.Search;
+import org.example.oopchess.engine.SearchLimits;
+import org.example.oopchess.engine.SearchResult;
+import org.example.oopchess.engine.TranspositionTable;
+import org.example.oopchess.enums.PieceColor;
+import org.example.oopchess.enums.PieceType;
+import org.example.oopchess.models.board.Board;
+import org.example.oopchess.rules.AttackTables;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+// Таблицы строятся один раз на класс (несколько секунд) и сверяются с известными числами и с обычным поиском
+class TablebaseGeneratorTest {
+    @TempDir
+    static Path directory;
+
+    private static Tablebase tablebase;
+
+    @BeforeAll
+    static void generate() throws IOException {
+        tablebase = Tablebase.openOrGenerate(directory);
+    }
+
+    @AfterAll
+    static void close() throws IOException {
+        tablebase.close();
+    }
+
+    // белые (сильная сторона) на ходу: допустимые позиции и выигрыши KPK
+    @Test
+    void kpkWinCount() throws IOException {
+        byte[] bytes = Files.readAllBytes(directory.resolve(Tablebase.fileName(PieceType.PAWN)));
+        int valid = 0;
+        int wins = 0;
+        for (int i = 0; i < 64 * 64 * 64; i++) {
+            int value = bytes[Tablebase.HEADER_SIZE + i] & 0xFF;
+            if (value == (Tablebase.INVALID & 0xFF)) continue;
+            valid++;
+            if (value != 0) wins++;
+        }
+        assertEquals(163_328, valid);
+        assertEquals(124_960, wins);
+    }
+
+    @Test
+    void knownPositions() {
+        assertEquals(Search.MATE - 1, tablebase.probe(new Board("k7/8/1K6/8/8/8/8/7R w - - 0 1")));
+        assertEquals(0, tablebase.probe(new Board("k7/8/8/8/8/8/P7/K7 w - - 0 1"))); // крайняя пешка, король в углу
+        assertNotEquals(0, tablebase.probe(new Board("8/8/8/4k3/8/8/8/KQ6 w - - 0 1")));
+        assertEquals(0, tablebase.probe(new Board("8/8/8/8/8/4k3/4p3/4K3 w - - 0 1"))); // пат
+    }
+
+    // случайные позиции с коротким матом или ничьей: таблица должна давать ровно оценку поиска
+    @Test
+    void matchesSearchOnShortMates() {
+        Random random = new Random(7);
+        char[] pieces = {'Q', 'R', 'P', 'q', 'r', 'p'};
+        int checked = 0;
+        while (checked < 300) {
+            int strongKing = random.nextInt(64);
+            int weakKing = random.nextInt(64);
+            int square = random.nextInt(64);
+            char piece = pieces[random.nextInt(pieces.length)];
+            if (strongKing == weakKing || strongKing == square || weakKing == square) continue;
+            if ((piece == 'P' || piece == 'p') && (square < 8 || square >= 56)) continue;
+            if ((AttackTables.kingAttacks(strongKing) & (1L << weakKing)) != 0) continue;
+
+            Board board = new Board(placement(strongKing, weakKing, square, piece)
+                    + (random.nextBoolean() ? " w - - 0 1" : " b - - 0 1"));
+            PieceColor waiting = board.getSideToMove() == PieceColor.WHITE ? PieceColor.BLACK : PieceColor.WHITE;
+            if (board.isCheck(waiting)) continue;
+
+            int score = tablebase.probe(board);
+            assertNotEquals(Tablebase.UNKNOWN, score, board.toFen());
+            int distance = score == 0 ? Integer.MAX_VALUE : Search.MATE - Math.abs(score);
+            if (distance > 7) continue;
+
+            SearchResult result = new Search(board, new TranspositionTable(4)).search(SearchLimits.depth(distance + 1));
+            assertEquals(score, result.getScore(), board.toFen());
+            checked++;
+        }
+    }
+
+    private static String placement(int whiteKing, int blackKing, int square, char piece) {
+        char[] squares = new char[64];
+        Arrays.fill(squares, '.');
+        squares[whiteKing] = 'K';
+        squares[blackKing] = 'k';
+        squares[square] = piece;
+        StringBuilder sb = new StringBuilder();
+        for (int row = 0; row < 8; row++) {
+            int empty = 0;
+            for (int col = 0; col < 8; col++) {
+                char c = squares[row * 8 + col];
+                if (c == '.') {
+                    empty++;
+                    continue;
+                }
+                if (empty > 0) sb.append(empty);
+                empty = 0;
+                sb.append(c);
+            }
+            if (empty > 0) sb.append(empty);
+            if (row < 7) sb.append('/');
+        }
+        return sb.toString();
+    }
+}